@@ -9,6 +9,8 @@ public class MessageConstant {    // ---------------------- 通用提示 -------
     public static final String UNKNOWN_ERROR = "未知错误";
     public static final String UPLOAD_FAILED = "文件上传失败";
     public static final String PARAM_ERROR = "参数错误";
+    public static final String SYSTEM_BUSY = "系统繁忙，请稍后重试";
+    public static final String TOO_MANY_REQUESTS = "请求过于频繁，请稍后再试";
 
     // ---------------------- 用户相关 ----------------------
     public static final String USER_NOT_FOUND = "用户不存在";
@@ -19,6 +21,7 @@ public class MessageConstant {    // ---------------------- 通用提示 -------
     public static final String PASSWORD_CONFIRM_NOT_MATCH = "两次密码输入不一致";
     public static final String USER_LOCKED = "账号被锁定，请联系管理员";
     public static final String USER_NOT_LOGIN = "用户未登录，请先登录";
+    public static final String TOKEN_REVOKED = "登录状态已失效，请重新登录";
     public static final String LOGIN_FAILED = "登录失败，请检查账号或密码";
     public static final String ROLE_ERROR = "角色权限错误";
     public static final String PERMISSION_DENIED = "权限不足，无法执行此操作";
@@ -28,6 +31,7 @@ public class MessageConstant {    // ---------------------- 通用提示 -------
     public static final String COURSE_ALREADY_EXISTS = "课程名称已存在";
     public static final String COURSE_STATUS_ERROR = "课程状态错误";
     public static final String COURSE_ON_SALE = "已发布的课程不能删除";
+    public static final String COURSE_CAPACITY_CONFLICT = "不能同时设置名额上限和取消名额上限";
     public static final String CHAPTER_NOT_FOUND = "章节不存在";
     public static final String VIDEO_NOT_FOUND = "课时视频不存在";
 
@@ -36,15 +40,18 @@ public class MessageConstant {    // ---------------------- 通用提示 -------
     public static final String CATEGORY_ALREADY_EXISTS = "分类名称已存在";
     public static final String CATEGORY_BE_RELATED_BY_COURSE = "当前分类关联了课程，无法删除";
     public static final String CATEGORY_HAS_CHILDREN = "当前分类包含子分类，无法删除";
+    public static final String CATEGORY_MOVE_INVALID = "不能将分类移动到自身或其子分类下";
 
     // ---------------------- 学习相关 ----------------------
     public static final String ENROLL_ALREADY_EXISTS = "已选该课程，无需重复选课";
+    public static final String COURSE_FULL = "课程名额已满";
     public static final String ENROLL_NOT_FOUND = "未查询到选课记录";
     public static final String LEARN_RECORD_NOT_FOUND = "未查询到学习记录";
 
     // ---------------------- 订单相关 ----------------------
     public static final String ORDER_NOT_FOUND = "订单不存在";
     public static final String ORDER_ALREADY_EXISTS = "订单已存在";
+    public static final String PAY_CALLBACK_SIGN_INVALID = "支付回调签名校验失败";
 
     // ---------------------- 学生/教师相关 ----------------------
     public static final String STUDENT_NOT_FOUND = "学生信息不存在"; // 新增：学生信息不存在
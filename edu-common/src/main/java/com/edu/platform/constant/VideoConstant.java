@@ -0,0 +1,20 @@
+package com.edu.platform.constant;
+
+/**
+ * 课时常量
+ */
+public class VideoConstant {
+
+    /**
+     * 视频时长格式（HH:mm:ss，与 MySQL time_to_sec 的解析一致）
+     * 说明：^[0-9]{2}:[0-5][0-9]:[0-5][0-9]$
+     * - 小时固定两位，分、秒为 00-59；
+     * - 不接受 mm:ss 或纯秒数（time_to_sec 会把 "10:30" 解析为10小时30分）
+     */
+    public static final String DURATION_REGEX = "^[0-9]{2}:[0-5][0-9]:[0-5][0-9]$";
+
+    /**
+     * 视频时长格式提示文案
+     */
+    public static final String DURATION_MSG = "视频时长格式应为HH:mm:ss";
+}
@@ -0,0 +1,15 @@
+package com.edu.platform.exception;
+
+/**
+ * 请求过于频繁异常（触发限流）
+ */
+public class TooManyRequestsException extends BaseException {
+
+    public TooManyRequestsException() {
+        super();
+    }
+
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,36 @@
+package com.edu.platform.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 学习数据统计配置属性类
+ * 从 application.yml 中读取前缀为 "edu.analytics" 的配置
+ */
+@Component
+@ConfigurationProperties(prefix = "edu.analytics")
+@Data
+public class AnalyticsProperties {
+
+    /**
+     * 待统计事件队列容量，队列满时丢弃事件（只影响统计，不影响业务）
+     */
+    private int queueCapacity = 100000;
+
+    /**
+     * 内存中保留的日统计天数
+     */
+    private int retentionDays = 90;
+
+    /**
+     * 单次心跳最多计入的观看时长（秒），超过部分视为拖动进度条
+     */
+    private int maxHeartbeatSeconds = 60;
+
+    /**
+     * 小时/日统计落库间隔（秒），在分钟结束时检查，异常退出最多丢失这段时间的统计
+     */
+    private int persistIntervalSeconds = 60;
+
+}
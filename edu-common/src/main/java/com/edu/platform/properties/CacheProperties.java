@@ -0,0 +1,32 @@
+package com.edu.platform.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 进程内缓存配置属性类
+ * 从 application.yml 中读取前缀为 "edu.cache" 的配置
+ */
+@Component
+@ConfigurationProperties(prefix = "edu.cache")
+@Data
+public class CacheProperties {
+
+    /**
+     * 课程详情缓存的最大容量（单位：字节，按预序列化JSON的大小累计）
+     * 超出后按最近最少使用淘汰，默认64MB
+     */
+    private long courseDetailMaxBytes = 64L * 1024 * 1024;
+
+    /**
+     * 已校验令牌缓存的最大条目数，默认10000
+     */
+    private long verifiedTokenMaxEntries = 10000;
+
+    /**
+     * 用户档案缓存的最大条目数，默认10000
+     */
+    private long userProfileMaxEntries = 10000;
+
+}
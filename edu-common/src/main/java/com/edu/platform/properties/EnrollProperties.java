@@ -0,0 +1,36 @@
+package com.edu.platform.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 选课批量写入配置属性类
+ * 从 application.yml 中读取前缀为 "edu.enroll" 的配置
+ */
+@Component
+@ConfigurationProperties(prefix = "edu.enroll")
+@Data
+public class EnrollProperties {
+
+    /**
+     * 待写入队列容量，队列满时提示系统繁忙
+     */
+    private int queueCapacity = 10000;
+
+    /**
+     * 单批最多写入的选课记录数
+     */
+    private int maxBatchSize = 200;
+
+    /**
+     * 收到第一条请求后最多等待多久凑批（单位：毫秒）
+     */
+    private long lingerMillis = 5;
+
+    /**
+     * 请求线程等待写入结果的最长时间（单位：毫秒）
+     */
+    private long timeoutMillis = 5000;
+
+}
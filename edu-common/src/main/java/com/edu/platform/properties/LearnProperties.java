@@ -0,0 +1,36 @@
+package com.edu.platform.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 学习进度缓冲配置属性类
+ * 从 application.yml 中读取前缀为 "edu.learn" 的配置
+ */
+@Component
+@ConfigurationProperties(prefix = "edu.learn")
+@Data
+public class LearnProperties {
+
+    /**
+     * 脏进度刷入数据库的间隔（单位：毫秒）
+     */
+    private long flushIntervalMillis = 5000;
+
+    /**
+     * 单条批量写入语句最多包含的记录数
+     */
+    private int maxBatchSize = 500;
+
+    /**
+     * 已落库的进度在内存中保留多久未访问后清除（单位：毫秒）
+     */
+    private long idleExpireMillis = 1800000;
+
+    /**
+     * 观看进度达到视频时长的该比例即视为看完
+     */
+    private double watchedRatio = 0.9;
+
+}
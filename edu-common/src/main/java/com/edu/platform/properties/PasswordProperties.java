@@ -0,0 +1,46 @@
+package com.edu.platform.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 密码哈希配置属性类
+ * 从 application.yml 中读取前缀为 "edu.password" 的配置
+ */
+@Component
+@ConfigurationProperties(prefix = "edu.password")
+@Data
+public class PasswordProperties {
+
+    /**
+     * 单次哈希的目标耗时（单位：毫秒），启动时据此校准迭代次数
+     */
+    private long targetMillis = 50;
+
+    /**
+     * 迭代次数下限（校准结果低于该值时取该值）
+     */
+    private int minIterations = 100000;
+
+    /**
+     * 迭代次数上限（校准结果高于该值时取该值）
+     */
+    private int maxIterations = 600000;
+
+    /**
+     * 哈希线程池大小，默认CPU核数
+     */
+    private int poolSize = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * 哈希任务队列长度，队列满时直接拒绝（提示系统繁忙）
+     */
+    private int queueCapacity = 64;
+
+    /**
+     * 请求线程等待哈希结果的最长时间（单位：毫秒）
+     */
+    private long timeoutMillis = 3000;
+
+}
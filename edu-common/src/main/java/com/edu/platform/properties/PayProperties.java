@@ -0,0 +1,91 @@
+package com.edu.platform.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 支付结算配置属性类
+ * 从 application.yml 中读取前缀为 "edu.pay" 的配置
+ */
+@Component
+@ConfigurationProperties(prefix = "edu.pay")
+@Data
+public class PayProperties {
+
+    /**
+     * 当前节点ID（0~1023），用于生成订单编号，多实例部署时必须各不相同
+     */
+    private long nodeId = 0;
+
+    /**
+     * 模拟支付网关的确认延迟（单位：毫秒）
+     */
+    private long settleDelayMillis = 1000;
+
+    /**
+     * 待结算（已排期+待写入）订单数上限，超过时提示系统繁忙
+     */
+    private int queueCapacity = 10000;
+
+    /**
+     * 单批最多结算的订单数
+     */
+    private int maxBatchSize = 200;
+
+    /**
+     * 收到第一笔待结算订单后最多等待多久凑批（单位：毫秒）
+     */
+    private long lingerMillis = 10;
+
+    /**
+     * 停止时等待未完成结算的最长时间（单位：毫秒）
+     */
+    private long drainTimeoutMillis = 5000;
+
+    /**
+     * 支付回调签名密钥（与支付网关约定，HmacSHA256），未配置时拒绝所有回调
+     */
+    private String callbackSecret;
+
+    /**
+     * 支付回调待处理队列容量，队列满时回调仍已落库，由处理线程从数据库补偿加载
+     */
+    private int callbackQueueCapacity = 10000;
+
+    /**
+     * 内存中记录最近回调交易号的数量（快速去重，数据库唯一键兜底）
+     */
+    private int recentTradeNoCapacity = 100000;
+
+    /**
+     * 支付回调处理失败后首次重试的等待时间，之后每次失败翻倍（单位：毫秒）
+     */
+    private long callbackRetryBaseMillis = 1000;
+
+    /**
+     * 支付回调处理失败后重试等待时间的上限（单位：毫秒）
+     */
+    private long callbackRetryMaxMillis = 300000;
+
+    /**
+     * 订单未支付超时时间，超时后关闭订单（单位：毫秒）
+     */
+    private long orderTimeoutMillis = 1800000;
+
+    /**
+     * 订单超时时间轮的刻度（单位：毫秒），订单最多在到期后该时长内关闭
+     */
+    private long expiryTickMillis = 1000;
+
+    /**
+     * 等待订单状态变化的最长时间（单位：毫秒），超时后返回当前状态
+     */
+    private long statusWaitTimeoutMillis = 30000;
+
+    /**
+     * 同时等待订单状态变化的请求数上限，超过时直接返回当前状态
+     */
+    private int maxStatusWaiters = 10000;
+
+}
@@ -0,0 +1,73 @@
+package com.edu.platform.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 接口限流配置属性类（令牌桶）
+ * 从 application.yml 中读取前缀为 "edu.rate-limit" 的配置
+ */
+@Component
+@ConfigurationProperties(prefix = "edu.rate-limit")
+@Data
+public class RateLimitProperties {
+
+    /**
+     * 登录接口限流（按客户端IP）
+     */
+    private Rule login = new Rule(10, 1);
+
+    /**
+     * 登录接口限流（按登录账号，与按IP限流同时生效）
+     */
+    private Rule loginAccount = new Rule(5, 0.1);
+
+    /**
+     * 注册接口限流（按客户端IP）
+     */
+    private Rule register = new Rule(5, 0.2);
+
+    /**
+     * 下单接口限流（按用户ID）
+     */
+    private Rule order = new Rule(5, 1);
+
+    /**
+     * 可信反向代理IP，仅当请求直接来自这些地址时才采用 X-Forwarded-For 中的客户端IP
+     */
+    private List<String> trustedProxies = new ArrayList<>();
+
+    /**
+     * 令牌桶闲置多久后清理（单位：毫秒），闲置期间桶已回满，清理不影响限流结果
+     */
+    private long idleExpireMillis = 10 * 60 * 1000;
+
+    /**
+     * 单条限流规则
+     */
+    @Data
+    public static class Rule {
+
+        /**
+         * 桶容量（允许的突发请求数）
+         */
+        private int capacity;
+
+        /**
+         * 每秒补充的令牌数（稳定速率）
+         */
+        private double refillPerSecond;
+
+        public Rule() {
+        }
+
+        public Rule(int capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.edu.platform.result;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 封装游标分页查询结果（不统计总数，适合深翻页和无限滚动）
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageResult implements Serializable {
+
+    /** 默认每页条数 */
+    public static final int DEFAULT_PAGE_SIZE = 10;
+    /** 每页条数上限 */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private List records; //当前页数据集合
+
+    private String nextCursor; //下一页游标（没有更多数据时为null）
+
+    private boolean hasMore; //是否还有下一页
+
+    /**
+     * 规范化每页条数（空或非正数取默认值，超过上限取上限）
+     */
+    public static int normalizePageSize(Integer pageSize) {
+        if (pageSize == null || pageSize <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(pageSize, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * 根据多查询一条的结果构建分页结果
+     * @param rows 查询结果（查询时 limit = pageSize + 1）
+     * @param pageSize 每页条数
+     * @param cursorOf 从一条记录中提取排序键
+     */
+    public static <T> CursorPageResult of(List<T> rows, int pageSize, Function<T, PageCursor> cursorOf) {
+        boolean hasMore = rows.size() > pageSize;
+        List<T> records = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? cursorOf.apply(records.get(records.size() - 1)).encode() : null;
+        return new CursorPageResult(records, nextCursor, hasMore);
+    }
+}
@@ -0,0 +1,50 @@
+package com.edu.platform.result;
+
+import com.edu.platform.exception.ParameterInvalidException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 游标分页的位置（排序时间 + 主键ID）
+ * 对外以不透明的 Base64 字符串传递，前端只需原样回传 nextCursor
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PageCursor {
+
+    private LocalDateTime sortTime; // 排序字段（update_time/create_time/enroll_time）
+    private Long id;                // 排序时间相同时的次级排序字段
+
+    /**
+     * 编码为不透明游标字符串
+     */
+    public String encode() {
+        String raw = sortTime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标字符串（为空表示从第一页开始）
+     * @param cursor 前端回传的游标
+     * @return 游标位置，cursor为空时返回null
+     * @throws ParameterInvalidException 游标格式非法
+     */
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int split = raw.lastIndexOf('|');
+            return new PageCursor(LocalDateTime.parse(raw.substring(0, split)), Long.valueOf(raw.substring(split + 1)));
+        } catch (RuntimeException e) {
+            throw new ParameterInvalidException("分页游标无效");
+        }
+    }
+}
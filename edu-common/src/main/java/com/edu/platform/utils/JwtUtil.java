@@ -3,6 +3,7 @@ package com.edu.platform.utils;
 import com.edu.platform.properties.JwtProperties;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -25,6 +26,7 @@ public class JwtUtil {
 
     private final JwtProperties jwtProperties;
     private final SecretKey secretKey; // 预加载密钥，避免重复创建
+    private final JwtParser jwtParser; // 预构建解析器（线程安全），避免每次解析重新创建
 
     /**
      * 构造方法注入 JwtProperties（无需手动传递配置参数，更简洁）
@@ -38,6 +40,7 @@ public class JwtUtil {
             throw new IllegalArgumentException("JWT密钥长度必须≥32个UTF-8字符（256位），当前长度：" + keyBytes.length);
         }
         this.secretKey = Keys.hmacShaKeyFor(keyBytes);
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(secretKey).build();
     }
 
     /**
@@ -73,13 +76,7 @@ public class JwtUtil {
             if (token == null || !token.contains(".")) {
                 throw new RuntimeException("令牌格式错误");
             }
-            if (log.isInfoEnabled()) {log.info("生成令牌使用的密钥hash：{}，长度：{}",
-                    secretKey.hashCode(), secretKey.getEncoded().length);}
-            return Jwts.parserBuilder()
-                    .setSigningKey(secretKey)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return jwtParser.parseClaimsJws(token).getBody();
         } catch (io.jsonwebtoken.ExpiredJwtException e) {
             log.error("JWT令牌已过期：{}", e.getMessage());
             throw new RuntimeException("登录已过期，请重新登录");
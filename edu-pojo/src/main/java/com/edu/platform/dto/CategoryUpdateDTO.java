@@ -18,4 +18,7 @@ public class CategoryUpdateDTO {
     @ApiModelProperty(value = "排序号", required = true, example = "2")
     @NotNull(message = "排序号不能为空")
     private Integer sort;
+
+    @ApiModelProperty(value = "父分类ID（可选，传入时将分类及其子树移动到该父分类下，0为一级分类）", example = "0")
+    private Long parentId;
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ import org.hibernate.validator.constraints.Length;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -37,4 +38,8 @@ public class CourseAddDTO {
 
     @ApiModelProperty(value = "课程结束时间", example = "2025-02-01 00:00:00")
     private LocalDateTime endTime;
+
+    @ApiModelProperty(value = "名额上限（不传表示不限）", example = "100")
+    @Positive(message = "名额上限必须大于0")
+    private Integer capacity;
 }
\ No newline at end of file
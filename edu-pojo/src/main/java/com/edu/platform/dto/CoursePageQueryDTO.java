@@ -16,9 +16,15 @@ public class CoursePageQueryDTO {
     @ApiModelProperty(value = "分类ID（可选）", example = "1")
     private Long categoryId; // 分类筛选
 
+    @ApiModelProperty(value = "是否包含子分类下的课程（配合categoryId使用，默认false）", example = "true")
+    private boolean includeDescendants; // 子树筛选
+
     @ApiModelProperty(value = "课程标题（模糊查询，可选）", example = "Java")
     private String title; // 标题模糊搜索
 
     @ApiModelProperty(value = "课程状态（可选，0-草稿，1-已发布，2-已下架）", example = "1")
     private Integer status; // 状态筛选
+
+    @ApiModelProperty(value = "游标（仅游标分页使用，首页不传，后续传上一页返回的nextCursor）")
+    private String cursor; // 游标分页位置
 }
\ No newline at end of file
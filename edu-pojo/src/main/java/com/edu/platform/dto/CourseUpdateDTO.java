@@ -6,6 +6,7 @@ import lombok.Data;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -42,4 +43,11 @@ public class CourseUpdateDTO {
     @ApiModelProperty(value = "课程结束时间", required = true)
     @NotNull(message = "课程结束时间不能为空")
     private LocalDateTime endTime;
+
+    @ApiModelProperty(value = "名额上限（不传表示保持原值）", example = "100")
+    @Positive(message = "名额上限必须大于0")
+    private Integer capacity;
+
+    @ApiModelProperty(value = "是否取消名额上限（true-改为不限，此时不能同时传 capacity）", example = "false")
+    private Boolean clearCapacity;
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.edu.platform.dto;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.PositiveOrZero;
+
+@Data
+@ApiModel(description = "学习进度上报请求参数")
+public class LearnProgressDTO {
+
+    @ApiModelProperty(value = "课时ID", required = true, example = "1")
+    @NotNull(message = "课时ID不能为空")
+    private Long videoId;
+
+    @ApiModelProperty(value = "当前播放位置（秒）", required = true, example = "120")
+    @NotNull(message = "播放位置不能为空")
+    @PositiveOrZero(message = "播放位置不能为负数")
+    private Integer progress;
+}
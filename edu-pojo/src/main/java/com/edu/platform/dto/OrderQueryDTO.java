@@ -15,4 +15,7 @@ public class OrderQueryDTO {
 
     @ApiModelProperty(value = "每页条数", example = "10")
     private Integer pageSize = 10;
+
+    @ApiModelProperty(value = "游标（仅游标分页使用，首页不传，后续传上一页返回的nextCursor）")
+    private String cursor;
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.edu.platform.dto;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import java.math.BigDecimal;
+
+@Data
+@ApiModel(description = "支付回调请求参数")
+public class PayCallbackDTO {
+
+    @ApiModelProperty(value = "订单编号", required = true, example = "ORDER_0000000000001")
+    @NotBlank(message = "订单编号不能为空")
+    private String orderNo;
+
+    @ApiModelProperty(value = "第三方支付交易号", required = true, example = "WX202501010001")
+    @NotBlank(message = "交易号不能为空")
+    private String tradeNo;
+
+    @ApiModelProperty(value = "支付平台（1-微信，2-支付宝）", required = true, example = "1")
+    @NotNull(message = "支付平台不能为空")
+    private Integer payPlatform;
+
+    @ApiModelProperty(value = "实付金额（元）", required = true, example = "99.00")
+    @NotNull(message = "支付金额不能为空")
+    private BigDecimal totalFee;
+
+    @ApiModelProperty(value = "回调原文")
+    private String callbackContent;
+
+    @ApiModelProperty(value = "签名（HmacSHA256，小写十六进制）", required = true)
+    @NotBlank(message = "签名不能为空")
+    private String sign;
+}
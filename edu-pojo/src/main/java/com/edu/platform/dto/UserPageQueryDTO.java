@@ -16,4 +16,7 @@ public class UserPageQueryDTO {
     private String username; // 用户名（模糊查询）
     private Integer role; // 角色（1-学生，2-教师，3-管理员）
     private Integer status; // 状态（0-禁用，1-启用）
+
+    // 游标分页参数（仅游标分页使用，首页不传，后续传上一页返回的nextCursor）
+    private String cursor;
 }
\ No newline at end of file
@@ -1,11 +1,13 @@
 package com.edu.platform.dto;
 
+import com.edu.platform.constant.VideoConstant;
 import io.swagger.annotations.ApiModel;
 import io.swagger.annotations.ApiModelProperty;
 import lombok.Data;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
 
 @Data
 @ApiModel(description = "课时添加请求参数")
@@ -23,6 +25,7 @@ public class VideoAddDTO {
     private String videoUrl; // 允许为空（支持后期上传）
 
     @ApiModelProperty(value = "视频时长（格式HH:mm:ss）", example = "00:15:30")
+    @Pattern(regexp = VideoConstant.DURATION_REGEX, message = VideoConstant.DURATION_MSG)
     private String duration;
 
     @ApiModelProperty(value = "是否免费（0-付费，1-免费）", required = true, example = "1")
@@ -1,11 +1,13 @@
 package com.edu.platform.dto;
 
+import com.edu.platform.constant.VideoConstant;
 import io.swagger.annotations.ApiModel;
 import io.swagger.annotations.ApiModelProperty;
 import lombok.Data;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
 
 @Data
 @ApiModel(description = "课时修改请求参数")
@@ -18,6 +20,10 @@ public class VideoUpdateDTO {
     @ApiModelProperty(value = "视频URL", example = "https://xxx.com/video-update.mp4")
     private String videoUrl; // 允许为空（支持后期上传）
 
+    @ApiModelProperty(value = "视频时长（格式HH:mm:ss，不传表示不修改）", example = "00:15:30")
+    @Pattern(regexp = VideoConstant.DURATION_REGEX, message = VideoConstant.DURATION_MSG)
+    private String duration;
+
     @ApiModelProperty(value = "是否免费（0-付费，1-免费）", required = true, example = "0")
     @NotNull(message = "是否免费标识不能为空")
     private Integer isFree;
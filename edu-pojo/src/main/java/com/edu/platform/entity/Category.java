@@ -15,4 +15,5 @@ public class Category {
     private String name;
     private Long parentId;
     private Integer sort;
+    private String path; // 祖先路径（如 /1/5/，包含自身ID，用于子树查询）
 }
@@ -31,8 +31,14 @@ public class Course {
 
     private LocalDateTime endTime;     // 课程结束时间
 
+    private Integer capacity;          // 名额上限（int，null表示不限）
+
+    private Integer enrolledCount;     // 已选人数（int，异步校准）
+
     private LocalDateTime createTime;   //创建时间（datetime，可为空）
 
     private LocalDateTime updateTime; //更新时间（datetime，可为空）
 
+    private Integer completion;       //学习完成度（0-100，非表字段，仅已选课程查询时填充）
+
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.edu.platform.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 学生在某门课程中已看完的课时数（学习记录按学生+课程分组统计结果）
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CourseCompletion {
+    private Long studentId;      // 学生ID（edu_student.id）
+    private Long courseId;       // 课程ID
+    private int completedCount;  // 已看完的课时数
+}
@@ -5,13 +5,16 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 
+import java.time.LocalDateTime;
+
 @Data
 @ToString
 @AllArgsConstructor
 @NoArgsConstructor
 public class LearnRecord {
     private Long id;
-    private int student_id;
-    private int video_id;
-    private int progress;
+    private Long studentId; // 学生ID（edu_student.id），与数据库字段student_id映射
+    private Long videoId;   // 课时ID，与数据库字段video_id映射
+    private Integer progress; // 已观看到的位置（秒）
+    private LocalDateTime updateTime; // 最后上报时间
 }
@@ -0,0 +1,21 @@
+package com.edu.platform.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 学习统计汇总（对应edu_learning_stat表，每行为一个时间桶内某个维度的指标值）
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LearningStat {
+    private String granularity;        // 粒度：HOUR-小时，DAY-天
+    private LocalDateTime bucketTime;  // 时间桶起点
+    private String metric;             // 指标名（见 LearningStatsVO 各字段）
+    private Long dimId;                // 维度ID（课程/教师/分类ID，无维度时为0）
+    private Long statValue;            // 指标值
+}
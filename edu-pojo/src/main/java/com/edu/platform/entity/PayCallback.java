@@ -0,0 +1,24 @@
+package com.edu.platform.entity;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 支付回调收件箱实体类（对应edu_pay_callback表）
+ */
+@Data
+public class PayCallback {
+    private Long id;                   // 主键
+    private String orderNo;            // 订单编号
+    private String tradeNo;            // 第三方支付交易号（唯一，用于去重）
+    private Integer payPlatform;       // 支付平台：1-微信，2-支付宝
+    private BigDecimal totalFee;       // 实付金额（元）
+    private String callbackContent;    // 回调原文
+    private Integer status;            // 处理状态：0-待处理（含处理失败待重试），1-已处理，2-已忽略（订单非待支付）
+    private Integer retryCount;        // 处理失败次数
+    private LocalDateTime nextRetryTime; // 下次重试时间（处理失败后按次数退避，为空表示立即处理）
+    private LocalDateTime createTime;  // 接收时间
+    private LocalDateTime processTime; // 处理时间（处理失败时为最近一次失败时间）
+}
@@ -21,4 +21,5 @@ public class User {
     private Integer status;           // 账号状态：0-禁用（无法登录），1-正常（可登录）
     private LocalDateTime createTime; // 账号创建时间（自动记录）
     private LocalDateTime updateTime; // 账号信息最后更新时间（自动更新）
+    private LocalDateTime tokensValidAfter; // 令牌生效起点：签发时间早于该时间的令牌无效（禁用/启用时更新）
 }
@@ -0,0 +1,41 @@
+package com.edu.platform.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/*用户档案（edu_user 关联 edu_student/edu_teacher 的一次查询结果）*/
+@Data
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserProfile {
+    // ---------------------- edu_user ----------------------
+    private Long id;                  // 用户ID
+    private String username;          // 登录用户名
+    private String nickname;          // 昵称
+    private String avatar;            // 头像URL
+    private String phone;             // 手机号
+    private String email;             // 邮箱
+    private Integer role;             // 角色类型：1-学生，2-教师，3-管理员
+    private Integer status;           // 账号状态：0-禁用，1-正常
+    private LocalDateTime createTime; // 账号创建时间
+    private LocalDateTime updateTime; // 信息最后更新时间
+
+    // ---------------------- edu_student（非学生为null） ----------------------
+    private Long studentId;
+    private String studentRealName;
+    private String school;
+    private String grade;
+    private String studentIntroduction;
+
+    // ---------------------- edu_teacher（非教师为null） ----------------------
+    private Long teacherId;
+    private String teacherRealName;
+    private String title;
+    private Integer teachingYears;
+    private String teacherIntroduction;
+}
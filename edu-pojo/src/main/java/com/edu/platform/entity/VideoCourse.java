@@ -0,0 +1,17 @@
+package com.edu.platform.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 课时与所属课程（课时 -> 章节 -> 课程 关联查询结果）
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class VideoCourse {
+    private Long id;         // 课时ID
+    private Long courseId;   // 所属课程ID
+    private String duration; // 视频时长（HH:mm:ss）
+}
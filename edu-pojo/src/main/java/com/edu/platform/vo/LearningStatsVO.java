@@ -0,0 +1,42 @@
+package com.edu.platform.vo;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * 学习数据统计VO（一个时间桶：小时或天）
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@ApiModel(description = "学习数据统计")
+public class LearningStatsVO implements Serializable {
+
+    @ApiModelProperty(value = "时间桶起点", example = "2025-01-01 00:00:00")
+    private LocalDateTime bucketTime;
+
+    @ApiModelProperty(value = "活跃学习人数（有学习进度上报的学生数）", example = "120")
+    private long activeLearners;
+
+    @ApiModelProperty(value = "选课数", example = "35")
+    private long enrollments;
+
+    @ApiModelProperty(value = "观看时长（秒）", example = "86400")
+    private long watchSeconds;
+
+    @ApiModelProperty(value = "各课程观看时长（课程ID -> 秒）")
+    private Map<Long, Long> courseWatchSeconds;
+
+    @ApiModelProperty(value = "各教师课程观看时长（教师ID -> 秒）")
+    private Map<Long, Long> teacherWatchSeconds;
+
+    @ApiModelProperty(value = "各分类选课数（分类ID -> 选课数）")
+    private Map<Long, Long> categoryEnrollments;
+}
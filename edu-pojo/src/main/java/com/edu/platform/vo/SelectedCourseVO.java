@@ -0,0 +1,50 @@
+package com.edu.platform.vo;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 学生已选课程VO（课程信息 + 授课教师 + 选课时间）
+ */
+@Data
+@ApiModel(description = "学生已选课程")
+public class SelectedCourseVO implements Serializable {
+
+    @ApiModelProperty(value = "课程ID", example = "1")
+    private Long id;
+
+    @ApiModelProperty(value = "课程标题", example = "Java编程入门")
+    private String title;
+
+    @ApiModelProperty(value = "课程封面", example = "https://xxx.com/cover.jpg")
+    private String cover;
+
+    @ApiModelProperty(value = "课程价格", example = "99.00")
+    private BigDecimal price;
+
+    @ApiModelProperty(value = "教师ID", example = "1")
+    private Long teacherId;
+
+    @ApiModelProperty(value = "授课教师姓名", example = "张三")
+    private String teacherName;
+
+    @ApiModelProperty(value = "课程开始时间", example = "2025-01-01 00:00:00")
+    private LocalDateTime startTime;
+
+    @ApiModelProperty(value = "课程结束时间", example = "2025-02-01 00:00:00")
+    private LocalDateTime endTime;
+
+    @ApiModelProperty(value = "课程状态（0-草稿，1-已发布，2-已下架）", example = "1")
+    private Integer status;
+
+    @ApiModelProperty(value = "选课时间", example = "2025-01-01 10:00:00")
+    private LocalDateTime enrollTime;
+
+    @ApiModelProperty(value = "学习完成度（0-100）", example = "45")
+    private Integer completion;
+}
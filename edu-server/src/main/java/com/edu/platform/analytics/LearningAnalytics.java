@@ -0,0 +1,330 @@
+package com.edu.platform.analytics;
+
+import com.edu.platform.entity.Course;
+import com.edu.platform.entity.LearningStat;
+import com.edu.platform.mapper.CourseMapper;
+import com.edu.platform.mapper.LearningStatMapper;
+import com.edu.platform.properties.AnalyticsProperties;
+import com.edu.platform.utils.TransactionUtils;
+import com.edu.platform.vo.LearningStatsVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 学习数据流式统计
+ * 说明：
+ * 1. 选课、学习进度事件放入有界队列（队列满时丢弃并计数，不阻塞业务），由单个统计线程消费；
+ * 2. 事件先累加到当前分钟桶，分钟结束时合并进小时桶和天桶，并发布只读快照，查询直接读快照（常数时间）；
+ * 3. 每隔 persistIntervalSeconds（在分钟结束时检查）和小时结束时，把小时桶和当天的累计值 upsert 到 edu_learning_stat，
+ *    upsert 写入的是累计值，重复写入幂等，进程异常退出最多丢失一个落库间隔的统计；跨天时当天快照转入历史；
+ * 4. 启动时从汇总表加载历史，并恢复当天/当前小时已落库的计数；backfill 可由原始记录重建历史日统计；
+ * 5. 课程所属教师/分类在统计线程内缓存，课程修改或删除提交后通过 onCourseChanged 失效，由统计线程在处理下一个事件前移除。
+ */
+@Component
+@Slf4j
+public class LearningAnalytics {
+
+    static final String HOUR = "HOUR";
+    static final String DAY = "DAY";
+
+    private static final int RECENT_MINUTES = 60;
+    private static final int RECENT_HOURS = 48;
+
+    @Autowired
+    private LearningStatMapper learningStatMapper;
+
+    @Autowired
+    private CourseMapper courseMapper;
+
+    @Autowired
+    private AnalyticsProperties analyticsProperties;
+
+    private BlockingQueue<Event> queue;
+    private Thread worker;
+    private volatile boolean running = true;
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    // 以下桶只由统计线程访问
+    private RollupBucket minute;
+    private RollupBucket hour;
+    private RollupBucket day;
+    private final Map<Long, Course> courses = new HashMap<>();
+    private LocalDateTime lastPersist;
+
+    // 待失效的课程（业务线程写入，统计线程消费）
+    private final Queue<Long> changedCourses = new ConcurrentLinkedQueue<>();
+
+    // 已发布的只读快照
+    private final ConcurrentSkipListMap<LocalDateTime, LearningStatsVO> minutely = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<LocalDateTime, LearningStatsVO> hourly = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<LocalDate, LearningStatsVO> daily = new ConcurrentSkipListMap<>();
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(analyticsProperties.getQueueCapacity());
+        LocalDateTime now = LocalDateTime.now();
+        minute = new RollupBucket(now.truncatedTo(ChronoUnit.MINUTES));
+        hour = restore(HOUR, now.truncatedTo(ChronoUnit.HOURS));
+        day = restore(DAY, now.truncatedTo(ChronoUnit.DAYS));
+        reloadHistory();
+        hourly.put(hour.start, hour.toVO());
+        daily.put(day.start.toLocalDate(), day.toVO());
+        lastPersist = now;
+
+        worker = new Thread(this::runLoop, "learning-analytics");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * 停止时处理完队列中的事件并落库
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * 学习进度事件
+     * @param studentId 学生ID（edu_student.id）
+     * @param courseId 课程ID
+     * @param previous 上报前的最大进度（秒，从未上报过为负数）
+     * @param current 上报后的最大进度（秒）
+     */
+    public void onProgress(Long studentId, Long courseId, int previous, int current) {
+        long seconds = Math.min(Math.max(0, current - Math.max(0, previous)), analyticsProperties.getMaxHeartbeatSeconds());
+        offer(new Event(studentId, courseId, seconds, false));
+    }
+
+    /**
+     * 选课成功事件
+     * @param studentId 学生ID（edu_student.id）
+     * @param courseId 课程ID
+     */
+    public void onEnrolled(Long studentId, Long courseId) {
+        offer(new Event(studentId, courseId, 0, true));
+    }
+
+    /**
+     * 课程信息变更（修改/删除），事务提交后失效统计线程内的课程缓存
+     * @param courseId 课程ID
+     */
+    public void onCourseChanged(Long courseId) {
+        TransactionUtils.afterCommit(() -> changedCourses.offer(courseId));
+    }
+
+    /**
+     * 最近若干天的日统计（含当天）
+     * @param days 天数
+     * @return 按日期升序
+     */
+    public List<LearningStatsVO> getDaily(int days) {
+        LocalDate since = LocalDate.now().minusDays(Math.max(1, days) - 1L);
+        return new ArrayList<>(daily.tailMap(since, true).values());
+    }
+
+    /**
+     * 最近48小时的小时统计（当前小时截至上一分钟）
+     */
+    public List<LearningStatsVO> getHourly() {
+        return new ArrayList<>(hourly.values());
+    }
+
+    /**
+     * 最近60分钟的分钟统计
+     */
+    public List<LearningStatsVO> getMinutely() {
+        return new ArrayList<>(minutely.values());
+    }
+
+    /**
+     * 由原始选课/学习记录重建历史日统计（不含当天，当天以实时统计为准）
+     * 注意：学习记录只保存最大进度和最后上报时间，回填的活跃人数和观看时长按最后上报日期近似统计
+     * @param days 回填天数
+     */
+    public void backfill(int days) {
+        LocalDateTime until = LocalDate.now().atStartOfDay();
+        LocalDateTime since = until.minusDays(Math.max(1, days));
+        learningStatMapper.deleteDailyBetween(since, until);
+        learningStatMapper.backfillDailyEnrollments(since, until);
+        learningStatMapper.backfillDailyLearners(since, until);
+        learningStatMapper.backfillDailyCourseWatch(since, until);
+        learningStatMapper.backfillDailyTeacherWatch(since, until);
+        reloadHistory();
+        log.info("学习统计回填完成：{} ~ {}", since, until);
+    }
+
+    private void offer(Event event) {
+        if (!running || !queue.offer(event)) {
+            droppedEvents.incrementAndGet();
+        }
+    }
+
+    private void runLoop() {
+        while (running || !queue.isEmpty()) {
+            try {
+                Event event = queue.poll(1, TimeUnit.SECONDS);
+                roll(LocalDateTime.now());
+                if (event != null) {
+                    apply(event);
+                }
+            } catch (InterruptedException e) {
+                // 停止信号：继续循环处理完剩余事件
+            } catch (Exception e) {
+                log.error("学习统计处理异常", e);
+            }
+        }
+        try {
+            closeMinute(LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES));
+            persist();
+        } catch (Exception e) {
+            log.error("学习统计停止时落库失败", e);
+        }
+    }
+
+    private void apply(Event event) {
+        for (Long courseId; (courseId = changedCourses.poll()) != null; ) {
+            courses.remove(courseId);
+        }
+        Course course = course(event.courseId);
+        if (event.enroll) {
+            minute.addEnroll(course == null ? null : course.getCategoryId());
+        } else {
+            minute.addWatch(event.studentId, event.courseId, course == null ? null : course.getTeacherId(), event.seconds);
+        }
+    }
+
+    /**
+     * 按当前时间滚动时间桶
+     */
+    private void roll(LocalDateTime now) {
+        LocalDateTime minuteStart = now.truncatedTo(ChronoUnit.MINUTES);
+        if (!minute.start.isBefore(minuteStart)) {
+            return;
+        }
+        closeMinute(minuteStart);
+        LocalDateTime hourStart = now.truncatedTo(ChronoUnit.HOURS);
+        if (hour.start.isBefore(hourStart)) {
+            persist();
+            hour = new RollupBucket(hourStart);
+            hourly.put(hourStart, hour.toVO());
+            trim(hourly, RECENT_HOURS);
+        } else if (!now.isBefore(lastPersist.plusSeconds(analyticsProperties.getPersistIntervalSeconds()))) {
+            persist();
+        }
+        LocalDateTime dayStart = now.truncatedTo(ChronoUnit.DAYS);
+        if (day.start.isBefore(dayStart)) {
+            day = new RollupBucket(dayStart);
+            daily.put(dayStart.toLocalDate(), day.toVO());
+            trim(daily, analyticsProperties.getRetentionDays());
+        }
+    }
+
+    /**
+     * 结束当前分钟：合并进小时桶和天桶并发布快照
+     */
+    private void closeMinute(LocalDateTime nextMinute) {
+        hour.merge(minute);
+        day.merge(minute);
+        minutely.put(minute.start, minute.toVO());
+        trim(minutely, RECENT_MINUTES);
+        hourly.put(hour.start, hour.toVO());
+        daily.put(day.start.toLocalDate(), day.toVO());
+        minute = new RollupBucket(nextMinute);
+    }
+
+    /**
+     * 小时桶和当天累计值写入汇总表（定期及小时结束时调用）
+     */
+    private void persist() {
+        lastPersist = LocalDateTime.now();
+        List<LearningStat> rows = hour.toRows(HOUR);
+        rows.addAll(day.toRows(DAY));
+        try {
+            learningStatMapper.batchUpsert(rows);
+        } catch (Exception e) {
+            log.error("学习统计落库失败：hour={}", hour.start, e);
+        }
+        long dropped = droppedEvents.getAndSet(0);
+        if (dropped > 0) {
+            log.warn("学习统计队列已满，上次落库以来丢弃事件数={}", dropped);
+        }
+    }
+
+    /**
+     * 恢复当前小时/当天已落库的计数和活跃学生
+     */
+    private RollupBucket restore(String granularity, LocalDateTime start) {
+        RollupBucket bucket = new RollupBucket(start);
+        List<LearningStat> rows = learningStatMapper.selectSince(granularity, start);
+        bucket.restore(rows);
+        bucket.learners.addAll(learningStatMapper.selectActiveStudentIdsSince(start));
+        return bucket;
+    }
+
+    /**
+     * 从汇总表加载历史日统计（当天除外）
+     */
+    private void reloadHistory() {
+        LocalDate today = LocalDate.now();
+        LocalDateTime since = today.minusDays(analyticsProperties.getRetentionDays()).atStartOfDay();
+        Map<LocalDateTime, List<LearningStat>> days = new TreeMap<>();
+        for (LearningStat row : learningStatMapper.selectSince(DAY, since)) {
+            days.computeIfAbsent(row.getBucketTime(), k -> new ArrayList<>()).add(row);
+        }
+        days.forEach((start, rows) -> {
+            if (start.toLocalDate().isBefore(today)) {
+                daily.put(start.toLocalDate(), RollupBucket.toVO(start, rows));
+            }
+        });
+    }
+
+    /**
+     * 课程所属教师和分类（统计线程内缓存）
+     */
+    private Course course(Long courseId) {
+        if (!courses.containsKey(courseId)) {
+            courses.put(courseId, courseMapper.selectById(courseId));
+        }
+        return courses.get(courseId);
+    }
+
+    private static <K> void trim(ConcurrentSkipListMap<K, LearningStatsVO> map, int keep) {
+        while (map.size() > keep) {
+            map.pollFirstEntry();
+        }
+    }
+
+    /**
+     * 统计事件
+     */
+    private static final class Event {
+        private final Long studentId;
+        private final Long courseId;
+        private final long seconds;
+        private final boolean enroll;
+
+        private Event(Long studentId, Long courseId, long seconds, boolean enroll) {
+            this.studentId = studentId;
+            this.courseId = courseId;
+            this.seconds = seconds;
+            this.enroll = enroll;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.edu.platform.analytics;
+
+import com.edu.platform.entity.LearningStat;
+import com.edu.platform.vo.LearningStatsVO;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * 统计时间桶（分钟/小时/天），只由统计线程读写
+ */
+final class RollupBucket {
+
+    static final String ACTIVE_LEARNERS = "active_learners";
+    static final String COURSE_WATCH_SECONDS = "course_watch_seconds";
+    static final String TEACHER_WATCH_SECONDS = "teacher_watch_seconds";
+    static final String CATEGORY_ENROLLMENTS = "category_enrollments";
+
+    final LocalDateTime start;
+    final Set<Long> learners = new HashSet<>();
+    final Map<Long, Long> courseWatchSeconds = new HashMap<>();
+    final Map<Long, Long> teacherWatchSeconds = new HashMap<>();
+    final Map<Long, Long> categoryEnrollments = new HashMap<>();
+
+    RollupBucket(LocalDateTime start) {
+        this.start = start;
+    }
+
+    void addWatch(Long studentId, Long courseId, Long teacherId, long seconds) {
+        learners.add(studentId);
+        if (seconds > 0) {
+            courseWatchSeconds.merge(courseId, seconds, Long::sum);
+            if (teacherId != null) {
+                teacherWatchSeconds.merge(teacherId, seconds, Long::sum);
+            }
+        }
+    }
+
+    void addEnroll(Long categoryId) {
+        if (categoryId != null) {
+            categoryEnrollments.merge(categoryId, 1L, Long::sum);
+        }
+    }
+
+    /**
+     * 合并更细粒度的时间桶
+     */
+    void merge(RollupBucket other) {
+        learners.addAll(other.learners);
+        other.courseWatchSeconds.forEach((k, v) -> courseWatchSeconds.merge(k, v, Long::sum));
+        other.teacherWatchSeconds.forEach((k, v) -> teacherWatchSeconds.merge(k, v, Long::sum));
+        other.categoryEnrollments.forEach((k, v) -> categoryEnrollments.merge(k, v, Long::sum));
+    }
+
+    /**
+     * 用已落库的汇总行恢复计数（重启后继续累加当前小时/当天）
+     */
+    void restore(List<LearningStat> rows) {
+        for (LearningStat row : rows) {
+            switch (row.getMetric()) {
+                case COURSE_WATCH_SECONDS:
+                    courseWatchSeconds.merge(row.getDimId(), row.getStatValue(), Long::sum);
+                    break;
+                case TEACHER_WATCH_SECONDS:
+                    teacherWatchSeconds.merge(row.getDimId(), row.getStatValue(), Long::sum);
+                    break;
+                case CATEGORY_ENROLLMENTS:
+                    categoryEnrollments.merge(row.getDimId(), row.getStatValue(), Long::sum);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * 转为汇总表的行
+     */
+    List<LearningStat> toRows(String granularity) {
+        List<LearningStat> rows = new ArrayList<>();
+        rows.add(new LearningStat(granularity, start, ACTIVE_LEARNERS, 0L, (long) learners.size()));
+        courseWatchSeconds.forEach((k, v) -> rows.add(new LearningStat(granularity, start, COURSE_WATCH_SECONDS, k, v)));
+        teacherWatchSeconds.forEach((k, v) -> rows.add(new LearningStat(granularity, start, TEACHER_WATCH_SECONDS, k, v)));
+        categoryEnrollments.forEach((k, v) -> rows.add(new LearningStat(granularity, start, CATEGORY_ENROLLMENTS, k, v)));
+        return rows;
+    }
+
+    /**
+     * 生成只读快照
+     */
+    LearningStatsVO toVO() {
+        return toVO(start, learners.size(), courseWatchSeconds, teacherWatchSeconds, categoryEnrollments);
+    }
+
+    /**
+     * 由汇总表的行生成只读快照（历史数据）
+     */
+    static LearningStatsVO toVO(LocalDateTime start, List<LearningStat> rows) {
+        long learners = 0;
+        Map<Long, Long> course = new HashMap<>();
+        Map<Long, Long> teacher = new HashMap<>();
+        Map<Long, Long> category = new HashMap<>();
+        for (LearningStat row : rows) {
+            switch (row.getMetric()) {
+                case ACTIVE_LEARNERS:
+                    learners = row.getStatValue();
+                    break;
+                case COURSE_WATCH_SECONDS:
+                    course.put(row.getDimId(), row.getStatValue());
+                    break;
+                case TEACHER_WATCH_SECONDS:
+                    teacher.put(row.getDimId(), row.getStatValue());
+                    break;
+                case CATEGORY_ENROLLMENTS:
+                    category.put(row.getDimId(), row.getStatValue());
+                    break;
+                default:
+                    break;
+            }
+        }
+        return toVO(start, learners, course, teacher, category);
+    }
+
+    private static LearningStatsVO toVO(LocalDateTime start, long learners, Map<Long, Long> course,
+                                        Map<Long, Long> teacher, Map<Long, Long> category) {
+        return new LearningStatsVO(start, learners,
+                sum(category), sum(course),
+                Collections.unmodifiableMap(new HashMap<>(course)),
+                Collections.unmodifiableMap(new HashMap<>(teacher)),
+                Collections.unmodifiableMap(new HashMap<>(category)));
+    }
+
+    private static long sum(Map<Long, Long> values) {
+        long total = 0;
+        for (long value : values.values()) {
+            total += value;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,223 @@
+package com.edu.platform.batch;
+
+import com.edu.platform.constant.MessageConstant;
+import com.edu.platform.exception.BaseException;
+import com.edu.platform.mapper.StudentMapper;
+import com.edu.platform.properties.EnrollProperties;
+import com.edu.platform.utils.BatchUtils;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 选课记录批量写入器（组提交）
+ * 说明：
+ * 1. 请求线程把选课请求放入有界队列，由单个写入线程收集一批（最多 maxBatchSize 条或等待 lingerMillis）后一条多行INSERT提交；
+ * 2. 重复选课仍依赖 edu_enroll 的唯一键判断：整批插入遇到唯一键冲突时回滚，改为逐条插入，逐条给出成功/重复结果；
+ * 3. 同一批内的相同学生+课程只插入一次，其余直接判定为重复；
+ * 4. 每个请求通过 CompletableFuture 拿到确定的结果；
+ * 5. 等待超时时先尝试撤销请求：写入线程尚未认领则撤销成功，该请求一定不会写入，调用方可以放心释放名额；
+ *    已被认领（正在写入）则继续等待本次写入的最终结果，不会出现“已返回失败、记录却随后写入”的情况。
+ */
+@Component
+@Slf4j
+public class EnrollBatchWriter {
+
+    /**
+     * 选课写入结果
+     */
+    public enum Result {
+        SUCCESS,   // 选课成功
+        DUPLICATE  // 已选该课程
+    }
+
+    @Autowired
+    private StudentMapper studentMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EnrollProperties enrollProperties;
+
+    private BlockingQueue<EnrollRequest> queue;
+    private Thread writer;
+    private volatile boolean running = true;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(enrollProperties.getQueueCapacity());
+        writer = new Thread(this::runLoop, "enroll-batch-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * 停止时写完队列中剩余的请求
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(enrollProperties.getTimeoutMillis());
+    }
+
+    /**
+     * 提交选课请求并等待写入结果
+     * @param studentId 学生ID（edu_student.id）
+     * @param courseId 课程ID
+     * @return 写入结果
+     */
+    public Result enroll(Long studentId, Long courseId) {
+        EnrollRequest request = new EnrollRequest(studentId, courseId, LocalDateTime.now());
+        if (!running || !queue.offer(request)) {
+            log.warn("选课写入队列已满，拒绝请求：studentId={}, courseId={}", studentId, courseId);
+            throw new BaseException(MessageConstant.SYSTEM_BUSY);
+        }
+        try {
+            return request.future.get(enrollProperties.getTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (request.cancel()) {
+                log.warn("选课写入等待超时，请求已撤销：studentId={}, courseId={}", studentId, courseId);
+                throw new BaseException(MessageConstant.SYSTEM_BUSY);
+            }
+            log.warn("选课写入等待超时，请求正在写入，继续等待结果：studentId={}, courseId={}", studentId, courseId);
+            return awaitClaimed(request);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (request.cancel()) {
+                throw new BaseException(MessageConstant.SYSTEM_BUSY);
+            }
+            return awaitClaimed(request);
+        } catch (ExecutionException e) {
+            log.error("选课数据库操作失败", e.getCause());
+            throw new RuntimeException(MessageConstant.OPERATION_FAILED);
+        }
+    }
+
+    /**
+     * 等待已被写入线程认领的请求的最终结果（不可中断，写入本身有数据库超时兜底）
+     */
+    private Result awaitClaimed(EnrollRequest request) {
+        try {
+            return request.future.join();
+        } catch (CompletionException e) {
+            log.error("选课数据库操作失败", e.getCause());
+            throw new RuntimeException(MessageConstant.OPERATION_FAILED);
+        }
+    }
+
+    /**
+     * 写入线程主循环
+     */
+    private void runLoop() {
+        List<EnrollRequest> batch = new ArrayList<>(enrollProperties.getMaxBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                BatchUtils.collect(queue, batch, enrollProperties.getMaxBatchSize(), enrollProperties.getLingerMillis());
+            } catch (InterruptedException e) {
+                // 停止信号：继续把已收集和队列中剩余的请求写完
+                queue.drainTo(batch, enrollProperties.getMaxBatchSize() - batch.size());
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+        log.info("选课批量写入线程已退出");
+    }
+
+    /**
+     * 写入一批选课记录
+     */
+    private void flush(List<EnrollRequest> batch) {
+        // 1. 认领请求（已超时撤销的跳过），批内去重：相同学生+课程只保留第一条
+        Map<String, EnrollRequest> unique = new LinkedHashMap<>();
+        for (EnrollRequest request : batch) {
+            if (!request.claim()) {
+                continue;
+            }
+            if (unique.putIfAbsent(request.studentId + ":" + request.courseId, request) != null) {
+                request.future.complete(Result.DUPLICATE);
+            }
+        }
+        List<EnrollRequest> rows = new ArrayList<>(unique.values());
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        // 2. 多行INSERT一次提交；整批失败时逐条写入，逐条给出结果
+        BatchUtils.executeOrSplit(rows,
+                all -> {
+                    transactionTemplate.executeWithoutResult(status -> studentMapper.batchInsertEnroll(all));
+                    all.forEach(request -> request.future.complete(Result.SUCCESS));
+                    log.info("选课批量写入成功：条数={}", all.size());
+                },
+                e -> {
+                    if (e instanceof DuplicateKeyException) {
+                        log.info("选课批量写入存在重复记录，改为逐条写入：条数={}", rows.size());
+                    } else {
+                        log.error("选课批量写入失败，改为逐条写入：条数={}", rows.size(), e);
+                    }
+                },
+                request -> {
+                    studentMapper.select(request.studentId, request.courseId, request.enrollTime);
+                    request.future.complete(Result.SUCCESS);
+                },
+                (request, e) -> {
+                    if (e instanceof DuplicateKeyException) {
+                        request.future.complete(Result.DUPLICATE);
+                    } else {
+                        request.future.completeExceptionally(e);
+                    }
+                });
+    }
+
+    /**
+     * 待写入的选课请求
+     */
+    @Getter
+    public static final class EnrollRequest {
+        private static final int PENDING = 0;
+        private static final int CLAIMED = 1;
+        private static final int CANCELLED = 2;
+
+        private final Long studentId;
+        private final Long courseId;
+        private final LocalDateTime enrollTime;
+        private final CompletableFuture<Result> future = new CompletableFuture<>();
+        @Getter(AccessLevel.NONE)
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        private EnrollRequest(Long studentId, Long courseId, LocalDateTime enrollTime) {
+            this.studentId = studentId;
+            this.courseId = courseId;
+            this.enrollTime = enrollTime;
+        }
+
+        /**
+         * 写入线程认领（写入前调用），已撤销的请求认领失败
+         */
+        private boolean claim() {
+            return state.compareAndSet(PENDING, CLAIMED);
+        }
+
+        /**
+         * 调用方撤销（等待超时时调用），已被认领的请求撤销失败
+         */
+        private boolean cancel() {
+            return state.compareAndSet(PENDING, CANCELLED);
+        }
+    }
+}
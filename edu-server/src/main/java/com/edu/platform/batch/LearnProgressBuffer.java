@@ -0,0 +1,223 @@
+package com.edu.platform.batch;
+
+import com.edu.platform.entity.LearnRecord;
+import com.edu.platform.mapper.LearnRecordMapper;
+import com.edu.platform.properties.LearnProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 学习进度写缓冲（合并心跳，定时批量落库）
+ * 说明：
+ * 1. 播放器每隔几秒上报一次进度，同一学生+课时的心跳在内存中合并，只保留最大进度；
+ * 2. 有变化的进度标记为脏，由后台线程每隔 flushIntervalMillis 用多行 upsert 批量写入 edu_learn_record；
+ * 3. 续播位置直接读内存，首次访问时从数据库加载；已落库且长时间未访问的进度会被清出内存；
+ * 4. 停止时把剩余的脏进度写完。
+ */
+@Component
+@Slf4j
+public class LearnProgressBuffer {
+
+    @Autowired
+    private LearnRecordMapper learnRecordMapper;
+
+    @Autowired
+    private LearnProperties learnProperties;
+
+    // 数据库中没有记录时的内存初始进度（区分"没看过"和"看到0秒"）
+    public static final int NO_RECORD = -1;
+
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    private ScheduledExecutorService flusher;
+
+    @PostConstruct
+    public void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "learn-progress-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = learnProperties.getFlushIntervalMillis();
+        flusher.scheduleWithFixedDelay(this::flushAndSweep, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(learnProperties.getFlushIntervalMillis(), TimeUnit.MILLISECONDS);
+        flush();
+    }
+
+    /**
+     * 上报学习进度
+     * @param studentId 学生ID（edu_student.id）
+     * @param videoId 课时ID
+     * @param progress 播放位置（秒）
+     * @return 本次上报前的最大进度（秒），从未上报过时为 NO_RECORD
+     */
+    public int report(Long studentId, Long videoId, int progress) {
+        Key key = new Key(studentId, videoId);
+        while (true) {
+            Entry entry = load(key);
+            int previous = entry.progress.getAndAccumulate(progress, Math::max);
+            entry.lastAccess = System.currentTimeMillis();
+            if (progress > previous) {
+                entry.updateTime = LocalDateTime.now();
+                entry.dirty.set(true);
+            }
+            // 更新期间被清出内存时重试，保证进度写进仍在表中的条目
+            if (entries.get(key) == entry) {
+                return previous;
+            }
+        }
+    }
+
+    /**
+     * 查询续播位置
+     * @param studentId 学生ID（edu_student.id）
+     * @param videoId 课时ID
+     * @return 已观看到的最大位置（秒），无记录时为0
+     */
+    public int getProgress(Long studentId, Long videoId) {
+        Entry entry = load(new Key(studentId, videoId));
+        entry.lastAccess = System.currentTimeMillis();
+        return Math.max(0, entry.progress.get());
+    }
+
+    /**
+     * 进度是否已在内存中（调用方据此决定是否需要校验课时）
+     * @param studentId 学生ID（edu_student.id）
+     * @param videoId 课时ID
+     */
+    public boolean isTracked(Long studentId, Long videoId) {
+        return entries.containsKey(new Key(studentId, videoId));
+    }
+
+    /**
+     * 获取内存中的进度，不存在时从数据库加载
+     */
+    private Entry load(Key key) {
+        Entry existing = entries.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        Integer stored = learnRecordMapper.selectProgress(key.studentId, key.videoId);
+        Entry loaded = new Entry(stored == null ? NO_RECORD : stored);
+        Entry raced = entries.putIfAbsent(key, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    private void flushAndSweep() {
+        try {
+            flush();
+            sweep();
+        } catch (Exception e) {
+            log.error("学习进度刷盘异常", e);
+        }
+    }
+
+    /**
+     * 把脏进度分批写入数据库；写入失败的批次重新标记为脏，下次再写
+     */
+    public void flush() {
+        int maxBatchSize = learnProperties.getMaxBatchSize();
+        List<LearnRecord> records = new ArrayList<>(maxBatchSize);
+        List<Entry> batch = new ArrayList<>(maxBatchSize);
+        for (Map.Entry<Key, Entry> e : entries.entrySet()) {
+            Entry entry = e.getValue();
+            // 先清标记再读进度：读之后的新上报会重新置脏
+            if (!entry.dirty.compareAndSet(true, false)) {
+                continue;
+            }
+            Key key = e.getKey();
+            records.add(new LearnRecord(null, key.studentId, key.videoId, entry.progress.get(), entry.updateTime));
+            batch.add(entry);
+            if (records.size() >= maxBatchSize) {
+                write(records, batch);
+                records.clear();
+                batch.clear();
+            }
+        }
+        if (!records.isEmpty()) {
+            write(records, batch);
+        }
+    }
+
+    private void write(List<LearnRecord> records, List<Entry> batch) {
+        try {
+            learnRecordMapper.batchUpsert(records);
+        } catch (Exception e) {
+            batch.forEach(entry -> entry.dirty.set(true));
+            log.error("学习进度批量写入失败，下次重试：条数={}", records.size(), e);
+        }
+    }
+
+    /**
+     * 清除已落库且长时间未访问的进度
+     */
+    private void sweep() {
+        long expireBefore = System.currentTimeMillis() - learnProperties.getIdleExpireMillis();
+        for (Key key : entries.keySet()) {
+            entries.computeIfPresent(key, (k, entry) ->
+                    !entry.dirty.get() && entry.lastAccess < expireBefore ? null : entry);
+        }
+    }
+
+    /**
+     * 学生+课时
+     */
+    private static final class Key {
+        private final Long studentId;
+        private final Long videoId;
+
+        private Key(Long studentId, Long videoId) {
+            this.studentId = studentId;
+            this.videoId = videoId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return studentId.equals(other.studentId) && videoId.equals(other.videoId);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * studentId.hashCode() + videoId.hashCode();
+        }
+    }
+
+    /**
+     * 内存中的进度
+     */
+    private static final class Entry {
+        private final AtomicInteger progress;
+        private final AtomicBoolean dirty = new AtomicBoolean();
+        private volatile LocalDateTime updateTime;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        private Entry(int progress) {
+            this.progress = new AtomicInteger(progress);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.edu.platform.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 缓存统计快照（命中/未命中/淘汰次数及当前容量）
+ */
+@Data
+@AllArgsConstructor
+public class CacheStats {
+    private long hitCount;      // 命中次数
+    private long missCount;     // 未命中次数
+    private long evictionCount; // 因容量不足被淘汰的条目数
+    private int size;           // 当前条目数
+    private long weight;        // 当前总权重
+    private long maxWeight;     // 最大权重
+
+    /**
+     * 命中率（无访问时为0）
+     */
+    public double getHitRate() {
+        long total = hitCount + missCount;
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+}
@@ -0,0 +1,120 @@
+package com.edu.platform.cache;
+
+import com.edu.platform.entity.Category;
+import com.edu.platform.mapper.CategoryMapper;
+import com.edu.platform.utils.TransactionUtils;
+import com.edu.platform.vo.CategoryTreeVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+
+/**
+ * 分类树缓存（不可变快照，写时整体替换）
+ * 说明：
+ * 1. 一条SQL查出全部分类，按 parentId 分组一次性挂接成树，时间和内存均为 O(n)；
+ * 2. 快照构建完成后才通过 volatile 引用发布，读请求无锁且不会看到构建到一半的树；
+ * 3. 分类新增/修改/删除在事务提交后调用 refresh 重建并替换快照。
+ */
+@Component
+@Slf4j
+public class CategoryTreeCache {
+
+    @Autowired
+    private CategoryMapper categoryMapper;
+
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyMap(), Collections.emptyMap());
+
+    /**
+     * 启动时加载分类树
+     */
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    /**
+     * 分类变更后重建快照（事务提交后执行）
+     */
+    public void refresh() {
+        TransactionUtils.afterCommit(this::rebuild);
+    }
+
+    /**
+     * 查询指定父分类下的子树
+     * @param parentId 父分类ID（0为根）
+     * @return 子分类树（只读）
+     */
+    public List<CategoryTreeVO> getChildren(Long parentId) {
+        return snapshot.childrenByParent.getOrDefault(parentId, Collections.emptyList());
+    }
+
+    /**
+     * 查询分类自身及全部后代分类ID
+     * @param categoryId 分类ID
+     * @return 分类ID集合（分类不存在时为空）
+     */
+    public Set<Long> getSubtreeIds(Long categoryId) {
+        CategoryTreeVO root = snapshot.nodesById.get(categoryId);
+        if (root == null) {
+            return Collections.emptySet();
+        }
+        Set<Long> ids = new HashSet<>();
+        Deque<CategoryTreeVO> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            CategoryTreeVO node = stack.pop();
+            if (ids.add(node.getId())) {
+                node.getChildren().forEach(stack::push);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 查询并构建新快照；串行执行，保证后提交的变更不会被先开始的重建覆盖
+     */
+    private synchronized void rebuild() {
+        // 1. 一次查询全部分类（已按 parent_id, sort 排序）
+        List<Category> categories = categoryMapper.selectAll();
+
+        // 2. 按父分类分组，同时建立 id -> 节点 映射
+        Map<Long, CategoryTreeVO> nodes = new HashMap<>(categories.size() * 2);
+        Map<Long, List<CategoryTreeVO>> grouped = new HashMap<>();
+        for (Category category : categories) {
+            CategoryTreeVO node = new CategoryTreeVO();
+            BeanUtils.copyProperties(category, node);
+            nodes.put(category.getId(), node);
+            grouped.computeIfAbsent(category.getParentId(), k -> new ArrayList<>()).add(node);
+        }
+
+        // 3. 挂接子节点并冻结列表
+        Map<Long, List<CategoryTreeVO>> frozen = new HashMap<>(grouped.size() * 2);
+        for (Map.Entry<Long, List<CategoryTreeVO>> entry : grouped.entrySet()) {
+            frozen.put(entry.getKey(), Collections.unmodifiableList(entry.getValue()));
+        }
+        for (CategoryTreeVO node : nodes.values()) {
+            node.setChildren(frozen.getOrDefault(node.getId(), Collections.emptyList()));
+        }
+
+        // 4. 原子替换快照
+        snapshot = new Snapshot(frozen, nodes);
+        log.info("分类树快照已更新：分类数={}", categories.size());
+    }
+
+    /**
+     * 不可变分类树快照
+     */
+    private static final class Snapshot {
+        private final Map<Long, List<CategoryTreeVO>> childrenByParent;
+        private final Map<Long, CategoryTreeVO> nodesById;
+
+        private Snapshot(Map<Long, List<CategoryTreeVO>> childrenByParent, Map<Long, CategoryTreeVO> nodesById) {
+            this.childrenByParent = Collections.unmodifiableMap(childrenByParent);
+            this.nodesById = Collections.unmodifiableMap(nodesById);
+        }
+    }
+}
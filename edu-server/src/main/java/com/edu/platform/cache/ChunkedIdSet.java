@@ -0,0 +1,159 @@
+package com.edu.platform.cache;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * 按区间分块的ID集合（可变，线程安全）
+ * 说明：
+ * 1. 按ID高16位分块，每块是一个只存低16位的 CompactIdSet，块内仍按稀疏/稠密自动选择存储方式；
+ * 2. add/remove 只替换所在的一块，复制量以单块为上限（最多约 8KB），与集合总大小无关，热门课程大量选课时不再整体复制；
+ * 3. 块表为 ConcurrentHashMap，按块原子替换，读操作无锁；跨块的遍历为弱一致快照；
+ * 4. ID 须在 int 范围内（自增主键满足）。
+ */
+public final class ChunkedIdSet {
+
+    private static final int CHUNK_BITS = 16;
+    private static final int LOW_MASK = (1 << CHUNK_BITS) - 1;
+    // 单个块的估算开销（map 条目 + Integer key）
+    private static final int CHUNK_ENTRY_BYTES = 80;
+
+    private final ConcurrentHashMap<Integer, CompactIdSet> chunks = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * 新增ID
+     * @return 是否新增（已存在时返回false）
+     */
+    public boolean add(long id) {
+        int value = Math.toIntExact(id);
+        boolean[] changed = new boolean[1];
+        chunks.compute(value >> CHUNK_BITS, (k, chunk) -> {
+            CompactIdSet current = chunk == null ? CompactIdSet.EMPTY : chunk;
+            CompactIdSet next = current.add(value & LOW_MASK);
+            changed[0] = next != current;
+            return next;
+        });
+        if (changed[0]) {
+            size.incrementAndGet();
+        }
+        return changed[0];
+    }
+
+    /**
+     * 移除ID
+     * @return 是否移除（不存在时返回false）
+     */
+    public boolean remove(long id) {
+        if (id < Integer.MIN_VALUE || id > Integer.MAX_VALUE) {
+            return false;
+        }
+        int value = (int) id;
+        boolean[] changed = new boolean[1];
+        chunks.computeIfPresent(value >> CHUNK_BITS, (k, chunk) -> {
+            CompactIdSet next = chunk.remove(value & LOW_MASK);
+            changed[0] = next != chunk;
+            return next.size() == 0 ? null : next;
+        });
+        if (changed[0]) {
+            size.decrementAndGet();
+        }
+        return changed[0];
+    }
+
+    /**
+     * 是否包含指定ID
+     */
+    public boolean contains(long id) {
+        if (id < Integer.MIN_VALUE || id > Integer.MAX_VALUE) {
+            return false;
+        }
+        int value = (int) id;
+        CompactIdSet chunk = chunks.get(value >> CHUNK_BITS);
+        return chunk != null && chunk.contains(value & LOW_MASK);
+    }
+
+    /**
+     * 元素个数
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * 与另一集合的交集元素个数（逐块遍历较小的一侧）
+     */
+    public int intersectionCount(ChunkedIdSet other) {
+        ChunkedIdSet small = size() <= other.size() ? this : other;
+        ChunkedIdSet large = small == this ? other : this;
+        int count = 0;
+        for (Map.Entry<Integer, CompactIdSet> entry : small.chunks.entrySet()) {
+            CompactIdSet match = large.chunks.get(entry.getKey());
+            if (match != null) {
+                count += entry.getValue().intersectionCount(match);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 升序导出全部ID（弱一致快照）
+     */
+    public int[] toArray() {
+        Integer[] keys = chunks.keySet().toArray(new Integer[0]);
+        Arrays.sort(keys);
+        int[] values = new int[Math.max(size(), 16)];
+        int[] n = new int[1];
+        for (Integer key : keys) {
+            CompactIdSet chunk = chunks.get(key);
+            if (chunk == null) {
+                continue;
+            }
+            int high = key << CHUNK_BITS;
+            if (n[0] + chunk.size() > values.length) {
+                values = Arrays.copyOf(values, (n[0] + chunk.size()) * 2);
+            }
+            int[] target = values;
+            chunk.forEach(low -> target[n[0]++] = high | low);
+        }
+        return Arrays.copyOf(values, n[0]);
+    }
+
+    /**
+     * 估算占用字节数
+     */
+    public long estimatedBytes() {
+        long bytes = 0;
+        for (CompactIdSet chunk : chunks.values()) {
+            bytes += chunk.estimatedBytes() + CHUNK_ENTRY_BYTES;
+        }
+        return bytes;
+    }
+
+    /**
+     * 批量构建器：追加顺序任意，build 时按块排序去重
+     */
+    static final class Builder {
+        private final Map<Integer, CompactIdSet.Builder> chunks = new HashMap<>();
+
+        void add(int value) {
+            chunks.computeIfAbsent(value >> CHUNK_BITS, k -> new CompactIdSet.Builder()).add(value & LOW_MASK);
+        }
+
+        ChunkedIdSet build() {
+            ChunkedIdSet set = new ChunkedIdSet();
+            int total = 0;
+            for (Map.Entry<Integer, CompactIdSet.Builder> entry : chunks.entrySet()) {
+                CompactIdSet chunk = entry.getValue().build();
+                set.chunks.put(entry.getKey(), chunk);
+                total += chunk.size();
+            }
+            set.size.set(total);
+            return set;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.edu.platform.cache;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * 紧凑ID集合（不可变，写时复制）
+ * 说明：
+ * 1. 稀疏时存为有序 int 数组（二分查找），稠密时存为以最小值为偏移的位图，取两者中占用更小的一种；
+ * 2. 集合一经创建不再修改，add/remove 返回新集合（复制整个数组），读操作无锁；
+ * 3. 适合元素较少、读多写少的集合；元素多且频繁变更的集合使用按区间分块的 ChunkedIdSet；
+ * 4. ID 须在 int 范围内（自增主键满足）。
+ */
+public final class CompactIdSet {
+
+    public static final CompactIdSet EMPTY = new CompactIdSet(new int[0], null, 0, 0);
+
+    private static final int OBJECT_HEADER_BYTES = 16;
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    private final int[] sorted;   // 稀疏存储（与 bits 二选一）
+    private final long[] bits;    // 稠密存储：第 i 位表示 offset + i
+    private final int offset;
+    private final int size;
+
+    private CompactIdSet(int[] sorted, long[] bits, int offset, int size) {
+        this.sorted = sorted;
+        this.bits = bits;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    /**
+     * 由有序且去重的ID数组创建集合
+     */
+    static CompactIdSet ofSorted(int[] ids, int length) {
+        if (length == 0) {
+            return EMPTY;
+        }
+        int min = ids[0];
+        long span = (long) ids[length - 1] - min + 1;
+        long bitmapWords = (span + 63) >>> 6;
+        // 位图每个元素均摊不足 32 位时改用位图
+        if (bitmapWords * 2 < length) {
+            long[] words = new long[(int) bitmapWords];
+            for (int i = 0; i < length; i++) {
+                int bit = ids[i] - min;
+                words[bit >>> 6] |= 1L << bit;
+            }
+            return new CompactIdSet(null, words, min, length);
+        }
+        return new CompactIdSet(length == ids.length ? ids : Arrays.copyOf(ids, length), null, 0, length);
+    }
+
+    /**
+     * 是否包含指定ID
+     */
+    public boolean contains(long id) {
+        if (id < Integer.MIN_VALUE || id > Integer.MAX_VALUE) {
+            return false;
+        }
+        int value = (int) id;
+        if (bits == null) {
+            return Arrays.binarySearch(sorted, value) >= 0;
+        }
+        long bit = (long) value - offset;
+        if (bit < 0 || bit >= (long) bits.length << 6) {
+            return false;
+        }
+        return (bits[(int) (bit >>> 6)] & (1L << bit)) != 0;
+    }
+
+    /**
+     * 元素个数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 与另一集合的交集元素个数（遍历较小的集合）
+     */
+    public int intersectionCount(CompactIdSet other) {
+        CompactIdSet small = size <= other.size ? this : other;
+        CompactIdSet large = small == this ? other : this;
+        int[] count = new int[1];
+        small.forEach(value -> {
+            if (large.contains(value)) {
+                count[0]++;
+            }
+        });
+        return count[0];
+    }
+
+    /**
+     * 返回新增ID后的集合（已存在时返回自身）
+     */
+    public CompactIdSet add(long id) {
+        if (contains(id)) {
+            return this;
+        }
+        int value = Math.toIntExact(id);
+        // 位图且落在已有范围内：只复制位图并置位
+        if (bits != null && value >= offset && (long) value - offset < (long) bits.length << 6) {
+            long[] words = bits.clone();
+            int bit = value - offset;
+            words[bit >>> 6] |= 1L << bit;
+            return new CompactIdSet(null, words, offset, size + 1);
+        }
+        int[] values = toArray();
+        int index = -Arrays.binarySearch(values, value) - 1;
+        int[] next = new int[values.length + 1];
+        System.arraycopy(values, 0, next, 0, index);
+        next[index] = value;
+        System.arraycopy(values, index, next, index + 1, values.length - index);
+        return ofSorted(next, next.length);
+    }
+
+    /**
+     * 返回移除ID后的集合（不存在时返回自身）
+     */
+    public CompactIdSet remove(long id) {
+        if (!contains(id)) {
+            return this;
+        }
+        if (bits != null && size > 1) {
+            long[] words = bits.clone();
+            int bit = (int) id - offset;
+            words[bit >>> 6] &= ~(1L << bit);
+            return new CompactIdSet(null, words, offset, size - 1);
+        }
+        int[] values = toArray();
+        int index = Arrays.binarySearch(values, (int) id);
+        int[] next = new int[values.length - 1];
+        System.arraycopy(values, 0, next, 0, index);
+        System.arraycopy(values, index + 1, next, index, next.length - index);
+        return ofSorted(next, next.length);
+    }
+
+    /**
+     * 升序导出全部ID（返回副本，修改不影响集合）
+     */
+    public int[] toArray() {
+        if (bits == null) {
+            return sorted.clone();
+        }
+        int[] values = new int[size];
+        int[] n = new int[1];
+        forEach(value -> values[n[0]++] = value);
+        return values;
+    }
+
+    /**
+     * 升序遍历全部ID（不复制）
+     */
+    public void forEach(IntConsumer action) {
+        if (bits == null) {
+            for (int value : sorted) {
+                action.accept(value);
+            }
+            return;
+        }
+        for (int word = 0; word < bits.length; word++) {
+            long remaining = bits[word];
+            while (remaining != 0) {
+                action.accept(offset + (word << 6) + Long.numberOfTrailingZeros(remaining));
+                remaining &= remaining - 1;
+            }
+        }
+    }
+
+    /**
+     * 估算占用字节数（对象头 + 数组）
+     */
+    public long estimatedBytes() {
+        long arrayBytes = bits == null ? ARRAY_HEADER_BYTES + 4L * sorted.length : ARRAY_HEADER_BYTES + 8L * bits.length;
+        return OBJECT_HEADER_BYTES + arrayBytes;
+    }
+
+    /**
+     * 批量构建器：追加顺序任意，build 时排序去重
+     */
+    static final class Builder {
+        private int[] values = new int[4];
+        private int length;
+
+        void add(int value) {
+            if (length == values.length) {
+                values = Arrays.copyOf(values, length << 1);
+            }
+            values[length++] = value;
+        }
+
+        CompactIdSet build() {
+            Arrays.sort(values, 0, length);
+            int unique = 0;
+            for (int i = 0; i < length; i++) {
+                if (unique == 0 || values[i] != values[unique - 1]) {
+                    values[unique++] = values[i];
+                }
+            }
+            return ofSorted(values, unique);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.edu.platform.cache;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 按条目数限制容量的并发缓存（读路径无锁，近似LRU）
+ * 说明：
+ * 1. 数据存放在 ConcurrentHashMap 中，读取只做一次 get 并设置条目的“最近访问”标记，不加锁；
+ * 2. 条目按写入顺序进入环形队列，超出容量时按 CLOCK 算法淘汰：队首条目带访问标记则清除标记、移到队尾，否则淘汰；
+ * 3. 淘汰只由写入线程 tryLock 后执行，抢不到锁的写入直接返回，由持锁线程负责收缩；
+ * 4. 失效的条目不从队列中删除，轮到时识别为过期节点丢弃，队列长度超过容量两倍时也会触发清理。
+ */
+public class ConcurrentClockCache<K, V> {
+
+    private final int maxEntries;
+    private final ConcurrentHashMap<K, Node<K, V>> map;
+    private final Queue<Node<K, V>> clock = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ConcurrentClockCache(long maxEntries) {
+        if (maxEntries <= 0 || maxEntries > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("缓存最大条目数不合法：" + maxEntries);
+        }
+        this.maxEntries = (int) maxEntries;
+        this.map = new ConcurrentHashMap<>(Math.min(this.maxEntries, 1 << 16));
+    }
+
+    /**
+     * 查询缓存（无锁）
+     */
+    public V get(K key) {
+        Node<K, V> node = map.get(key);
+        if (node == null) {
+            misses.increment();
+            return null;
+        }
+        // 已带标记时不再写，避免热点条目的缓存行在各核之间来回失效
+        if (!node.referenced) {
+            node.referenced = true;
+        }
+        hits.increment();
+        return node.value;
+    }
+
+    /**
+     * 写入缓存
+     */
+    public void put(K key, V value) {
+        Node<K, V> node = new Node<>(key, value);
+        map.put(key, node);
+        clock.offer(node);
+        queued.incrementAndGet();
+        if (map.size() > maxEntries || queued.get() > 2 * maxEntries) {
+            evict();
+        }
+    }
+
+    /**
+     * 使单个条目失效
+     */
+    public void invalidate(K key) {
+        map.remove(key);
+    }
+
+    /**
+     * 获取统计快照（权重即条目数）
+     */
+    public CacheStats stats() {
+        int size = map.size();
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size, size, maxEntries);
+    }
+
+    /**
+     * CLOCK 淘汰：收缩到容量以内，并清理队列中的过期节点
+     */
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            // 每个节点最多被转一圈（清除标记）再被淘汰，循环次数有上限
+            int budget = 2 * queued.get() + 1;
+            while (budget-- > 0 && (map.size() > maxEntries || queued.get() > 2 * maxEntries)) {
+                Node<K, V> node = clock.poll();
+                if (node == null) {
+                    return;
+                }
+                queued.decrementAndGet();
+                if (map.get(node.key) != node) {
+                    continue; // 已失效或已被覆盖的过期节点
+                }
+                if (node.referenced || map.size() <= maxEntries) {
+                    node.referenced = false;
+                    clock.offer(node);
+                    queued.incrementAndGet();
+                } else if (map.remove(node.key, node)) {
+                    evictions.increment();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static final class Node<K, V> {
+        private final K key;
+        private final V value;
+        private volatile boolean referenced;
+
+        private Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
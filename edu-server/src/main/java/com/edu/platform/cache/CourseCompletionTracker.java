@@ -0,0 +1,204 @@
+package com.edu.platform.cache;
+
+import com.edu.platform.batch.LearnProgressBuffer;
+import com.edu.platform.constant.VideoConstant;
+import com.edu.platform.entity.CourseCompletion;
+import com.edu.platform.entity.VideoCourse;
+import com.edu.platform.mapper.CourseMapper;
+import com.edu.platform.mapper.LearnRecordMapper;
+import com.edu.platform.properties.LearnProperties;
+import com.edu.platform.utils.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * 课程完成度计数器（学生+课程 -> 已看完课时数，课程 -> 课时总数）
+ * 说明：
+ * 1. 启动时由一条分组统计SQL和一次课时列表查询构建；
+ * 2. 学习进度首次达到视频时长的 watchedRatio 时，对应学生+课程的计数加一（由进度缓冲的原子累加保证只加一次）；
+ * 3. 视频时长缺失、格式不符或为0的课时计入分母但无法看完（与统计SQL一致）；
+ * 4. 新增课时只增加分母；删除课时或修改课时时长（看完阈值变化）先把缓冲中的进度落库，再按数据库重算该课程全部学生的计数；
+ * 5. 查询完成度只读内存，不查库。
+ */
+@Component
+@Slf4j
+public class CourseCompletionTracker {
+
+    private static final Pattern DURATION_PATTERN = Pattern.compile(VideoConstant.DURATION_REGEX);
+
+    @Autowired
+    private CourseMapper courseMapper;
+
+    @Autowired
+    private LearnRecordMapper learnRecordMapper;
+
+    @Autowired
+    private LearnProgressBuffer learnProgressBuffer;
+
+    @Autowired
+    private LearnProperties learnProperties;
+
+    // 课时ID -> 所属课程及看完阈值
+    private final ConcurrentHashMap<Long, VideoMeta> videos = new ConcurrentHashMap<>();
+    // 课程ID -> 课时总数
+    private final ConcurrentHashMap<Long, AtomicInteger> totals = new ConcurrentHashMap<>();
+    // 学生ID -> (课程ID -> 已看完课时数)
+    private final ConcurrentHashMap<Long, ConcurrentHashMap<Long, AtomicInteger>> completed = new ConcurrentHashMap<>();
+
+    /**
+     * 启动时从数据库构建
+     */
+    @PostConstruct
+    public void rebuild() {
+        for (VideoCourse video : courseMapper.selectAllVideoCourses()) {
+            addVideo(video.getId(), video.getCourseId(), video.getDuration());
+        }
+        for (CourseCompletion row : learnRecordMapper.selectCompletionCounts(learnProperties.getWatchedRatio(), null)) {
+            counter(row.getStudentId(), row.getCourseId()).set(row.getCompletedCount());
+        }
+        log.info("课程完成度构建完成：课时数={}，学生数={}", videos.size(), completed.size());
+    }
+
+    /**
+     * 学习进度变化（由进度上报调用）
+     * @param studentId 学生ID（edu_student.id）
+     * @param videoId 课时ID
+     * @param previous 上报前的最大进度（秒，从未上报过为 LearnProgressBuffer.NO_RECORD）
+     * @param current 上报后的最大进度（秒）
+     */
+    public void onProgress(Long studentId, Long videoId, int previous, int current) {
+        VideoMeta video = videos.get(videoId);
+        if (video == null) {
+            return;
+        }
+        if (!video.isWatched(previous) && video.isWatched(current)) {
+            counter(studentId, video.courseId).incrementAndGet();
+        }
+    }
+
+    /**
+     * 新增课时（事务提交后生效）
+     * @param videoId 课时ID
+     * @param courseId 课程ID
+     * @param duration 视频时长（HH:mm:ss）
+     */
+    public void onVideoAdded(Long videoId, Long courseId, String duration) {
+        TransactionUtils.afterCommit(() -> addVideo(videoId, courseId, duration));
+    }
+
+    /**
+     * 删除课时（事务提交后重算该课程）
+     * @param videoId 课时ID
+     * @param courseId 课程ID
+     */
+    public void onVideoDeleted(Long videoId, Long courseId) {
+        TransactionUtils.afterCommit(() -> {
+            if (videos.remove(videoId) != null) {
+                totals.computeIfPresent(courseId, (k, total) -> total.decrementAndGet() <= 0 ? null : total);
+            }
+            recount(courseId);
+        });
+    }
+
+    /**
+     * 课时时长变化（事务提交后更新看完阈值并重算该课程）
+     * @param videoId 课时ID
+     * @param courseId 课程ID
+     * @param duration 新的视频时长（HH:mm:ss）
+     */
+    public void onVideoDurationChanged(Long videoId, Long courseId, String duration) {
+        TransactionUtils.afterCommit(() -> {
+            addVideo(videoId, courseId, duration);
+            recount(courseId);
+        });
+    }
+
+    /**
+     * 查询课时所属课程
+     * @param videoId 课时ID
+     * @return 课程ID（课时不存在时为null）
+     */
+    public Long getCourseId(Long videoId) {
+        VideoMeta video = videos.get(videoId);
+        return video == null ? null : video.courseId;
+    }
+
+    /**
+     * 查询学生在某门课程中的完成度
+     * @param studentId 学生ID（edu_student.id）
+     * @param courseId 课程ID
+     * @return 完成百分比（0-100，课程没有课时时为0）
+     */
+    public int getCompletion(Long studentId, Long courseId) {
+        if (studentId == null || courseId == null) {
+            return 0;
+        }
+        AtomicInteger total = totals.get(courseId);
+        ConcurrentHashMap<Long, AtomicInteger> courses = completed.get(studentId);
+        AtomicInteger done = courses == null ? null : courses.get(courseId);
+        if (total == null || total.get() <= 0 || done == null) {
+            return 0;
+        }
+        return Math.min(100, done.get() * 100 / total.get());
+    }
+
+    /**
+     * 按数据库重算某门课程所有学生的已看完课时数
+     */
+    private synchronized void recount(Long courseId) {
+        learnProgressBuffer.flush();
+        completed.values().forEach(courses -> courses.remove(courseId));
+        for (CourseCompletion row : learnRecordMapper.selectCompletionCounts(learnProperties.getWatchedRatio(), courseId)) {
+            counter(row.getStudentId(), courseId).set(row.getCompletedCount());
+        }
+    }
+
+    private void addVideo(Long videoId, Long courseId, String duration) {
+        int threshold = (int) Math.ceil(parseSeconds(duration) * learnProperties.getWatchedRatio());
+        if (videos.put(videoId, new VideoMeta(courseId, threshold)) == null) {
+            totals.computeIfAbsent(courseId, k -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+
+    private AtomicInteger counter(Long studentId, Long courseId) {
+        return completed.computeIfAbsent(studentId, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(courseId, k -> new AtomicInteger());
+    }
+
+    /**
+     * 解析视频时长（HH:mm:ss，与 MySQL time_to_sec 一致；为空或格式不符时按0秒处理，该课时无法看完）
+     */
+    private static int parseSeconds(String duration) {
+        if (duration == null || !DURATION_PATTERN.matcher(duration).matches()) {
+            return 0;
+        }
+        String[] parts = duration.split(":");
+        return Integer.parseInt(parts[0]) * 3600 + Integer.parseInt(parts[1]) * 60 + Integer.parseInt(parts[2]);
+    }
+
+    /**
+     * 课时所属课程及看完阈值
+     */
+    private static final class VideoMeta {
+        private final Long courseId;
+        private final int thresholdSeconds;
+
+        private VideoMeta(Long courseId, int thresholdSeconds) {
+            this.courseId = courseId;
+            this.thresholdSeconds = thresholdSeconds;
+        }
+
+        /**
+         * 阈值为0（时长缺失、格式错误或为0）的课时无法看完，避免首次上报即计为看完
+         */
+        private boolean isWatched(int progress) {
+            return thresholdSeconds > 0 && progress != LearnProgressBuffer.NO_RECORD && progress >= thresholdSeconds;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.edu.platform.cache;
+
+import com.edu.platform.json.JacksonObjectMapper;
+import com.edu.platform.properties.CacheProperties;
+import com.edu.platform.result.Result;
+import com.edu.platform.utils.TransactionUtils;
+import com.edu.platform.vo.CourseDetailVO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.util.function.Function;
+
+/**
+ * 课程详情读穿透缓存（key=课程ID，value=预序列化快照）
+ * 说明：
+ * 1. 课程大纲读多写少，未命中时加载并一次性序列化为 Result JSON 字节，计算内容哈希作为ETag；
+ * 2. 课程、章节、课时的写操作负责调用 invalidate 使对应课程失效，下次读取时才重新生成快照；
+ * 3. 容量按快照字节数计算，超出上限时按最近最少使用淘汰。
+ */
+@Component
+@Slf4j
+public class CourseDetailCache {
+
+    // 与 WebMvcConfiguration 中消息转换器使用相同的序列化规则
+    private final ObjectMapper objectMapper = new JacksonObjectMapper();
+
+    private final WeightedLruCache<Long, CourseDetailSnapshot> cache;
+
+    @Autowired
+    public CourseDetailCache(CacheProperties cacheProperties) {
+        this.cache = new WeightedLruCache<>(cacheProperties.getCourseDetailMaxBytes(),
+                snapshot -> snapshot.getBody().length);
+    }
+
+    /**
+     * 读穿透查询：命中直接返回快照，未命中调用 loader 加载、序列化并写入缓存
+     * @param courseId 课程ID
+     * @param loader 数据库加载逻辑
+     * @return 课程详情快照
+     */
+    public CourseDetailSnapshot get(Long courseId, Function<Long, CourseDetailVO> loader) {
+        CourseDetailSnapshot cached = cache.get(courseId);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = cache.stamp();
+        CourseDetailSnapshot snapshot = buildSnapshot(loader.apply(courseId));
+        if (!cache.putIfStamp(courseId, snapshot, stamp)) {
+            log.debug("课程详情加载期间发生失效，本次结果不写入缓存：courseId={}", courseId);
+        }
+        return snapshot;
+    }
+
+    /**
+     * 使课程详情失效：立即失效一次，事务提交后再失效一次
+     * （防止提交前有并发请求把旧数据重新加载进缓存）
+     * @param courseId 课程ID
+     */
+    public void invalidate(Long courseId) {
+        if (courseId == null) {
+            return;
+        }
+        cache.invalidate(courseId);
+        TransactionUtils.afterCommit(() -> cache.invalidate(courseId));
+    }
+
+    /**
+     * 缓存统计（命中/未命中/淘汰次数，权重单位为字节）
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * 序列化 Result.success(detail) 并计算 ETag
+     */
+    private CourseDetailSnapshot buildSnapshot(CourseDetailVO detail) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(Result.success(detail));
+            String etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+            return new CourseDetailSnapshot(detail, body, etag);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("课程详情序列化失败", e);
+        }
+    }
+}
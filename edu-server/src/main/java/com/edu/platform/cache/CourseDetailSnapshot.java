@@ -0,0 +1,64 @@
+package com.edu.platform.cache;
+
+import com.edu.platform.vo.CourseDetailVO;
+
+/**
+ * 课程详情快照（不可变）
+ * 包含课程详情VO、预先序列化好的 Result JSON 字节以及内容哈希（ETag），
+ * 接口直接输出字节，无需每次请求都重新走 Jackson 序列化
+ */
+public final class CourseDetailSnapshot {
+
+    private final CourseDetailVO detail;
+    private final byte[] body;
+    private final String etag;
+
+    public CourseDetailSnapshot(CourseDetailVO detail, byte[] body, String etag) {
+        this.detail = detail;
+        this.body = body;
+        this.etag = etag;
+    }
+
+    /**
+     * 课程详情VO（只读，调用方不得修改）
+     */
+    public CourseDetailVO getDetail() {
+        return detail;
+    }
+
+    /**
+     * 预序列化的响应体（Result&lt;CourseDetailVO&gt; 的 UTF-8 JSON，只读，调用方不得修改）
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * 强ETag（带双引号）
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * 判断 If-None-Match 请求头是否与当前快照匹配
+     * 支持 "*"、逗号分隔的多个值以及 W/ 弱校验前缀
+     * @param ifNoneMatch If-None-Match 请求头
+     * @return 是否匹配（匹配时可返回304）
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isEmpty()) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if ("*".equals(candidate) || etag.equals(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,137 @@
+package com.edu.platform.cache;
+
+import com.edu.platform.entity.Enroll;
+import com.edu.platform.mapper.StudentMapper;
+import com.edu.platform.utils.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 选课关系内存索引（学生 -> 已选课程集合，课程 -> 选课学生集合）
+ * 说明：
+ * 1. 启动时流式读取 edu_enroll 中的有效选课记录构建，之后由选课/退课在落库后增量维护；
+ * 2. 学生 -> 课程为不可变的 CompactIdSet（单个学生选课数少），变更时按 key 原子替换；
+ *    课程 -> 学生为按区间分块的 ChunkedIdSet，热门课程选课只复制所在的一块，不随选课人数线性增长；读操作均无锁；
+ * 3. 学生维度的 key 为 edu_student.id（与 edu_enroll.student_id 一致），不是用户ID。
+ */
+@Component
+@Slf4j
+public class EnrollmentIndex {
+
+    // 单个 map 条目的估算开销（Node 对象 + Long key + 桶数组槽位）
+    private static final int MAP_ENTRY_BYTES = 64;
+
+    @Autowired
+    private StudentMapper studentMapper;
+
+    private final ConcurrentHashMap<Long, CompactIdSet> coursesByStudent = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, ChunkedIdSet> studentsByCourse = new ConcurrentHashMap<>();
+
+    /**
+     * 启动时从数据库构建索引
+     */
+    @PostConstruct
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        Map<Long, CompactIdSet.Builder> courses = new HashMap<>();
+        Map<Long, ChunkedIdSet.Builder> students = new HashMap<>();
+        studentMapper.scanActiveEnrolls(context -> {
+            Enroll enroll = context.getResultObject();
+            courses.computeIfAbsent((long) enroll.getStudentId(), k -> new CompactIdSet.Builder()).add(enroll.getCourseId());
+            students.computeIfAbsent((long) enroll.getCourseId(), k -> new ChunkedIdSet.Builder()).add(enroll.getStudentId());
+        });
+        coursesByStudent.clear();
+        studentsByCourse.clear();
+        courses.forEach((studentId, builder) -> coursesByStudent.put(studentId, builder.build()));
+        students.forEach((courseId, builder) -> studentsByCourse.put(courseId, builder.build()));
+        log.info("选课索引构建完成：学生数={}，课程数={}，耗时{}ms",
+                coursesByStudent.size(), studentsByCourse.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 选课成功后登记（事务提交后生效）
+     * @param studentId 学生ID（edu_student.id）
+     * @param courseId 课程ID
+     */
+    public void onEnrolled(Long studentId, Long courseId) {
+        TransactionUtils.afterCommit(() -> {
+            coursesByStudent.compute(studentId, (k, set) -> (set == null ? CompactIdSet.EMPTY : set).add(courseId));
+            // 在课程条目的锁内修改，避免与退课清理空集合并发时丢失新增
+            studentsByCourse.compute(courseId, (k, set) -> {
+                ChunkedIdSet students = set == null ? new ChunkedIdSet() : set;
+                students.add(studentId);
+                return students;
+            });
+        });
+    }
+
+    /**
+     * 退课后移除（事务提交后生效）
+     * @param studentId 学生ID（edu_student.id）
+     * @param courseId 课程ID
+     */
+    public void onQuit(Long studentId, Long courseId) {
+        TransactionUtils.afterCommit(() -> {
+            coursesByStudent.computeIfPresent(studentId, (k, set) -> emptyToNull(set.remove(courseId)));
+            studentsByCourse.computeIfPresent(courseId, (k, set) -> {
+                set.remove(studentId);
+                return set.size() == 0 ? null : set;
+            });
+        });
+    }
+
+    /**
+     * 学生是否已选指定课程
+     */
+    public boolean isEnrolled(Long studentId, Long courseId) {
+        return getCourses(studentId).contains(courseId);
+    }
+
+    /**
+     * 学生已选课程集合（只读）
+     */
+    public CompactIdSet getCourses(Long studentId) {
+        return coursesByStudent.getOrDefault(studentId, CompactIdSet.EMPTY);
+    }
+
+    /**
+     * 课程选课学生集合（只读使用，内容随选课/退课实时变化）
+     */
+    public ChunkedIdSet getStudents(Long courseId) {
+        ChunkedIdSet students = studentsByCourse.get(courseId);
+        return students == null ? new ChunkedIdSet() : students;
+    }
+
+    /**
+     * 同时选了两门课程的学生数
+     */
+    public int countCommonStudents(Long courseId, Long otherCourseId) {
+        return getStudents(courseId).intersectionCount(getStudents(otherCourseId));
+    }
+
+    /**
+     * 索引统计
+     */
+    public EnrollmentIndexStats stats() {
+        long enrollments = 0;
+        long bytes = 0;
+        for (CompactIdSet set : coursesByStudent.values()) {
+            enrollments += set.size();
+            bytes += set.estimatedBytes() + MAP_ENTRY_BYTES;
+        }
+        for (ChunkedIdSet set : studentsByCourse.values()) {
+            bytes += set.estimatedBytes() + MAP_ENTRY_BYTES;
+        }
+        return new EnrollmentIndexStats(coursesByStudent.size(), studentsByCourse.size(), enrollments, bytes);
+    }
+
+    private static CompactIdSet emptyToNull(CompactIdSet set) {
+        return set.size() == 0 ? null : set;
+    }
+}
@@ -0,0 +1,16 @@
+package com.edu.platform.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 选课索引统计快照
+ */
+@Data
+@AllArgsConstructor
+public class EnrollmentIndexStats {
+    private int studentCount;     // 有选课记录的学生数
+    private int courseCount;      // 有选课记录的课程数
+    private long enrollmentCount; // 有效选课记录数
+    private long estimatedBytes;  // 估算内存占用（字节，含两个方向的索引）
+}
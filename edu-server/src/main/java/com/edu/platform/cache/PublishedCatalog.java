@@ -0,0 +1,142 @@
+package com.edu.platform.cache;
+
+import com.edu.platform.constant.StatusConstant;
+import com.edu.platform.entity.Course;
+import com.edu.platform.mapper.CourseMapper;
+import com.edu.platform.result.PageResult;
+import com.edu.platform.utils.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+
+/**
+ * 已发布课程目录（进程内排序快照）
+ * 说明：
+ * 1. 启动时加载全部已发布课程，按 update_time desc, id desc 排序，并按分类建立切片；
+ * 2. 课程修改/删除在事务提交后增量更新（写时复制生成新快照），读请求只读 volatile 快照，无需加锁和查库；
+ * 3. 支持分页、分类筛选和排除指定课程（如学生已选课程）。
+ */
+@Component
+@Slf4j
+public class PublishedCatalog {
+
+    private static final Comparator<Course> ORDER = Comparator
+            .comparing(Course::getUpdateTime, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Course::getId, Comparator.reverseOrder());
+
+    @Autowired
+    private CourseMapper courseMapper;
+
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyList());
+
+    /**
+     * 启动时全量加载
+     */
+    @PostConstruct
+    public void reload() {
+        List<Course> courses = courseMapper.selectPublishedCourses();
+        synchronized (this) {
+            snapshot = new Snapshot(courses);
+        }
+        log.info("已发布课程目录加载完成：课程数={}", courses.size());
+    }
+
+    /**
+     * 课程新增/修改后更新目录（事务提交后生效）：已发布则加入或替换，否则移出
+     * @param course 课程最新数据
+     */
+    public void onCourseChanged(Course course) {
+        TransactionUtils.afterCommit(() -> apply(course.getId(), course));
+    }
+
+    /**
+     * 课程删除后移出目录（事务提交后生效）
+     * @param courseId 课程ID
+     */
+    public void onCourseDeleted(Long courseId) {
+        TransactionUtils.afterCommit(() -> apply(courseId, null));
+    }
+
+    /**
+     * 全部已发布课程
+     */
+    public List<Course> list() {
+        return snapshot.all;
+    }
+
+    /**
+     * 分页查询已发布课程
+     * @param categoryId 分类ID（可选）
+     * @param excludeIds 需要排除的课程ID（可选）
+     * @param pageNum 页码（从1开始）
+     * @param pageSize 每页条数
+     * @return 分页结果
+     */
+    public PageResult page(Long categoryId, Set<Long> excludeIds, int pageNum, int pageSize) {
+        // 1. 取同一个快照，保证总数与当前页一致
+        Snapshot current = snapshot;
+        List<Course> source = categoryId == null
+                ? current.all
+                : current.byCategory.getOrDefault(categoryId, Collections.emptyList());
+        int offset = (pageNum - 1) * pageSize;
+
+        // 2. 无排除条件时直接截取
+        if (excludeIds == null || excludeIds.isEmpty()) {
+            int from = Math.min(offset, source.size());
+            int to = Math.min(from + pageSize, source.size());
+            return new PageResult(source.size(), source.subList(from, to));
+        }
+
+        // 3. 有排除条件时顺序跳过被排除的课程
+        List<Course> records = new ArrayList<>(pageSize);
+        int total = 0;
+        for (Course course : source) {
+            if (excludeIds.contains(course.getId())) {
+                continue;
+            }
+            if (total >= offset && records.size() < pageSize) {
+                records.add(course);
+            }
+            total++;
+        }
+        return new PageResult(total, records);
+    }
+
+    private synchronized void apply(Long courseId, Course course) {
+        List<Course> courses = new ArrayList<>(snapshot.all.size() + 1);
+        for (Course existing : snapshot.all) {
+            if (!existing.getId().equals(courseId)) {
+                courses.add(existing);
+            }
+        }
+        if (course != null && Objects.equals(course.getStatus(), StatusConstant.COURSE_PUBLISHED)) {
+            courses.add(course);
+        }
+        snapshot = new Snapshot(courses);
+    }
+
+    /**
+     * 不可变目录快照
+     */
+    private static final class Snapshot {
+        private final List<Course> all;
+        private final Map<Long, List<Course>> byCategory;
+
+        private Snapshot(List<Course> courses) {
+            List<Course> sorted = new ArrayList<>(courses);
+            sorted.sort(ORDER);
+            Map<Long, List<Course>> grouped = new HashMap<>();
+            for (Course course : sorted) {
+                if (course.getCategoryId() != null) {
+                    grouped.computeIfAbsent(course.getCategoryId(), k -> new ArrayList<>()).add(course);
+                }
+            }
+            grouped.replaceAll((k, v) -> Collections.unmodifiableList(v));
+            this.all = Collections.unmodifiableList(sorted);
+            this.byCategory = grouped;
+        }
+    }
+}
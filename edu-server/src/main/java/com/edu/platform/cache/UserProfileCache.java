@@ -0,0 +1,67 @@
+package com.edu.platform.cache;
+
+import com.edu.platform.entity.UserProfile;
+import com.edu.platform.mapper.UserMapper;
+import com.edu.platform.properties.CacheProperties;
+import com.edu.platform.utils.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * 用户档案读穿透缓存（key=用户ID，value=用户表与学生/教师表关联查询结果）
+ * 说明：
+ * 1. 当前用户信息、学生信息、教师信息共用同一份档案，未命中时一条关联SQL加载；
+ * 2. 修改用户/学生/教师信息、修改账号状态时调用 invalidate 使对应用户失效；
+ * 3. 缓存的档案视为只读，调用方据此组装各自的VO，不得直接修改。
+ */
+@Component
+@Slf4j
+public class UserProfileCache {
+
+    private final UserMapper userMapper;
+    private final WeightedLruCache<Long, UserProfile> cache;
+
+    @Autowired
+    public UserProfileCache(UserMapper userMapper, CacheProperties cacheProperties) {
+        this.userMapper = userMapper;
+        this.cache = new WeightedLruCache<>(cacheProperties.getUserProfileMaxEntries(), profile -> 1);
+    }
+
+    /**
+     * 读穿透查询用户档案
+     * @param userId 用户ID
+     * @return 用户档案（用户不存在时为null，不缓存）
+     */
+    public UserProfile get(Long userId) {
+        UserProfile cached = cache.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = cache.stamp();
+        UserProfile profile = userMapper.selectProfileById(userId);
+        if (profile != null && !cache.putIfStamp(userId, profile, stamp)) {
+            log.debug("用户档案加载期间发生失效，本次结果不写入缓存：userId={}", userId);
+        }
+        return profile;
+    }
+
+    /**
+     * 使用户档案失效：立即失效一次，事务提交后再失效一次
+     * @param userId 用户ID
+     */
+    public void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        cache.invalidate(userId);
+        TransactionUtils.afterCommit(() -> cache.invalidate(userId));
+    }
+
+    /**
+     * 缓存统计（权重单位为条目数）
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
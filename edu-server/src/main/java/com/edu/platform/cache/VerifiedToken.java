@@ -0,0 +1,16 @@
+package com.edu.platform.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 已校验通过的令牌信息（不可变）
+ */
+@Getter
+@AllArgsConstructor
+public final class VerifiedToken {
+    private final Long userId;       // 用户ID
+    private final Integer role;      // 用户角色
+    private final long issuedAt;     // 签发时间（毫秒，令牌未携带时为0）
+    private final long expiresAt;    // 过期时间（毫秒）
+}
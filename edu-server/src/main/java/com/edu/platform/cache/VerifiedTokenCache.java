@@ -0,0 +1,85 @@
+package com.edu.platform.cache;
+
+import com.edu.platform.constant.JwtClaimsConstant;
+import com.edu.platform.properties.CacheProperties;
+import com.edu.platform.utils.JwtUtil;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * 已校验令牌缓存（key=令牌SHA-256摘要，value=解析出的用户ID/角色/过期时间）
+ * 说明：
+ * 1. 同一令牌在会话期间会被反复校验，命中缓存时跳过HMAC验签、Base64解码和JSON解析；
+ * 2. 以摘要而非原始令牌作为key，条目大小固定且内存中不保留完整令牌；
+ * 3. 命中时仍按令牌自身的 exp 判断过期，过期条目移除后走完整解析（由JwtUtil抛出过期异常）；
+ * 4. 按条目数限制容量，超出后近似按最近最少使用淘汰；
+ * 5. 每个 /api/** 请求都会经过这里，使用读路径无锁的 ConcurrentClockCache，避免所有请求争用同一把锁。
+ */
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    private final JwtUtil jwtUtil;
+    private final ConcurrentClockCache<String, VerifiedToken> cache;
+
+    @Autowired
+    public VerifiedTokenCache(JwtUtil jwtUtil, CacheProperties cacheProperties) {
+        this.jwtUtil = jwtUtil;
+        this.cache = new ConcurrentClockCache<>(cacheProperties.getVerifiedTokenMaxEntries());
+    }
+
+    /**
+     * 校验令牌：命中且未过期时直接返回，否则完整解析并写入缓存
+     * @param token 纯令牌字符串（无Bearer前缀）
+     * @return 令牌中的用户信息
+     * @throws RuntimeException 令牌无效/过期（与 JwtUtil.parseToken 一致）
+     */
+    public VerifiedToken verify(String token) {
+        String key = digest(token);
+        VerifiedToken cached = cache.get(key);
+        if (cached != null) {
+            if (System.currentTimeMillis() < cached.getExpiresAt()) {
+                return cached;
+            }
+            cache.invalidate(key);
+        }
+
+        Claims claims = jwtUtil.parseToken(token);
+        Number userIdNum = (Number) claims.get(JwtClaimsConstant.USER_ID);
+        Integer role = (Integer) claims.get(JwtClaimsConstant.ROLE);
+        Date issuedAt = claims.getIssuedAt();
+        Date expiration = claims.getExpiration();
+        VerifiedToken verified = new VerifiedToken(userIdNum.longValue(), role,
+                issuedAt == null ? 0L : issuedAt.getTime(),
+                expiration == null ? 0L : expiration.getTime());
+        // 未携带过期时间的令牌不缓存，每次都完整校验
+        if (expiration != null) {
+            cache.put(key, verified);
+        }
+        return verified;
+    }
+
+    /**
+     * 缓存统计（权重单位为条目数）
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.edu.platform.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * 按权重限制容量的LRU缓存（线程安全）
+ * 说明：
+ * 1. 每个条目的权重由 weigher 计算，总权重超过 maxWeight 时淘汰最久未访问的条目；
+ * 2. 每次失效都会推进 stamp，读穿透加载前先取 stamp，写回时用 putIfStamp 校验，
+ *    避免“加载期间数据被修改并失效，随后旧数据又被写回缓存”的问题。
+ */
+public class WeightedLruCache<K, V> {
+
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+
+    // accessOrder=true：按访问顺序排列，链表头部即最久未访问的条目
+    private final LinkedHashMap<K, Entry<V>> map = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalWeight;
+    private long stamp;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public WeightedLruCache(long maxWeight, ToLongFunction<V> weigher) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("缓存最大权重必须大于0：" + maxWeight);
+        }
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * 查询缓存（同时记录命中/未命中）
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = map.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    /**
+     * 当前失效版本号（读穿透加载前获取）
+     */
+    public synchronized long stamp() {
+        return stamp;
+    }
+
+    /**
+     * 写入缓存
+     */
+    public synchronized void put(K key, V value) {
+        long weight = Math.max(1, weigher.applyAsLong(value));
+        if (weight > maxWeight) {
+            // 单个条目超过上限，直接不缓存
+            invalidate(key);
+            return;
+        }
+        Entry<V> old = map.put(key, new Entry<>(value, weight));
+        if (old != null) {
+            totalWeight -= old.weight;
+        }
+        totalWeight += weight;
+        evictIfNeeded();
+    }
+
+    /**
+     * 仅当加载期间没有发生过失效时才写入缓存
+     * @return 是否写入成功
+     */
+    public synchronized boolean putIfStamp(K key, V value, long expectedStamp) {
+        if (stamp != expectedStamp) {
+            return false;
+        }
+        put(key, value);
+        return true;
+    }
+
+    /**
+     * 使单个条目失效
+     */
+    public synchronized void invalidate(K key) {
+        stamp++;
+        Entry<V> old = map.remove(key);
+        if (old != null) {
+            totalWeight -= old.weight;
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public synchronized void invalidateAll() {
+        stamp++;
+        map.clear();
+        totalWeight = 0;
+    }
+
+    /**
+     * 获取统计快照
+     */
+    public synchronized CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), map.size(), totalWeight, maxWeight);
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<K, Entry<V>>> it = map.entrySet().iterator();
+        while (totalWeight > maxWeight && it.hasNext()) {
+            Entry<V> eldest = it.next().getValue();
+            it.remove();
+            totalWeight -= eldest.weight;
+            evictions.increment();
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long weight;
+
+        private Entry(V value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.edu.platform.config;
 
 import com.edu.platform.interceptor.JwtTokenInterceptor;
+import com.edu.platform.interceptor.RateLimitInterceptor;
 import com.edu.platform.json.JacksonObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,6 +32,9 @@ public class WebMvcConfiguration extends WebMvcConfigurationSupport {
     @Autowired
     private JwtTokenInterceptor jwtTokenInterceptor; // 注入通用JWT拦截器（已修正类名）
 
+    @Autowired
+    private RateLimitInterceptor rateLimitInterceptor; // 登录/注册/下单限流拦截器
+
     /**
      * 注册自定义拦截器（适配教育平台接口路径）
      */
@@ -43,7 +47,14 @@ public class WebMvcConfiguration extends WebMvcConfigurationSupport {
                 // 放行登录接口（无需登录即可访问）
                 .excludePathPatterns("/api/user/login")
                 // 可根据业务添加其他放行路径（如注册接口、验证码接口等）
-                .excludePathPatterns("/api/user/register");
+                .excludePathPatterns("/api/user/register")
+                // 支付平台回调由第三方发起，不携带用户令牌，改由网关签名（PayCallbackSigner）校验
+                .excludePathPatterns("/api/pay/callback");
+        // 限流拦截器在JWT之后执行（下单按用户ID限流需要先解析出用户）
+        registry.addInterceptor(rateLimitInterceptor)
+                .addPathPatterns(RateLimitInterceptor.LOGIN_PATH,
+                        RateLimitInterceptor.REGISTER_PATH,
+                        RateLimitInterceptor.ORDER_PATH);
     }
 
     /**
@@ -0,0 +1,69 @@
+package com.edu.platform.controller;
+
+import com.edu.platform.result.Result;
+import com.edu.platform.server.AnalyticsService;
+import com.edu.platform.vo.LearningStatsVO;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analytics")
+@Slf4j
+@Api(tags = "学习数据统计接口")
+public class AnalyticsController {
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    /**
+     * 查询日统计（仅管理员）
+     * @param days 天数（含当天）
+     * @return 日统计列表
+     */
+    @GetMapping("/daily")
+    @ApiOperation(value = "查询日统计（仅管理员）")
+    public Result<List<LearningStatsVO>> getDailyStats(@RequestParam(defaultValue = "7") int days) {
+        log.info("查询学习日统计：days={}", days);
+        return Result.success(analyticsService.getDailyStats(days));
+    }
+
+    /**
+     * 查询最近48小时的小时统计（仅管理员）
+     * @return 小时统计列表
+     */
+    @GetMapping("/hourly")
+    @ApiOperation(value = "查询小时统计（仅管理员）")
+    public Result<List<LearningStatsVO>> getHourlyStats() {
+        log.info("查询学习小时统计");
+        return Result.success(analyticsService.getHourlyStats());
+    }
+
+    /**
+     * 查询最近60分钟的分钟统计（仅管理员）
+     * @return 分钟统计列表
+     */
+    @GetMapping("/minutely")
+    @ApiOperation(value = "查询分钟统计（仅管理员）")
+    public Result<List<LearningStatsVO>> getMinutelyStats() {
+        log.info("查询学习分钟统计");
+        return Result.success(analyticsService.getMinutelyStats());
+    }
+
+    /**
+     * 由原始记录回填历史日统计（仅管理员，不含当天）
+     * @param days 回填天数
+     * @return 操作结果
+     */
+    @PostMapping("/backfill")
+    @ApiOperation(value = "回填历史日统计（仅管理员）")
+    public Result<Void> backfill(@RequestParam(defaultValue = "30") int days) {
+        log.info("回填学习日统计：days={}", days);
+        analyticsService.backfill(days);
+        return Result.success();
+    }
+}
@@ -1,6 +1,8 @@
 package com.edu.platform.controller;
 
+import com.edu.platform.cache.CourseDetailSnapshot;
 import com.edu.platform.dto.*;
+import com.edu.platform.result.CursorPageResult;
 import com.edu.platform.result.PageResult;
 import com.edu.platform.result.Result;
 import com.edu.platform.server.CourseService;
@@ -10,9 +12,13 @@ import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -72,11 +78,27 @@ public class CourseController {
      * @return
      */
     @GetMapping("/{id}")
-    @ApiOperation(value = "获取课程详情（含章节和课时）")
-    public Result<CourseDetailVO> getCourseDetail(@PathVariable Long id) {
+    @ApiOperation(value = "获取课程详情（含章节和课时，支持If-None-Match协商缓存）", response = CourseDetailVO.class)
+    public void getCourseDetail(@PathVariable Long id,
+                                HttpServletRequest request,
+                                HttpServletResponse response) throws IOException {
         log.info("接收获取课程详情请求：id={}", id);
-        CourseDetailVO coursedetailVO= courseService.getCourseDetail(id);
-        return Result.success(coursedetailVO);
+        CourseDetailSnapshot snapshot = courseService.getCourseDetailSnapshot(id);
+
+        response.setHeader(HttpHeaders.ETAG, snapshot.getEtag());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache"); // 允许缓存，但每次需用ETag协商
+
+        // 内容未变化：返回304，不再传输响应体
+        if (snapshot.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        // 直接输出预序列化的 Result JSON
+        byte[] body = snapshot.getBody();
+        response.setContentType("application/json;charset=UTF-8");
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
     }
 
     /**
@@ -92,6 +114,19 @@ public class CourseController {
         return Result.success(pageResult);
     }
 
+    /**
+     * 游标分页查询课程（无限滚动，不统计总数）
+     * @param coursePageQueryDTO 查询参数（首页不传cursor）
+     * @return 游标分页结果
+     */
+    @GetMapping("/scroll")
+    @ApiOperation(value = "游标分页查询课程（公开接口）")
+    public Result<CursorPageResult> scrollQuery(CoursePageQueryDTO coursePageQueryDTO) {
+        log.info("接收课程游标分页查询请求：{}", coursePageQueryDTO);
+        CursorPageResult cursorPageResult = courseService.scrollQuery(coursePageQueryDTO);
+        return Result.success(cursorPageResult);
+    }
+
     /**
      * 根据课程ID查询章节和小节
      * @param courseId 课程ID
@@ -175,4 +210,17 @@ public class CourseController {
         courseService.updateVideo(id, videoUpdateDTO);
         return Result.success();
     }
-}
\ No newline at end of file
+
+    /**
+     * 删除课时（仅课程创建者可用）
+     * @param id 课时ID
+     * @return 操作结果
+     */
+    @DeleteMapping("/video/{id}")
+    @ApiOperation(value = "删除课时（仅课程创建者可用）")
+    public Result<Void> deleteVideo(@PathVariable Long id) {
+        log.info("接收删除课时请求：id={}", id);
+        courseService.deleteVideo(id);
+        return Result.success();
+    }
+}
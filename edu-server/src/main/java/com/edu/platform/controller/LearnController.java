@@ -0,0 +1,45 @@
+package com.edu.platform.controller;
+
+import com.edu.platform.dto.LearnProgressDTO;
+import com.edu.platform.result.Result;
+import com.edu.platform.server.LearnService;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+
+@RestController
+@RequestMapping("/api/learn")
+@Slf4j
+@Api(tags = "学习记录相关接口")
+public class LearnController {
+
+    @Autowired
+    private LearnService learnService;
+
+    /**
+     * 上报学习进度（播放器心跳，高频调用不打印日志）
+     * @param learnProgressDTO
+     * @return
+     */
+    @PostMapping("/progress")
+    @ApiOperation(value = "上报学习进度")
+    public Result reportProgress(@Valid @RequestBody LearnProgressDTO learnProgressDTO) {
+        learnService.reportProgress(learnProgressDTO);
+        return Result.success();
+    }
+
+    /**
+     * 查询续播位置
+     * @param videoId 课时ID
+     * @return 已观看到的最大位置（秒）
+     */
+    @GetMapping("/progress/{videoId}")
+    @ApiOperation(value = "查询续播位置")
+    public Result<Integer> getResumePosition(@PathVariable Long videoId) {
+        return Result.success(learnService.getResumePosition(videoId));
+    }
+}
@@ -0,0 +1,103 @@
+package com.edu.platform.controller;
+
+import com.edu.platform.cache.CacheStats;
+import com.edu.platform.cache.EnrollmentIndexStats;
+import com.edu.platform.result.Result;
+import com.edu.platform.pay.PayCallbackStats;
+import com.edu.platform.pay.SettlementStats;
+import com.edu.platform.security.PasswordHashStats;
+import com.edu.platform.server.MonitorService;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/monitor")
+@Slf4j
+@Api(tags = "运行监控接口")
+public class MonitorController {
+
+    @Autowired
+    private MonitorService monitorService;
+
+    /**
+     * 查询课程详情缓存统计（仅管理员）
+     * @return 缓存统计
+     */
+    @GetMapping("/cache/course-detail")
+    @ApiOperation(value = "查询课程详情缓存统计（仅管理员）")
+    public Result<CacheStats> getCourseDetailCacheStats() {
+        log.info("查询课程详情缓存统计");
+        return Result.success(monitorService.getCourseDetailCacheStats());
+    }
+
+    /**
+     * 查询已校验令牌缓存统计（仅管理员）
+     * @return 缓存统计
+     */
+    @GetMapping("/cache/verified-token")
+    @ApiOperation(value = "查询已校验令牌缓存统计（仅管理员）")
+    public Result<CacheStats> getVerifiedTokenCacheStats() {
+        log.info("查询已校验令牌缓存统计");
+        return Result.success(monitorService.getVerifiedTokenCacheStats());
+    }
+
+    /**
+     * 查询用户档案缓存统计（仅管理员）
+     * @return 缓存统计
+     */
+    @GetMapping("/cache/user-profile")
+    @ApiOperation(value = "查询用户档案缓存统计（仅管理员）")
+    public Result<CacheStats> getUserProfileCacheStats() {
+        log.info("查询用户档案缓存统计");
+        return Result.success(monitorService.getUserProfileCacheStats());
+    }
+
+    /**
+     * 查询密码哈希线程池统计（仅管理员）
+     * @return 线程池统计
+     */
+    @GetMapping("/password-hash")
+    @ApiOperation(value = "查询密码哈希线程池统计（仅管理员）")
+    public Result<PasswordHashStats> getPasswordHashStats() {
+        log.info("查询密码哈希线程池统计");
+        return Result.success(monitorService.getPasswordHashStats());
+    }
+
+    /**
+     * 查询选课索引统计（仅管理员）
+     * @return 索引统计
+     */
+    @GetMapping("/enrollment-index")
+    @ApiOperation(value = "查询选课索引统计（仅管理员）")
+    public Result<EnrollmentIndexStats> getEnrollmentIndexStats() {
+        log.info("查询选课索引统计");
+        return Result.success(monitorService.getEnrollmentIndexStats());
+    }
+
+    /**
+     * 查询支付结算统计（仅管理员）
+     * @return 结算统计
+     */
+    @GetMapping("/pay-settlement")
+    @ApiOperation(value = "查询支付结算统计（仅管理员）")
+    public Result<SettlementStats> getSettlementStats() {
+        log.info("查询支付结算统计");
+        return Result.success(monitorService.getSettlementStats());
+    }
+
+    /**
+     * 查询支付回调处理统计（仅管理员）
+     * @return 回调处理统计
+     */
+    @GetMapping("/pay-callback")
+    @ApiOperation(value = "查询支付回调处理统计（仅管理员）")
+    public Result<PayCallbackStats> getPayCallbackStats() {
+        log.info("查询支付回调处理统计");
+        return Result.success(monitorService.getPayCallbackStats());
+    }
+}
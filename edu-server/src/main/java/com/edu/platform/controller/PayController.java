@@ -2,8 +2,10 @@ package com.edu.platform.controller;
 
 import com.edu.platform.dto.OrderCreateDTO;
 import com.edu.platform.dto.OrderQueryDTO;
+import com.edu.platform.dto.PayCallbackDTO;
 import com.edu.platform.dto.PayCreateDTO;
 import com.edu.platform.entity.EduPayOrder;
+import com.edu.platform.result.CursorPageResult;
 import com.edu.platform.result.PageResult;
 import com.edu.platform.result.Result;
 import com.edu.platform.server.PayService;
@@ -12,6 +14,7 @@ import io.swagger.annotations.ApiOperation;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import javax.validation.Valid;
 
@@ -48,6 +51,14 @@ public class PayController {
         return Result.success(pageResult);
     }
 
+    @GetMapping("/orders/scroll")
+    @ApiOperation("游标分页查询用户订单")
+    public Result<CursorPageResult> scrollUserOrders(OrderQueryDTO queryDTO) {
+        log.info("游标分页查询用户订单：{}", queryDTO);
+        CursorPageResult cursorPageResult = payService.scrollUserOrders(queryDTO);
+        return Result.success(cursorPageResult);
+    }
+
 
     /**
      * 发起支付
@@ -75,4 +86,29 @@ public class PayController {
         EduPayOrder order = payService.getOrderByNo(orderNo);
         return Result.success(order);
     }
+
+    /**
+     * 等待订单状态变化（长轮询：待支付订单挂起到支付成功、取消、超时关闭或等待超时，替代轮询查询订单状态）
+     * @param orderNo
+     * @return
+     */
+    @GetMapping("/order/{orderNo}/status/wait")
+    @ApiOperation("等待订单状态变化")
+    public DeferredResult<Result<EduPayOrder>> waitOrderStatus(@PathVariable String orderNo) {
+        log.info("等待订单状态变化：{}", orderNo);
+        return payService.waitOrderStatus(orderNo);
+    }
+
+    /**
+     * 支付平台回调（校验签名、去重落库后立即应答，重复回调同样应答成功）
+     * @param payCallbackDTO
+     * @return
+     */
+    @PostMapping("/callback")
+    @ApiOperation("支付平台回调")
+    public Result<Boolean> payCallback(@RequestBody @Valid PayCallbackDTO payCallbackDTO) {
+        log.info("支付平台回调：{}", payCallbackDTO);
+        boolean accepted = payService.handlePayCallback(payCallbackDTO);
+        return Result.success(accepted);
+    }
 }
\ No newline at end of file
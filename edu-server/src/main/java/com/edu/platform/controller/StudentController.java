@@ -2,10 +2,9 @@ package com.edu.platform.controller;
 
 import com.edu.platform.context.BaseContext;
 import com.edu.platform.dto.StudentUpdateDTO;
-import com.edu.platform.entity.Course;
+import com.edu.platform.result.CursorPageResult;
 import com.edu.platform.result.PageResult;
 import com.edu.platform.result.Result;
-import com.edu.platform.server.CourseService;
 import com.edu.platform.server.StudentService;
 import com.edu.platform.vo.StudentInfoVO;
 import io.swagger.annotations.Api;
@@ -16,6 +15,7 @@ import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/student")
@@ -25,9 +25,6 @@ public class StudentController {
     @Autowired
     private StudentService studentService;
 
-    @Autowired
-    private CourseService courseService;
-
 
     /**
      * 完善学生信息
@@ -97,13 +94,51 @@ public class StudentController {
     }
 
     /**
-     * 查询可选课程（供学生选择）
+     * 游标分页查询学生已选课程（不统计总数）
+     * @param cursor 上一页返回的游标（首页不传）
+     * @param pageSize 每页条数
+     * @return
+     */
+    @GetMapping("/course/scroll")
+    @ApiOperation(value = "游标分页查询学生已选课程")
+    public Result<CursorPageResult> scrollSelectedCourses(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int pageSize) {
+        log.info("学生游标分页查询已选课程：cursor={}, pageSize={}", cursor, pageSize);
+        Long studentId = BaseContext.getUserId();
+        CursorPageResult cursorPageResult = studentService.scrollSelectedCourses(studentId, cursor, pageSize);
+        return Result.success(cursorPageResult);
+    }
+
+    /**
+     * 分页查询可选课程（供学生选择）
+     * @param pageNum 页码
+     * @param pageSize 每页条数
+     * @param categoryId 分类ID（可选）
+     * @param excludeEnrolled 是否排除已选课程
      * @return
      */
     @GetMapping("/available")
-    @ApiOperation(value = "查询可选课程（供学生选择）")
-    public Result<List<Course>> getAvailableCourses() {
-        List<Course> courses = courseService.findPublishedCourses();
-        return Result.success(courses);
+    @ApiOperation(value = "分页查询可选课程（供学生选择）")
+    public Result<PageResult> getAvailableCourses(
+            @RequestParam(defaultValue = "1") int pageNum,
+            @RequestParam(defaultValue = "10") int pageSize,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(defaultValue = "false") boolean excludeEnrolled) {
+        Long userId = BaseContext.getUserId();
+        PageResult pageResult = studentService.getAvailableCourses(userId, categoryId, excludeEnrolled, pageNum, pageSize);
+        return Result.success(pageResult);
+    }
+
+    /**
+     * 批量查询是否已选课程（课程卡片展示用）
+     * @param courseIds 课程ID列表
+     * @return 课程ID -> 是否已选
+     */
+    @GetMapping("/enrolled")
+    @ApiOperation(value = "批量查询是否已选课程")
+    public Result<Map<Long, Boolean>> getEnrolledFlags(@RequestParam List<Long> courseIds) {
+        Long userId = BaseContext.getUserId();
+        return Result.success(studentService.getEnrolledFlags(userId, courseIds));
     }
 }
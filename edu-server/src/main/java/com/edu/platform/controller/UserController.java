@@ -3,6 +3,7 @@ package com.edu.platform.controller;
 import com.edu.platform.constant.JwtClaimsConstant;
 import com.edu.platform.constant.StatusConstant;
 import com.edu.platform.dto.*;
+import com.edu.platform.result.CursorPageResult;
 import com.edu.platform.result.PageResult;
 import com.edu.platform.result.Result;
 import com.edu.platform.utils.JwtUtil;
@@ -151,4 +152,17 @@ public class UserController {
         return Result.success(pageResult);
     }
 
+    /**
+     * 游标分页查询用户（仅管理员，不统计总数）
+     * @param userPageQueryDTO 查询条件（首页不传cursor）
+     * @return 游标分页结果
+     */
+    @GetMapping("/scroll")
+    @ApiOperation(value = "游标分页查询用户")
+    public Result<CursorPageResult> scrollQuery(UserPageQueryDTO userPageQueryDTO) {
+        log.info("游标分页查询用户：{}", userPageQueryDTO);
+        CursorPageResult cursorPageResult = userService.scrollQuery(userPageQueryDTO);
+        return Result.success(cursorPageResult);
+    }
+
 }
@@ -2,13 +2,16 @@ package com.edu.platform.handler;
 
 import com.edu.platform.constant.MessageConstant;
 import com.edu.platform.exception.BaseException;
+import com.edu.platform.exception.TooManyRequestsException;
 import com.edu.platform.result.Result;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.sql.SQLIntegrityConstraintViolationException;
@@ -21,6 +24,15 @@ import java.util.stream.Collectors;
 @Slf4j
 public class GlobalExceptionHandler {
 
+    /**
+     * 请求过于频繁（限流），返回429
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public Result<Void> tooManyRequestsExceptionHandler(TooManyRequestsException ex) {
+        return Result.error(429, ex.getMessage());
+    }
+
     /**
      * 优先捕获所有自定义业务异常（BaseException子类）
      */
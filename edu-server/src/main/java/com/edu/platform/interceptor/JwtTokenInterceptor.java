@@ -1,16 +1,16 @@
 package com.edu.platform.interceptor;
 
-import com.edu.platform.constant.JwtClaimsConstant;
+import com.edu.platform.cache.VerifiedToken;
+import com.edu.platform.cache.VerifiedTokenCache;
 import com.edu.platform.constant.MessageConstant;
 import com.edu.platform.context.BaseContext;
 import com.edu.platform.properties.JwtProperties;
-import com.edu.platform.utils.JwtUtil;
-import io.jsonwebtoken.Claims;
+import com.edu.platform.security.TokenRevocationRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.method.HandlerMethod;
-import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -23,13 +23,16 @@ import java.io.PrintWriter;
  */
 @Component
 @Slf4j
-public class JwtTokenInterceptor implements HandlerInterceptor { 
+public class JwtTokenInterceptor implements AsyncHandlerInterceptor { 
 
     @Autowired
     private JwtProperties jwtProperties;
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TokenRevocationRegistry tokenRevocationRegistry;
 
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
         // 1. 非Controller方法（如静态资源）直接放行
@@ -54,13 +57,19 @@ public class JwtTokenInterceptor implements HandlerInterceptor {
 
         // 4. 校验并解析令牌
         try {
-            // 适配优化后的JwtUtil（无需手动传secretKey）
-            Claims claims = jwtUtil.parseToken(token);
+            // 优先命中已校验令牌缓存，未命中时由JwtUtil完整验签解析
+            VerifiedToken verified = verifiedTokenCache.verify(token);
 
             // 5. 解析用户ID和角色，存入BaseContext（供业务层获取）
-            Number userIdNum = (Number)claims.get(JwtClaimsConstant.USER_ID);
-            Long userId = userIdNum.longValue();
-            Integer userRole = (Integer) claims.get(JwtClaimsConstant.ROLE);
+            Long userId = verified.getUserId();
+            Integer userRole = verified.getRole();
+
+            // 6. 校验令牌是否已被吊销（账号禁用等，内存查找，不访问数据库）
+            if (tokenRevocationRegistry.isRevoked(userId, verified.getIssuedAt())) {
+                log.warn("令牌已吊销：userId={}，请求路径：{}", userId, request.getRequestURI());
+                sendUnauthorizedResponse(response, MessageConstant.TOKEN_REVOKED);
+                return false;
+            }
             BaseContext.setUserId(userId);
             BaseContext.setUserRole(userRole);
 
@@ -83,6 +92,14 @@ public class JwtTokenInterceptor implements HandlerInterceptor {
         log.info("请求结束，清理ThreadLocal上下文");
     }
 
+    /**
+     * 异步请求（如长轮询）挂起时不会调用afterCompletion，在此清理当前线程的上下文
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        BaseContext.clear();
+    }
+
     /**
      * 发送401未授权响应（返回统一Result格式，便于前端统一处理）
      */
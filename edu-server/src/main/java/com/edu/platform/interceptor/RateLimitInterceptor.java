@@ -0,0 +1,110 @@
+package com.edu.platform.interceptor;
+
+import com.edu.platform.constant.MessageConstant;
+import com.edu.platform.context.BaseContext;
+import com.edu.platform.properties.RateLimitProperties;
+import com.edu.platform.security.TokenBucketLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 接口限流拦截器（令牌桶，在业务代码之前拒绝超限请求）
+ * 作用：1. 登录、注册按客户端IP限流（登录另按账号限流，见 LoginAccountLimiter）；2. 下单按当前用户ID限流（需在JWT拦截器之后执行）；3. 超限直接返回429
+ */
+@Component
+@Slf4j
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    public static final String LOGIN_PATH = "/api/user/login";
+    public static final String REGISTER_PATH = "/api/user/register";
+    public static final String ORDER_PATH = "/api/pay/order";
+
+    private final TokenBucketLimiter loginLimiter;
+    private final TokenBucketLimiter registerLimiter;
+    private final TokenBucketLimiter orderLimiter;
+    private final Set<String> trustedProxies;
+
+    @Autowired
+    public RateLimitInterceptor(RateLimitProperties properties) {
+        this.loginLimiter = create(properties.getLogin(), properties.getIdleExpireMillis());
+        this.registerLimiter = create(properties.getRegister(), properties.getIdleExpireMillis());
+        this.orderLimiter = create(properties.getOrder(), properties.getIdleExpireMillis());
+        this.trustedProxies = new HashSet<>(properties.getTrustedProxies());
+    }
+
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        // 1. 按请求路径选择限流器和限流维度
+        String path = request.getServletPath();
+        TokenBucketLimiter limiter;
+        String key;
+        if (LOGIN_PATH.equals(path)) {
+            limiter = loginLimiter;
+            key = clientIp(request);
+        } else if (REGISTER_PATH.equals(path)) {
+            limiter = registerLimiter;
+            key = clientIp(request);
+        } else if (ORDER_PATH.equals(path)) {
+            limiter = orderLimiter;
+            Long userId = BaseContext.getUserId();
+            key = userId != null ? "user:" + userId : clientIp(request);
+        } else {
+            return true;
+        }
+
+        // 2. 获取令牌，失败直接返回429
+        long retryAfterMillis = limiter.tryAcquire(key);
+        if (retryAfterMillis == 0) {
+            return true;
+        }
+        log.warn("请求被限流：path={}，key={}，建议{}ms后重试", path, key, retryAfterMillis);
+        sendTooManyRequestsResponse(response, retryAfterMillis);
+        return false;
+    }
+
+    /**
+     * 获取客户端IP
+     * 只有直连地址是可信代理时才读取X-Forwarded-For，并从右往左跳过可信代理，取第一个不可信地址；
+     * 否则该请求头可由客户端任意伪造，直接使用连接的对端地址
+     */
+    private String clientIp(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        String forwarded = request.getHeader("X-Forwarded-For");
+        if (forwarded == null || forwarded.isEmpty() || !trustedProxies.contains(remoteAddr)) {
+            return "ip:" + remoteAddr;
+        }
+        String[] hops = forwarded.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (!hop.isEmpty() && !trustedProxies.contains(hop)) {
+                return "ip:" + hop;
+            }
+        }
+        return "ip:" + remoteAddr;
+    }
+
+    /**
+     * 发送429响应（返回统一Result格式）
+     */
+    private void sendTooManyRequestsResponse(HttpServletResponse response, long retryAfterMillis) throws IOException {
+        response.setStatus(429);
+        response.setHeader("Retry-After", String.valueOf((retryAfterMillis + 999) / 1000));
+        response.setContentType("application/json;charset=UTF-8");
+        PrintWriter writer = response.getWriter();
+        writer.write("{\"code\":429,\"msg\":\"" + MessageConstant.TOO_MANY_REQUESTS + "\",\"data\":null}");
+        writer.flush();
+        writer.close();
+    }
+
+    private static TokenBucketLimiter create(RateLimitProperties.Rule rule, long idleExpireMillis) {
+        return new TokenBucketLimiter(rule.getCapacity(), rule.getRefillPerSecond(), idleExpireMillis);
+    }
+}
@@ -21,8 +21,26 @@ public interface CategoryMapper {
      */
     @Insert("insert into edu_category (name, parent_id, sort ) " +
             "values (#{name}, #{parentId}, #{sort} )")
+    @Options(useGeneratedKeys = true, keyProperty = "id")
     void insert(Category  category);
 
+    /**
+     * 设置分类路径（新增分类拿到ID后调用）
+     * @param id 分类ID
+     * @param path 分类路径
+     */
+    @Update("update edu_category set path = #{path} where id = #{id}")
+    void updatePath(@Param("id") Long id, @Param("path") String path);
+
+    /**
+     * 批量改写子树路径（移动分类时一条语句更新自身及所有后代）
+     * @param oldPrefix 原路径前缀
+     * @param newPrefix 新路径前缀
+     */
+    @Update("update edu_category set path = concat(#{newPrefix}, substring(path, char_length(#{oldPrefix}) + 1)) " +
+            "where path like concat(#{oldPrefix}, '%')")
+    int updateSubtreePath(@Param("oldPrefix") String oldPrefix, @Param("newPrefix") String newPrefix);
+
     /**
      * 根据名称和父ID查询分类（校验同级分类名称唯一性）
      * @param name 分类名称
@@ -44,6 +62,7 @@ public interface CategoryMapper {
      */
     @Update("update edu_category set " +
             "name = #{name}, " +
+            "parent_id = #{parentId}, " +
             "sort = #{sort} " +
             "where id = #{id}")
     void update(Category category);
@@ -68,4 +87,10 @@ public interface CategoryMapper {
      */
     @Select("select id, name, parent_id as parentId, sort from edu_category where parent_id = #{parentId} order by sort asc")
     List<Category> selectByParentId(Long parentId);
+
+    /**
+     * 查询全部分类（用于一次性构建分类树）
+     */
+    @Select("select id, name, parent_id as parentId, sort from edu_category order by parent_id asc, sort asc, id asc")
+    List<Category> selectAll();
 }
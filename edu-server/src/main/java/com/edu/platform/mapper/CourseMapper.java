@@ -4,9 +4,12 @@ import com.edu.platform.dto.CoursePageQueryDTO;
 import com.edu.platform.entity.Chapter;
 import com.edu.platform.entity.Course;
 import com.edu.platform.entity.Video;
+import com.edu.platform.entity.VideoCourse;
+import com.edu.platform.result.PageCursor;
 import com.github.pagehelper.Page;
 import org.apache.ibatis.annotations.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Mapper
@@ -16,10 +19,11 @@ public interface CourseMapper {
      * 新增课程
      */
     @Insert("insert into edu_course (" +
-            "title, cover, category_id, teacher_id, price, description, status, create_time, update_time,start_time,end_time" +
+            "title, cover, category_id, teacher_id, price, description, status, create_time, update_time,start_time,end_time,capacity" +
             ") values (" +
-            "#{title}, #{cover}, #{categoryId}, #{teacherId}, #{price}, #{description}, #{status}, #{createTime}, #{updateTime},#{startTime},#{endTime}" +
+            "#{title}, #{cover}, #{categoryId}, #{teacherId}, #{price}, #{description}, #{status}, #{createTime}, #{updateTime},#{startTime},#{endTime},#{capacity}" +
             ")")
+    @Options(useGeneratedKeys = true, keyProperty = "id")
     void insert(Course course);
 
     /**
@@ -39,7 +43,7 @@ public interface CourseMapper {
     Course selectById(Long id);
 
     /**
-     * 更新课程信息
+     * 更新课程信息（capacity 为null时保持原名额上限，取消上限见 clearCapacity）
      * @param course
      */
     @Update("update edu_course set " +
@@ -50,10 +54,19 @@ public interface CourseMapper {
             "status = #{status}, " +
             "start_time = #{startTime}, " +
             "update_time = #{updateTime}, " +
+            "capacity = coalesce(#{capacity}, capacity), " +
             "end_time= #{endTime} "+
             "where id = #{id}")
     void updateCourse(Course course);
 
+    /**
+     * 取消课程名额上限（改为不限）
+     * @param id 课程ID
+     * @param updateTime 更新时间
+     */
+    @Update("update edu_course set capacity = null, update_time = #{updateTime} where id = #{id}")
+    void clearCapacity(@Param("id") Long id, @Param("updateTime") LocalDateTime updateTime);
+
     /**
      * 根据ID删除课程
      * @param id
@@ -92,12 +105,27 @@ public interface CourseMapper {
     @Select("select id, course_id as courseId, title, sort from edu_chapter where course_id = #{courseId} order by sort")
     List<Chapter> selectChaptersByCourseId(Long courseId);
 
+    /**
+     * 批量查询多个章节下的课时（按章节、sort排序，用于一次性组装课程大纲）
+     * @param chapterIds 章节ID列表（不能为空）
+     * @return 课时列表
+     */
+    List<Video> selectByChapterIds(@Param("chapterIds") List<Long> chapterIds);
+
     /**
      * 分页查询课程
      * @param coursePageQueryDTO
      */
     Page<Course> pageQuery(CoursePageQueryDTO coursePageQueryDTO);
 
+    /**
+     * 游标分页查询课程（按 update_time desc, id desc，不统计总数）
+     * @param query 查询条件
+     * @param cursor 上一页最后一条的位置（首页为null）
+     * @param limit 查询条数
+     */
+    List<Course> scrollQuery(@Param("query") CoursePageQueryDTO query, @Param("cursor") PageCursor cursor, @Param("limit") int limit);
+
     /**
      * 新增章节
      * @param chapter
@@ -141,6 +169,7 @@ public interface CourseMapper {
             ") values (" +
             "#{chapterId}, #{title}, #{videoUrl}, #{duration}, #{sort}, #{isFree}, #{createTime}, #{updateTime}" +
             ")")
+    @Options(useGeneratedKeys = true, keyProperty = "id")
     void insertVideo(Video video);
 
     /**
@@ -150,6 +179,20 @@ public interface CourseMapper {
     @Select("select * from edu_video where id = #{id}")
     Video selectVideoById(Long id);
 
+    /**
+     * 删除课时
+     * @param id 课时ID
+     */
+    @Delete("delete from edu_video where id = #{id}")
+    void deleteVideo(Long id);
+
+    /**
+     * 查询全部课时及所属课程（构建完成度统计使用）
+     * @return 课时ID、课程ID、时长
+     */
+    @Select("select v.id, c.course_id, v.duration from edu_video v join edu_chapter c on c.id = v.chapter_id")
+    List<VideoCourse> selectAllVideoCourses();
+
     /**
      * 根据章节ID查询课时数量（用于判断章节是否有课时）
      */
@@ -157,13 +200,14 @@ public interface CourseMapper {
     int countVideosByChapterId(Long chapterId);
 
     /**
-     * 更新课时信息
+     * 更新课时信息（duration 为null时保持不变）
      * @param video
      */
     @Update("update edu_video set " +
             "title = #{title}, " +
             "video_url = #{videoUrl}, " +
             "is_free = #{isFree}, " +
+            "duration = coalesce(#{duration}, duration), " +
             "update_time = #{updateTime} " +
             "where id = #{id}")
     void updateVideo(Video video);
@@ -179,6 +223,45 @@ public interface CourseMapper {
      * 查询所有已发布课程
      * @return
      */
-    @Select("select id, title, cover, teacher_id , price, description , start_time ,update_time from edu_course where status = 1")
+    @Select("select id, title, cover, category_id, teacher_id , price, description , status, start_time ,end_time ,update_time from edu_course where status = 1")
     List<Course> selectPublishedCourses();
-}
\ No newline at end of file
+
+    /**
+     * 查询构建检索索引所需的课程字段（启动时全量加载）
+     * @return
+     */
+    @Select("select id, title, description, category_id, status from edu_course")
+    List<Course> selectAllForIndex();
+
+    /**
+     * 根据ID批量查询课程
+     * @param ids 课程ID列表
+     * @return
+     */
+    List<Course> selectByIds(@Param("ids") List<Long> ids);
+
+    /**
+     * 查询课程名额上限（名额台账首次加载时使用）
+     * @param id 课程ID
+     * @return 仅包含id、capacity的课程
+     */
+    @Select("select id, capacity from edu_course where id = #{id}")
+    Course selectCapacityById(Long id);
+
+    /**
+     * 统计课程有效选课数
+     * @param courseId 课程ID
+     * @return 有效选课数
+     */
+    @Select("select count(*) from edu_enroll where course_id = #{courseId} and status = 1")
+    int countActiveEnrollByCourseId(Long courseId);
+
+    /**
+     * 按有效选课记录校准课程已选人数
+     * @param courseId 课程ID
+     */
+    @Update("update edu_course set enrolled_count = " +
+            "(select count(*) from edu_enroll where course_id = #{courseId} and status = 1) " +
+            "where id = #{courseId}")
+    void reconcileEnrolledCount(Long courseId);
+}
@@ -0,0 +1,37 @@
+package com.edu.platform.mapper;
+
+import com.edu.platform.entity.CourseCompletion;
+import com.edu.platform.entity.LearnRecord;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+@Mapper
+public interface LearnRecordMapper {
+
+    /**
+     * 查询学生某课时的学习进度
+     * @param studentId 学生ID（edu_student.id）
+     * @param videoId 课时ID
+     * @return 进度（秒），无记录时为null
+     */
+    @Select("select progress from edu_learn_record where student_id = #{studentId} and video_id = #{videoId}")
+    Integer selectProgress(@Param("studentId") Long studentId, @Param("videoId") Long videoId);
+
+    /**
+     * 批量写入学习进度（已存在时只保留较大的进度）
+     * @param records 学习记录
+     * @return 影响行数
+     */
+    int batchUpsert(@Param("records") List<LearnRecord> records);
+
+    /**
+     * 按学生+课程统计已看完的课时数（进度达到时长的 watchedRatio 即看完）
+     * @param watchedRatio 看完比例
+     * @param courseId 课程ID（为空时统计全部课程）
+     * @return 统计结果（没有看完任何课时的学生+课程不返回）
+     */
+    List<CourseCompletion> selectCompletionCounts(@Param("watchedRatio") double watchedRatio, @Param("courseId") Long courseId);
+}
@@ -0,0 +1,67 @@
+package com.edu.platform.mapper;
+
+import com.edu.platform.entity.LearningStat;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Mapper
+public interface LearningStatMapper {
+
+    /**
+     * 批量写入统计汇总（同一时间桶+指标+维度已存在时覆盖）
+     * @param stats 汇总行
+     * @return 影响行数
+     */
+    int batchUpsert(@Param("stats") List<LearningStat> stats);
+
+    /**
+     * 查询指定粒度、指定时间起的全部汇总行
+     * @param granularity 粒度（HOUR/DAY）
+     * @param since 起始时间（含）
+     * @return 汇总行（按时间桶升序）
+     */
+    @Select("select granularity, bucket_time, metric, dim_id, stat_value from edu_learning_stat " +
+            "where granularity = #{granularity} and bucket_time >= #{since} order by bucket_time")
+    List<LearningStat> selectSince(@Param("granularity") String granularity, @Param("since") LocalDateTime since);
+
+    /**
+     * 查询指定时间后有学习进度上报的学生ID（重启后恢复当天/当前小时的活跃学生）
+     * @param since 起始时间（含）
+     * @return 学生ID列表
+     */
+    @Select("select distinct student_id from edu_learn_record where update_time >= #{since}")
+    List<Long> selectActiveStudentIdsSince(LocalDateTime since);
+
+    /**
+     * 删除时间范围内的日统计（回填前清理）
+     * @param since 起始时间（含）
+     * @param until 截止时间（不含）
+     */
+    @Delete("delete from edu_learning_stat where granularity = 'DAY' and bucket_time >= #{since} and bucket_time < #{until}")
+    void deleteDailyBetween(@Param("since") LocalDateTime since, @Param("until") LocalDateTime until);
+
+    /**
+     * 由选课记录回填每日各分类选课数
+     */
+    int backfillDailyEnrollments(@Param("since") LocalDateTime since, @Param("until") LocalDateTime until);
+
+    /**
+     * 由学习记录回填每日活跃学习人数（按最后上报日期统计）
+     */
+    int backfillDailyLearners(@Param("since") LocalDateTime since, @Param("until") LocalDateTime until);
+
+    /**
+     * 由学习记录回填每日各课程观看时长（按最后上报日期计入全部进度）
+     */
+    int backfillDailyCourseWatch(@Param("since") LocalDateTime since, @Param("until") LocalDateTime until);
+
+    /**
+     * 由学习记录回填每日各教师课程观看时长
+     */
+    int backfillDailyTeacherWatch(@Param("since") LocalDateTime since, @Param("until") LocalDateTime until);
+}
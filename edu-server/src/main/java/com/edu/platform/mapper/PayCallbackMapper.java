@@ -0,0 +1,65 @@
+package com.edu.platform.mapper;
+
+import com.edu.platform.entity.PayCallback;
+import org.apache.ibatis.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Mapper
+public interface PayCallbackMapper {
+
+    /**
+     * 写入回调收件箱（trade_no 唯一，重复回调抛出 DuplicateKeyException）
+     */
+    @Insert("insert into edu_pay_callback (" +
+            "order_no, trade_no, pay_platform, total_fee, callback_content, status, create_time" +
+            ") values (" +
+            "#{orderNo}, #{tradeNo}, #{payPlatform}, #{totalFee}, #{callbackContent}, 0, #{createTime}" +
+            ")")
+    @Options(useGeneratedKeys = true, keyProperty = "id")
+    void insert(PayCallback callback);
+
+    /**
+     * 查询待处理回调ID（启动、队列溢出或失败重试到期后补偿加载）
+     * @param now 当前时间，处理失败且未到重试时间的回调不加载
+     * @param limit 最多条数
+     * @return 回调ID（升序）
+     */
+    @Select("select id from edu_pay_callback where status = 0 " +
+            "and (next_retry_time is null or next_retry_time <= #{now}) order by id limit #{limit}")
+    List<Long> selectPendingIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * 查询最早的重试时间
+     * @return 处理失败待重试的回调中最早的重试时间（没有时为null）
+     */
+    @Select("select min(next_retry_time) from edu_pay_callback where status = 0 and next_retry_time is not null")
+    LocalDateTime selectNextRetryTime();
+
+    /**
+     * 批量查询并锁定待处理回调
+     * @param ids 回调ID列表（不能为空）
+     * @return 仍为待处理状态的回调（按ID升序）
+     */
+    List<PayCallback> selectPendingByIdsForUpdate(@Param("ids") List<Long> ids);
+
+    /**
+     * 批量更新处理状态
+     * @param ids 回调ID列表（不能为空）
+     * @param status 处理状态
+     * @param processTime 处理时间
+     */
+    void batchUpdateStatus(@Param("ids") List<Long> ids, @Param("status") int status,
+                           @Param("processTime") LocalDateTime processTime);
+
+    /**
+     * 记录一次处理失败：回调保持待处理，失败次数加一，重试时间按失败次数指数退避
+     * @param id 回调ID
+     * @param processTime 失败时间
+     * @param baseMillis 首次重试等待时间（毫秒）
+     * @param maxMillis 重试等待时间上限（毫秒）
+     */
+    void markRetry(@Param("id") Long id, @Param("processTime") LocalDateTime processTime,
+                   @Param("baseMillis") long baseMillis, @Param("maxMillis") long maxMillis);
+}
@@ -3,8 +3,11 @@ package com.edu.platform.mapper;
 import com.edu.platform.entity.EduPayLog;
 import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
+import java.util.List;
+
 @Mapper
 public interface PayLogMapper {
 
@@ -23,4 +26,11 @@ public interface PayLogMapper {
      */
     @Select("select * from edu_pay_log where order_no = #{orderNo}")
     EduPayLog selectByOrderNo(String orderNo);
-}
\ No newline at end of file
+
+    /**
+     * 批量新增支付日志
+     * @param logs 支付日志
+     * @return 影响行数
+     */
+    int batchInsert(@Param("logs") List<EduPayLog> logs);
+}
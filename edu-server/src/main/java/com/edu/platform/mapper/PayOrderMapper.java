@@ -2,8 +2,13 @@ package com.edu.platform.mapper;
 
 import com.edu.platform.dto.OrderQueryDTO;
 import com.edu.platform.entity.EduPayOrder;
+import com.edu.platform.result.PageCursor;
 import com.github.pagehelper.Page;
 import org.apache.ibatis.annotations.*;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Mapper
 public interface PayOrderMapper {
@@ -45,4 +50,41 @@ public interface PayOrderMapper {
      * 分页查询用户订单
      */
     Page<EduPayOrder> pageQueryByUser(@Param("userId") Long userId, @Param("queryDTO") OrderQueryDTO queryDTO);
-}
\ No newline at end of file
+
+    /**
+     * 游标分页查询用户订单（按 create_time desc, id desc，不统计总数）
+     */
+    List<EduPayOrder> scrollQueryByUser(@Param("userId") Long userId, @Param("queryDTO") OrderQueryDTO queryDTO,
+                                        @Param("cursor") PageCursor cursor, @Param("limit") int limit);
+
+    /**
+     * 批量查询并锁定待支付订单（结算事务内使用）
+     * @param orderNos 订单编号列表（不能为空）
+     * @return 仍为待支付状态的订单
+     */
+    List<EduPayOrder> selectUnpaidByOrderNosForUpdate(@Param("orderNos") List<String> orderNos);
+
+    /**
+     * 批量把待支付订单置为已支付（只更新 status = 0 的订单）
+     * @param orderNos 订单编号列表（不能为空）
+     * @param payTime 支付时间
+     * @return 影响行数
+     */
+    int batchMarkPaid(@Param("orderNos") List<String> orderNos, @Param("payTime") LocalDateTime payTime);
+
+    /**
+     * 批量关闭超时订单（只更新 status = 0 的订单）
+     * @param orderNos 订单编号列表（不能为空）
+     * @param updateTime 更新时间
+     * @return 影响行数
+     */
+    int batchCloseUnpaid(@Param("orderNos") List<String> orderNos, @Param("updateTime") LocalDateTime updateTime);
+
+    /**
+     * 逐行读取全部待支付订单（仅订单编号、创建时间），启动时加载到超时时间轮
+     * @param handler 逐行回调
+     */
+    @Select("select order_no, create_time from edu_pay_order where status = 0")
+    @Options(fetchSize = 1000)
+    void scanUnpaidOrders(ResultHandler<EduPayOrder> handler);
+}
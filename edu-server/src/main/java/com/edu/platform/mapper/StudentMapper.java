@@ -1,12 +1,17 @@
 package com.edu.platform.mapper;
 
+import com.edu.platform.batch.EnrollBatchWriter;
 import com.edu.platform.entity.Course;
 import com.edu.platform.entity.Enroll;
 import com.edu.platform.entity.Student;
+import com.edu.platform.result.PageCursor;
+import com.edu.platform.vo.SelectedCourseVO;
 import com.github.pagehelper.Page;
 import org.apache.ibatis.annotations.*;
+import org.apache.ibatis.session.ResultHandler;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Mapper
 public interface StudentMapper {
@@ -51,6 +56,13 @@ public interface StudentMapper {
     @Insert("insert into edu_enroll (student_id,course_id,enroll_time) values (#{studentId},#{courseId},#{enrollTime})")
     int select( Long studentId, Long courseId, LocalDateTime enrollTime);
 
+    /**
+     * 批量选课（多行INSERT，任一行唯一键冲突时整条语句失败）
+     * @param enrolls 选课请求列表
+     * @return 插入行数
+     */
+    int batchInsertEnroll(@Param("enrolls") List<EnrollBatchWriter.EnrollRequest> enrolls);
+
     /**
      * 根据学生ID和课程ID查询选课记录（用于退课前校验）
      * @param studentId 学生ID
@@ -75,5 +87,20 @@ public interface StudentMapper {
      */
     Page<Course> selectSelectedCourses(@Param("studentId") Long studentId);
 
+    /**
+     * 游标分页查询学生已选课程（按 enroll_time desc, course_id desc，不统计总数）
+     * @param studentId 学生ID
+     * @param cursor 上一页最后一条的位置（首页为null），id 为课程ID
+     * @param limit 查询条数
+     * @return 已选课程列表
+     */
+    List<SelectedCourseVO> scrollSelectedCourses(@Param("studentId") Long studentId, @Param("cursor") PageCursor cursor, @Param("limit") int limit);
 
+    /**
+     * 逐行读取全部有效选课记录（仅学生ID、课程ID），用于构建选课索引
+     * @param handler 逐行回调
+     */
+    @Select("select student_id, course_id from edu_enroll where status = 1")
+    @Options(fetchSize = 1000)
+    void scanActiveEnrolls(ResultHandler<Enroll> handler);
 }
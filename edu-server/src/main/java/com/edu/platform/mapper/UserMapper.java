@@ -3,9 +3,12 @@ package com.edu.platform.mapper;
 import com.github.pagehelper.Page;
 import com.edu.platform.dto.UserPageQueryDTO;
 import com.edu.platform.entity.User;
+import com.edu.platform.entity.UserProfile;
+import com.edu.platform.result.PageCursor;
 import org.apache.ibatis.annotations.*;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 用户Mapper接口（遵循EmployeeMapper风格：注解+XML混合、PageHelper分页）
@@ -47,6 +50,15 @@ public interface UserMapper {
      */
     Page<User> pageQuery(UserPageQueryDTO userPageQueryDTO);
 
+    /**
+     * 游标分页查询（按 update_time desc, id desc，不统计总数）
+     * @param query 查询条件（用户名模糊搜、角色、状态）
+     * @param cursor 上一页最后一条的位置（首页为null）
+     * @param limit 查询条数
+     * @return 用户列表
+     */
+    List<User> scrollQuery(@Param("query") UserPageQueryDTO query, @Param("cursor") PageCursor cursor, @Param("limit") int limit);
+
     /**
      * 根据主键动态修改用户属性（更新昵称、头像、手机号等）
      * @param user 用户实体（携带id和要修改的字段）
@@ -69,15 +81,26 @@ public interface UserMapper {
     @Update("update edu_user set password = #{newPassword}, update_time = #{updateTime} where id = #{id}")
     void updatePassword(Long id, String newPassword, LocalDateTime updateTime);
 
+    /**
+     * 升级密码哈希格式（登录时透明升级，不修改update_time；仅当哈希未被并发修改时生效）
+     * @param id 用户ID
+     * @param oldPassword 原哈希
+     * @param newPassword 新哈希
+     */
+    @Update("update edu_user set password = #{newPassword} where id = #{id} and password = #{oldPassword}")
+    int upgradePassword(Long id, String oldPassword, String newPassword);
+
     /**
      * 更新用户状态（启用/禁用用）
      * @param id 用户ID
      * @param status 状态（0-禁用，1-启用）
      * @param updateTime 更新时间
      * @param updateUser 更新人ID
+     * @param tokensValidAfter 令牌生效起点（签发时间早于该时间的令牌无效）
      */
-    @Update("update edu_user set status = #{status}, update_time = #{updateTime}, update_user = #{updateUser} where id = #{id}")
-    void updateStatus(Long id, Integer status, LocalDateTime updateTime, String updateUser);
+    @Update("update edu_user set status = #{status}, update_time = #{updateTime}, update_user = #{updateUser}, " +
+            "tokens_valid_after = #{tokensValidAfter} where id = #{id}")
+    void updateStatus(Long id, Integer status, LocalDateTime updateTime, String updateUser, LocalDateTime tokensValidAfter);
 
     /**
      * 将学生信息导入edu_student表
@@ -92,4 +115,21 @@ public interface UserMapper {
      */
     @Insert("insert into edu_teacher (user_id, real_name) values (#{userId},#{realName})")
     void insertTeacher( Long userId,  String realName);
-}
\ No newline at end of file
+
+    /**
+     * 查询用户档案（用户表关联学生表、教师表，一次查询）
+     * @param id 用户ID
+     * @return 用户档案
+     */
+    UserProfile selectProfileById(Long id);
+
+    /**
+     * 查询令牌吊销记录（启动时加载）：禁用账号，以及令牌生效起点仍在令牌有效期内的账号
+     * @param disabledStatus 禁用状态值
+     * @param since 令牌生效起点下限（当前时间 - 令牌有效期）
+     * @return 用户（仅ID、状态、令牌生效起点）
+     */
+    @Select("select id, status, tokens_valid_after from edu_user " +
+            "where status = #{disabledStatus} or tokens_valid_after > #{since}")
+    List<User> selectTokenCutoffs(Integer disabledStatus, LocalDateTime since);
+}
@@ -0,0 +1,147 @@
+package com.edu.platform.pay;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 分层时间轮（非线程安全方法均由 synchronized 保护）
+ * 说明：
+ * 1. 第0层每格 tickMillis，共 wheelSize 格；第 i 层每格为第 i-1 层一整圈，按需向上扩展层数；
+ * 2. 添加任务时放入能容纳其到期时间的最低一层，O(1)；
+ * 3. advance 每走过一个 tick：先把高层中到期的格子降级重新放入低层，再取出第0层当前格的全部任务；
+ * 4. 任务在到期时间所在 tick 结束时触发，最多晚 tickMillis，不会提前。
+ * @param <T> 任务类型
+ */
+public final class HierarchicalTimingWheel<T> {
+
+    private static final int MAX_LEVELS = 8;
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final List<Level<T>> levels = new ArrayList<>();
+    private long currentTime; // 当前尚未触发的 tick 起点（tickMillis 的整数倍）
+    private int size;
+
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.currentTime = startMillis - startMillis % tickMillis;
+        levels.add(new Level<>(tickMillis, wheelSize));
+    }
+
+    /**
+     * 添加任务
+     * @param deadline 到期时间（毫秒时间戳）
+     * @param task 任务
+     * @return 是否已放入时间轮；已经到期（早于当前 tick）时返回false，由调用方立即处理
+     */
+    public synchronized boolean add(long deadline, T task) {
+        if (deadline < currentTime) {
+            return false;
+        }
+        place(new Entry<>(deadline, task));
+        size++;
+        return true;
+    }
+
+    /**
+     * 推进到指定时间，返回期间到期的任务
+     * @param now 当前时间（毫秒时间戳）
+     * @return 到期任务
+     */
+    public synchronized List<T> advance(long now) {
+        List<T> expired = new ArrayList<>();
+        while (currentTime + tickMillis <= now) {
+            // 1. 第0层当前格内的任务到期时间都在 [currentTime, currentTime + tick) 内
+            for (Entry<T> entry : levels.get(0).take(currentTime)) {
+                expired.add(entry.task);
+            }
+            currentTime += tickMillis;
+            // 2. 高层格子起点到达时降级（从高到低，保证逐层下沉）
+            for (int i = levels.size() - 1; i >= 1; i--) {
+                Level<T> level = levels.get(i);
+                if (currentTime % level.tickMillis == 0) {
+                    for (Entry<T> entry : level.take(currentTime)) {
+                        place(entry);
+                    }
+                }
+            }
+        }
+        size -= expired.size();
+        return expired;
+    }
+
+    /**
+     * 时间轮中的任务数
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * 放入能容纳到期时间的最低一层
+     */
+    private void place(Entry<T> entry) {
+        for (int i = 0; ; i++) {
+            if (i == levels.size()) {
+                if (i == MAX_LEVELS) {
+                    throw new IllegalArgumentException("到期时间超出时间轮范围：" + entry.deadline);
+                }
+                Level<T> lower = levels.get(i - 1);
+                levels.add(new Level<>(lower.tickMillis * wheelSize, wheelSize));
+            }
+            Level<T> level = levels.get(i);
+            long levelStart = currentTime - currentTime % level.tickMillis;
+            if (entry.deadline < levelStart + level.tickMillis * wheelSize) {
+                level.put(entry);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 单层时间轮
+     */
+    private static final class Level<T> {
+        private final long tickMillis;
+        private final List<Entry<T>>[] buckets;
+
+        @SuppressWarnings("unchecked")
+        private Level(long tickMillis, int wheelSize) {
+            this.tickMillis = tickMillis;
+            this.buckets = new List[wheelSize];
+        }
+
+        private void put(Entry<T> entry) {
+            int index = index(entry.deadline);
+            if (buckets[index] == null) {
+                buckets[index] = new ArrayList<>();
+            }
+            buckets[index].add(entry);
+        }
+
+        private List<Entry<T>> take(long time) {
+            int index = index(time);
+            List<Entry<T>> bucket = buckets[index];
+            buckets[index] = null;
+            return bucket == null ? new ArrayList<>() : bucket;
+        }
+
+        private int index(long time) {
+            return (int) ((time / tickMillis) % buckets.length);
+        }
+    }
+
+    /**
+     * 任务及其到期时间
+     */
+    private static final class Entry<T> {
+        private final long deadline;
+        private final T task;
+
+        private Entry(long deadline, T task) {
+            this.deadline = deadline;
+            this.task = task;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.edu.platform.pay;
+
+import com.edu.platform.entity.EduPayOrder;
+import com.edu.platform.mapper.PayOrderMapper;
+import com.edu.platform.properties.PayProperties;
+import com.edu.platform.utils.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 未支付订单超时关闭调度器
+ * 说明：
+ * 1. 启动时逐行读取全部待支付订单，按 创建时间 + orderTimeoutMillis 放入分层时间轮，之后不再扫表；
+ * 2. 新订单在创建事务提交后登记；
+ * 3. 单个线程每个 tick 推进时间轮，把到期订单分批处理：一个事务内锁定本批仍为待支付的订单，再用一条条件UPDATE关闭（status 0 -> 3），
+ *    已支付/已取消的订单不会被锁定和关闭，自然跳过；
+ * 4. 关闭失败的订单留到下个 tick 重试；
+ * 5. 事务提交后按实际关闭的订单唤醒等待者（是否有等待者在提交后判断，等待者可能在事务进行中登记）。
+ */
+@Component
+@Slf4j
+public class OrderExpiryScheduler {
+
+    private static final int WHEEL_SIZE = 60;
+
+    @Autowired
+    private PayOrderMapper payOrderMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PayProperties payProperties;
+
+    @Autowired
+    private OrderStatusWaiters orderStatusWaiters;
+
+    private HierarchicalTimingWheel<String> wheel;
+    private final List<String> retry = new ArrayList<>(); // 只由调度线程访问
+    private Thread ticker;
+    private volatile boolean running = true;
+
+    @PostConstruct
+    public void start() {
+        wheel = new HierarchicalTimingWheel<>(payProperties.getExpiryTickMillis(), WHEEL_SIZE, System.currentTimeMillis());
+        List<String> overdue = new ArrayList<>();
+        payOrderMapper.scanUnpaidOrders(context -> {
+            EduPayOrder order = context.getResultObject();
+            if (!wheel.add(deadline(order.getCreateTime()), order.getOrderNo())) {
+                overdue.add(order.getOrderNo());
+            }
+        });
+        retry.addAll(overdue);
+        log.info("订单超时时间轮加载完成：待支付订单数={}，已超时待关闭数={}", wheel.size(), overdue.size());
+
+        ticker = new Thread(this::runLoop, "order-expiry");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        ticker.interrupt();
+        ticker.join(payProperties.getDrainTimeoutMillis());
+    }
+
+    /**
+     * 登记新订单（事务提交后生效）
+     * @param orderNo 订单编号
+     * @param createTime 订单创建时间
+     */
+    public void register(String orderNo, LocalDateTime createTime) {
+        long deadline = deadline(createTime);
+        TransactionUtils.afterCommit(() -> {
+            if (!wheel.add(deadline, orderNo)) {
+                // 极端情况下（超时时间配置小于一个tick）直接在下个tick关闭
+                wheel.add(System.currentTimeMillis(), orderNo);
+            }
+        });
+    }
+
+    private void runLoop() {
+        long tick = payProperties.getExpiryTickMillis();
+        while (running) {
+            try {
+                Thread.sleep(tick);
+            } catch (InterruptedException e) {
+                break;
+            }
+            List<String> expired = new ArrayList<>(retry);
+            retry.clear();
+            expired.addAll(wheel.advance(System.currentTimeMillis()));
+            if (!expired.isEmpty()) {
+                close(expired);
+            }
+        }
+        log.info("订单超时关闭线程已退出");
+    }
+
+    /**
+     * 分批关闭到期订单
+     */
+    private void close(List<String> expired) {
+        int maxBatchSize = payProperties.getMaxBatchSize();
+        for (int from = 0; from < expired.size(); from += maxBatchSize) {
+            List<String> batch = expired.subList(from, Math.min(from + maxBatchSize, expired.size()));
+            try {
+                Integer closed = transactionTemplate.execute(status -> closeInTransaction(batch));
+                log.info("超时订单关闭完成：到期数={}，关闭数={}", batch.size(), closed);
+            } catch (Exception e) {
+                retry.addAll(batch);
+                log.error("超时订单关闭失败，下个刻度重试：订单数={}", batch.size(), e);
+            }
+        }
+    }
+
+    /**
+     * 事务内：锁定本批仍为待支付的订单并关闭，提交后唤醒等待者
+     * @return 关闭数
+     */
+    private int closeInTransaction(List<String> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> unpaid = new ArrayList<>(batch.size());
+        payOrderMapper.selectUnpaidByOrderNosForUpdate(batch).forEach(order -> unpaid.add(order.getOrderNo()));
+        if (unpaid.isEmpty()) {
+            return 0;
+        }
+        int closed = payOrderMapper.batchCloseUnpaid(unpaid, now);
+        orderStatusWaiters.notifyAfterCommit(unpaid, 3, now);
+        return closed;
+    }
+
+    private long deadline(LocalDateTime createTime) {
+        return createTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() + payProperties.getOrderTimeoutMillis();
+    }
+}
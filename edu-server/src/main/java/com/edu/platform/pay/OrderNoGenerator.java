@@ -0,0 +1,98 @@
+package com.edu.platform.pay;
+
+import com.edu.platform.properties.PayProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 订单编号生成器（Snowflake 结构，无锁）
+ * 说明：
+ * 1. 64位ID = 41位毫秒时间戳（自 2025-01-01 起）+ 10位节点ID + 12位毫秒内序号，按时间递增；
+ * 2. 时间戳与序号合在一个 AtomicLong 中用 CAS 推进，不加锁、不依赖 SecureRandom；
+ * 3. 时钟回拨或同一毫秒序号用尽时沿用/借用上一个时间戳继续递增，保证单节点内不重复且单调；
+ * 4. 编号为 "ORDER_" + 13位定长36进制，字典序与生成顺序一致，订单号唯一索引按顺序追加写入。
+ */
+@Component
+@Slf4j
+public class OrderNoGenerator {
+
+    public static final String PREFIX = "ORDER_";
+
+    private static final long EPOCH = 1735689600000L; // 2025-01-01T00:00:00Z
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int ENCODED_LENGTH = 13; // Long.MAX_VALUE 的36进制长度
+    private static final long ROLLBACK_WARN_MILLIS = 1000;
+    private static final long WARN_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final long nodeId;
+    // 高位为上次使用的时间戳，低 SEQUENCE_BITS 位为该时间戳内的序号
+    private final AtomicLong state = new AtomicLong();
+    private final AtomicLong lastRollbackWarn = new AtomicLong(System.nanoTime() - WARN_INTERVAL_NANOS);
+
+    @Autowired
+    public OrderNoGenerator(PayProperties payProperties) {
+        this.nodeId = payProperties.getNodeId();
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalStateException("edu.pay.nodeId 必须在 0~" + MAX_NODE_ID + " 之间：" + nodeId);
+        }
+    }
+
+    /**
+     * 生成订单编号
+     * @return ORDER_ + 13位36进制
+     */
+    public String nextOrderNo() {
+        String encoded = Long.toString(nextId(), 36);
+        StringBuilder orderNo = new StringBuilder(PREFIX.length() + ENCODED_LENGTH).append(PREFIX);
+        for (int i = encoded.length(); i < ENCODED_LENGTH; i++) {
+            orderNo.append('0');
+        }
+        return orderNo.append(encoded).toString();
+    }
+
+    /**
+     * 生成64位ID
+     */
+    public long nextId() {
+        while (true) {
+            long now = System.currentTimeMillis() - EPOCH;
+            long prev = state.get();
+            long prevTimestamp = prev >>> SEQUENCE_BITS;
+            long next;
+            if (now > prevTimestamp) {
+                next = now << SEQUENCE_BITS;
+            } else if ((prev & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                // 同一毫秒或时钟回拨：沿用上次时间戳，序号加一
+                next = prev + 1;
+            } else {
+                // 序号用尽：借用下一毫秒
+                next = (prevTimestamp + 1) << SEQUENCE_BITS;
+            }
+            if (state.compareAndSet(prev, next)) {
+                if (now < prevTimestamp - ROLLBACK_WARN_MILLIS) {
+                    warnRollback(prevTimestamp - now);
+                }
+                long timestamp = next >>> SEQUENCE_BITS;
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    /**
+     * 时钟回拨告警（每10秒最多一次）
+     */
+    private void warnRollback(long rollbackMillis) {
+        long nanos = System.nanoTime();
+        long last = lastRollbackWarn.get();
+        if (nanos - last >= WARN_INTERVAL_NANOS && lastRollbackWarn.compareAndSet(last, nanos)) {
+            log.warn("检测到时钟回拨，订单编号沿用上次时间戳继续递增：回拨{}ms", rollbackMillis);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.edu.platform.pay;
+
+import com.edu.platform.entity.EduPayOrder;
+import com.edu.platform.properties.PayProperties;
+import com.edu.platform.result.Result;
+import com.edu.platform.utils.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 订单状态等待登记表（长轮询）
+ * 说明：
+ * 1. 查询订单状态的请求先登记等待者再查库，查库时订单已不是待支付则立即返回，否则挂起直到状态变化或超时；
+ * 2. 结算、回调、取消、超时关闭在事务提交后通知，按订单编号唤醒全部等待者，响应由等待者持有的订单快照生成，不再查库；
+ * 3. 先登记后查库，通知在提交后才检查等待者，保证状态变化要么被查库看到、要么被通知到，不会漏掉；
+ * 4. 等待数超过上限时不再挂起，直接返回当前状态。
+ */
+@Component
+@Slf4j
+public class OrderStatusWaiters {
+
+    @Autowired
+    private PayProperties payProperties;
+
+    private final Map<String, List<Waiter>> waiters = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * 登记一个等待者（随后须调用 {@link Waiter#arm} 提供查库得到的订单）
+     * @param orderNo 订单编号
+     * @return 等待者；等待数已达上限时返回null
+     */
+    public Waiter register(String orderNo) {
+        if (size.incrementAndGet() > payProperties.getMaxStatusWaiters()) {
+            size.decrementAndGet();
+            log.warn("订单状态等待数已达上限，直接返回当前状态：{}", orderNo);
+            return null;
+        }
+        DeferredResult<Result<EduPayOrder>> result = new DeferredResult<>(payProperties.getStatusWaitTimeoutMillis());
+        Waiter waiter = new Waiter(result);
+        waiters.computeIfAbsent(orderNo, k -> new CopyOnWriteArrayList<>()).add(waiter);
+        result.onTimeout(waiter::onTimeout);
+        result.onCompletion(() -> remove(orderNo, waiter));
+        return waiter;
+    }
+
+    /**
+     * 注销等待者（请求完成、超时或校验失败时）
+     */
+    public void remove(String orderNo, Waiter waiter) {
+        waiters.computeIfPresent(orderNo, (k, list) -> {
+            if (list.remove(waiter)) {
+                size.decrementAndGet();
+            }
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    /**
+     * 订单状态变化，唤醒等待者（当前事务提交后执行）
+     * @param orderNos 订单编号
+     * @param status 新状态：1-已支付，2-已取消，3-超时关闭
+     * @param changeTime 变化时间
+     */
+    public void notifyAfterCommit(Collection<String> orderNos, int status, LocalDateTime changeTime) {
+        if (orderNos.isEmpty()) {
+            return;
+        }
+        // “是否有等待者”须在提交后判断：提交前登记的等待者查库可能仍读到待支付，只能靠这次通知唤醒
+        TransactionUtils.afterCommit(() -> {
+            if (size.get() == 0) {
+                return;
+            }
+            for (String orderNo : orderNos) {
+                List<Waiter> list = waiters.get(orderNo);
+                if (list != null) {
+                    list.forEach(waiter -> waiter.onChanged(status, changeTime));
+                }
+            }
+        });
+    }
+
+    /**
+     * 单个等待请求
+     */
+    public static final class Waiter {
+
+        private final DeferredResult<Result<EduPayOrder>> result;
+        private EduPayOrder order;     // 查库得到的订单快照
+        private Integer changedStatus; // 快照就绪前收到的状态变化
+        private LocalDateTime changeTime;
+
+        private Waiter(DeferredResult<Result<EduPayOrder>> result) {
+            this.result = result;
+        }
+
+        public DeferredResult<Result<EduPayOrder>> getResult() {
+            return result;
+        }
+
+        /**
+         * 提供查库得到的订单；订单已不是待支付或期间已收到通知时立即返回
+         */
+        public synchronized void arm(EduPayOrder order) {
+            this.order = order;
+            if (changedStatus != null) {
+                apply(changedStatus, changeTime);
+            } else if (order.getStatus() != 0) {
+                result.setResult(Result.success(order));
+            }
+        }
+
+        private synchronized void onChanged(int status, LocalDateTime time) {
+            if (order == null) {
+                changedStatus = status;
+                changeTime = time;
+                return;
+            }
+            apply(status, time);
+        }
+
+        private synchronized void onTimeout() {
+            // 超时仍未变化，返回当前状态（待支付）
+            if (order != null) {
+                result.setResult(Result.success(order));
+            }
+        }
+
+        private void apply(int status, LocalDateTime time) {
+            if (order.getStatus() == 0) {
+                order.setStatus(status);
+                order.setUpdateTime(time);
+                if (status == 1) {
+                    order.setPayTime(time);
+                }
+            }
+            result.setResult(Result.success(order));
+        }
+    }
+}
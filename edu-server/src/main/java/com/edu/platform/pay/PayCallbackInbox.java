@@ -0,0 +1,301 @@
+package com.edu.platform.pay;
+
+import com.edu.platform.cache.WeightedLruCache;
+import com.edu.platform.entity.EduPayLog;
+import com.edu.platform.entity.EduPayOrder;
+import com.edu.platform.entity.PayCallback;
+import com.edu.platform.mapper.PayCallbackMapper;
+import com.edu.platform.mapper.PayLogMapper;
+import com.edu.platform.mapper.PayOrderMapper;
+import com.edu.platform.properties.PayProperties;
+import com.edu.platform.utils.BatchUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 支付回调收件箱
+ * 说明：
+ * 1. 回调请求在签名校验通过后只做去重和落库（edu_pay_callback）即返回，订单状态变更由后台线程异步完成；
+ * 2. 去重分两层：内存中最近的交易号直接判定为重复，未命中时由 trade_no 唯一键兜底；
+ * 3. 落库后的回调ID进入有界队列，由单个处理线程凑批：一个事务内锁定回调和仍为待支付的订单、批量置为已支付、批量写入支付日志并更新回调状态；
+ * 4. 队列满或服务重启时回调仍在库中，处理线程从数据库补偿加载待处理的回调；
+ *    处理失败的回调保持待处理，按失败次数指数退避（edu.pay.callbackRetryBaseMillis 起翻倍，不超过 callbackRetryMaxMillis），
+ *    到期后同样由补偿加载重新处理（网关重试投递时按重复回调应答，不依赖网关重投）；
+ * 5. 回调的支付平台、金额须与订单的支付方式、应付金额一致，否则忽略该回调、订单保持待支付；
+ * 6. 事务提交后唤醒等待这些订单状态的请求。
+ */
+@Component
+@Slf4j
+public class PayCallbackInbox {
+
+    public static final int STATUS_PROCESSED = 1;
+    public static final int STATUS_IGNORED = 2;
+
+    @Autowired
+    private PayCallbackMapper payCallbackMapper;
+
+    @Autowired
+    private PayOrderMapper payOrderMapper;
+
+    @Autowired
+    private PayLogMapper payLogMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PayProperties payProperties;
+
+    @Autowired
+    private OrderStatusWaiters orderStatusWaiters;
+
+    private WeightedLruCache<String, Boolean> recentTradeNos;
+    private BlockingQueue<Long> queue;
+    private Thread worker;
+    private volatile boolean running = true;
+    // 启动时需要加载上次未处理完的回调
+    private volatile boolean reloadNeeded = true;
+    // 最早的失败重试到期时间（毫秒时间戳，只由处理线程读写）
+    private long nextRetryMillis = Long.MAX_VALUE;
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong ignored = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong reloads = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        recentTradeNos = new WeightedLruCache<>(payProperties.getRecentTradeNoCapacity(), v -> 1);
+        queue = new ArrayBlockingQueue<>(payProperties.getCallbackQueueCapacity());
+        worker = new Thread(this::runLoop, "pay-callback-worker");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * 停止时处理完队列中剩余的回调（未处理的回调仍在库中，下次启动时加载）
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(payProperties.getDrainTimeoutMillis());
+        log.info("支付回调收件箱已停止：{}", stats());
+    }
+
+    /**
+     * 接收一条支付回调（落库即返回，不等待订单状态变更）
+     * @return true-新回调已接收，false-重复回调
+     */
+    public boolean accept(String orderNo, String tradeNo, Integer payPlatform, BigDecimal totalFee, String callbackContent) {
+        // 1. 内存去重：最近处理过的交易号直接应答
+        if (recentTradeNos.get(tradeNo) != null) {
+            duplicates.incrementAndGet();
+            return false;
+        }
+
+        // 2. 落库（trade_no 唯一键兜底去重）
+        PayCallback callback = new PayCallback();
+        callback.setOrderNo(orderNo);
+        callback.setTradeNo(tradeNo);
+        callback.setPayPlatform(payPlatform);
+        callback.setTotalFee(totalFee);
+        callback.setCallbackContent(callbackContent);
+        callback.setCreateTime(LocalDateTime.now());
+        try {
+            payCallbackMapper.insert(callback);
+        } catch (DuplicateKeyException e) {
+            recentTradeNos.put(tradeNo, Boolean.TRUE);
+            duplicates.incrementAndGet();
+            return false;
+        }
+        recentTradeNos.put(tradeNo, Boolean.TRUE);
+        received.incrementAndGet();
+
+        // 3. 通知处理线程；队列满时由处理线程从数据库补偿加载
+        if (!queue.offer(callback.getId())) {
+            reloadNeeded = true;
+            log.warn("支付回调待处理队列已满，改为从数据库加载：tradeNo={}", tradeNo);
+        }
+        return true;
+    }
+
+    /**
+     * 回调处理统计
+     */
+    public PayCallbackStats stats() {
+        return new PayCallbackStats(received.get(), duplicates.get(), processed.get(), ignored.get(),
+                failed.get(), batches.get(), reloads.get(), queue.size());
+    }
+
+    /**
+     * 处理线程主循环
+     */
+    private void runLoop() {
+        List<Long> batch = new ArrayList<>(payProperties.getMaxBatchSize());
+        while (running || !queue.isEmpty()) {
+            if (running && (reloadNeeded || System.currentTimeMillis() >= nextRetryMillis)) {
+                reloadPending();
+            }
+            try {
+                BatchUtils.collect(queue, batch, payProperties.getMaxBatchSize(), payProperties.getLingerMillis());
+            } catch (InterruptedException e) {
+                // 停止信号：继续把已收集和队列中剩余的回调处理完
+                queue.drainTo(batch, payProperties.getMaxBatchSize() - batch.size());
+            }
+            if (!batch.isEmpty()) {
+                process(batch);
+                batch.clear();
+            }
+        }
+        log.info("支付回调处理线程已退出");
+    }
+
+    /**
+     * 从数据库加载一批待处理（含重试到期）回调并处理；加载满一批且有进展时下轮继续加载，否则按最早的重试时间安排下次加载
+     */
+    private void reloadPending() {
+        reloadNeeded = false;
+        nextRetryMillis = Long.MAX_VALUE;
+        reloads.incrementAndGet();
+        int maxBatchSize = payProperties.getMaxBatchSize();
+        try {
+            List<Long> ids = payCallbackMapper.selectPendingIds(LocalDateTime.now(), maxBatchSize);
+            if (!ids.isEmpty() && process(ids) > 0 && ids.size() >= maxBatchSize) {
+                reloadNeeded = true;
+                return;
+            }
+            LocalDateTime nextRetryTime = payCallbackMapper.selectNextRetryTime();
+            if (nextRetryTime != null) {
+                nextRetryMillis = Math.min(nextRetryMillis, nextRetryTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            }
+        } catch (Exception e) {
+            reloadNeeded = true;
+            log.error("加载待处理支付回调失败", e);
+        }
+    }
+
+    /**
+     * 处理一批回调；整批失败时逐条重试，逐条仍失败的保持待处理并安排退避重试
+     * @return 状态发生变化的回调数
+     */
+    private int process(List<Long> batch) {
+        List<Long> ids = new ArrayList<>(new TreeSet<>(batch));
+        int[] changed = new int[1];
+        BatchUtils.executeOrSplit(ids,
+                all -> {
+                    int[] result = processAndCount(all);
+                    changed[0] += result[0] + result[1];
+                    log.info("支付回调批量处理完成：回调数={}，成功={}，忽略={}", all.size(), result[0], result[1]);
+                },
+                e -> log.error("支付回调批量处理失败，改为逐条处理：回调数={}", ids.size(), e),
+                id -> {
+                    int[] result = processAndCount(Collections.singletonList(id));
+                    changed[0] += result[0] + result[1];
+                },
+                (id, e) -> {
+                    log.error("支付回调处理失败，稍后重试，回调ID: {}", id, e);
+                    failed.incrementAndGet();
+                    // 最早的重试不早于首次退避时间，加载时再按数据库中的重试时间校准
+                    nextRetryMillis = Math.min(nextRetryMillis,
+                            System.currentTimeMillis() + payProperties.getCallbackRetryBaseMillis());
+                    try {
+                        payCallbackMapper.markRetry(id, LocalDateTime.now(),
+                                payProperties.getCallbackRetryBaseMillis(), payProperties.getCallbackRetryMaxMillis());
+                        changed[0]++;
+                    } catch (Exception ex) {
+                        log.error("记录支付回调处理失败出错，回调ID: {}", id, ex);
+                    }
+                });
+        return changed[0];
+    }
+
+    /**
+     * 在一个事务内处理回调并累计统计
+     * @return [处理成功数, 忽略数]
+     */
+    private int[] processAndCount(List<Long> ids) {
+        int[] result = transactionTemplate.execute(status -> processInTransaction(ids));
+        batches.incrementAndGet();
+        processed.addAndGet(result[0]);
+        ignored.addAndGet(result[1]);
+        return result;
+    }
+
+    /**
+     * 事务内：锁定待处理回调和对应的待支付订单，置为已支付、记录支付日志并更新回调状态
+     * @return [处理成功数, 忽略数]
+     */
+    private int[] processInTransaction(List<Long> ids) {
+        List<PayCallback> callbacks = payCallbackMapper.selectPendingByIdsForUpdate(ids);
+        if (callbacks.isEmpty()) {
+            return new int[]{0, 0};
+        }
+        Set<String> orderNos = new LinkedHashSet<>();
+        callbacks.forEach(callback -> orderNos.add(callback.getOrderNo()));
+        Map<String, EduPayOrder> unpaid = new HashMap<>();
+        for (EduPayOrder order : payOrderMapper.selectUnpaidByOrderNosForUpdate(new ArrayList<>(orderNos))) {
+            unpaid.put(order.getOrderNo(), order);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<String> paidOrderNos = new ArrayList<>();
+        List<EduPayLog> logs = new ArrayList<>();
+        List<Long> processedIds = new ArrayList<>();
+        List<Long> ignoredIds = new ArrayList<>();
+        for (PayCallback callback : callbacks) {
+            // 同一订单只认第一条有效回调，其余（订单不存在、已支付、已关闭）忽略
+            EduPayOrder order = unpaid.get(callback.getOrderNo());
+            if (order == null) {
+                ignoredIds.add(callback.getId());
+                continue;
+            }
+            // 支付平台或金额与订单不符：忽略该回调，订单保持待支付
+            if (!Objects.equals(callback.getPayPlatform(), order.getPayType())
+                    || callback.getTotalFee() == null || callback.getTotalFee().compareTo(order.getTotalFee()) != 0) {
+                log.warn("支付回调与订单不符，已忽略：orderNo={}，tradeNo={}，回调平台={}，订单支付方式={}，回调金额={}，订单金额={}",
+                        callback.getOrderNo(), callback.getTradeNo(), callback.getPayPlatform(), order.getPayType(),
+                        callback.getTotalFee(), order.getTotalFee());
+                ignoredIds.add(callback.getId());
+                continue;
+            }
+            unpaid.remove(callback.getOrderNo());
+            paidOrderNos.add(callback.getOrderNo());
+            EduPayLog payLog = new EduPayLog();
+            payLog.setOrderNo(callback.getOrderNo());
+            payLog.setTradeNo(callback.getTradeNo());
+            payLog.setPayPlatform(callback.getPayPlatform());
+            payLog.setCallbackContent(callback.getCallbackContent());
+            payLog.setPayTime(now);
+            payLog.setCreateTime(now);
+            logs.add(payLog);
+            processedIds.add(callback.getId());
+        }
+        if (!paidOrderNos.isEmpty()) {
+            payOrderMapper.batchMarkPaid(paidOrderNos, now);
+            payLogMapper.batchInsert(logs);
+            payCallbackMapper.batchUpdateStatus(processedIds, STATUS_PROCESSED, now);
+            orderStatusWaiters.notifyAfterCommit(paidOrderNos, 1, now);
+        }
+        if (!ignoredIds.isEmpty()) {
+            payCallbackMapper.batchUpdateStatus(ignoredIds, STATUS_IGNORED, now);
+        }
+        return new int[]{processedIds.size(), ignoredIds.size()};
+    }
+}
@@ -0,0 +1,94 @@
+package com.edu.platform.pay;
+
+import com.edu.platform.dto.PayCallbackDTO;
+import com.edu.platform.properties.PayProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+
+/**
+ * 支付回调签名（HmacSHA256）
+ * 说明：
+ * 1. 待签名串为按参数名升序拼接的 key=value（callbackContent、orderNo、payPlatform、totalFee、tradeNo，以 & 连接），
+ *    金额保留两位小数，空值按空串处理；签名为小写十六进制；
+ * 2. 密钥为与支付网关约定的 edu.pay.callbackSecret，未配置时拒绝所有回调；
+ * 3. 比较签名使用常量时间比较，避免按耗时逐位猜测签名。
+ */
+@Component
+@Slf4j
+public class PayCallbackSigner {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    @Autowired
+    private PayProperties payProperties;
+
+    private SecretKeySpec key;
+
+    @PostConstruct
+    public void init() {
+        String secret = payProperties.getCallbackSecret();
+        if (secret == null || secret.isEmpty()) {
+            log.warn("未配置 edu.pay.callbackSecret，支付回调将全部拒绝");
+            return;
+        }
+        key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    /**
+     * 校验回调签名
+     * @return true-签名正确
+     */
+    public boolean verify(PayCallbackDTO callback) {
+        if (key == null || callback.getSign() == null) {
+            return false;
+        }
+        String expected = sign(callback.getOrderNo(), callback.getTradeNo(), callback.getPayPlatform(),
+                callback.getTotalFee(), callback.getCallbackContent());
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8),
+                callback.getSign().toLowerCase().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 计算回调签名
+     * @return 小写十六进制签名
+     */
+    public String sign(String orderNo, String tradeNo, Integer payPlatform, BigDecimal totalFee, String callbackContent) {
+        if (key == null) {
+            throw new IllegalStateException("未配置 edu.pay.callbackSecret");
+        }
+        String content = "callbackContent=" + nullToEmpty(callbackContent)
+                + "&orderNo=" + nullToEmpty(orderNo)
+                + "&payPlatform=" + (payPlatform == null ? "" : payPlatform)
+                + "&totalFee=" + (totalFee == null ? "" : totalFee.setScale(2, RoundingMode.HALF_UP).toPlainString())
+                + "&tradeNo=" + nullToEmpty(tradeNo);
+        try {
+            // Mac 非线程安全，每次新建（只做一次初始化，开销远小于一次数据库写入）
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            byte[] digest = mac.doFinal(content.getBytes(StandardCharsets.UTF_8));
+            char[] hex = new char[digest.length * 2];
+            for (int i = 0; i < digest.length; i++) {
+                hex[2 * i] = HEX[(digest[i] >> 4) & 0xF];
+                hex[2 * i + 1] = HEX[digest[i] & 0xF];
+            }
+            return new String(hex);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("支付回调签名计算失败", e);
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
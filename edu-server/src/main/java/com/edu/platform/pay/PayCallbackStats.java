@@ -0,0 +1,20 @@
+package com.edu.platform.pay;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 支付回调收件箱统计快照
+ */
+@Data
+@AllArgsConstructor
+public class PayCallbackStats {
+    private long received;    // 新接收并落库的回调数
+    private long duplicates;  // 重复回调数（内存去重+唯一键去重）
+    private long processed;   // 处理成功（订单置为已支付并记录日志）数
+    private long ignored;     // 订单已不是待支付状态、或支付平台/金额与订单不符而忽略的回调数
+    private long failed;      // 处理失败次数（失败的回调保持待处理，退避后重试）
+    private long batches;     // 已提交的批次数
+    private long reloads;     // 从数据库补偿加载待处理回调的次数
+    private int queueDepth;   // 当前待处理队列长度
+}
@@ -0,0 +1,194 @@
+package com.edu.platform.pay;
+
+import com.edu.platform.constant.MessageConstant;
+import com.edu.platform.entity.EduPayLog;
+import com.edu.platform.entity.EduPayOrder;
+import com.edu.platform.exception.BaseException;
+import com.edu.platform.mapper.PayLogMapper;
+import com.edu.platform.mapper.PayOrderMapper;
+import com.edu.platform.properties.PayProperties;
+import com.edu.platform.utils.BatchUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 模拟支付结算引擎
+ * 说明：
+ * 1. 发起支付后由单线程调度器延迟 settleDelayMillis 触发结算（模拟网关异步确认），不再为每笔支付创建线程；
+ * 2. 到期的订单进入写入队列，由单个结算线程凑批：一个事务内锁定仍为待支付的订单、批量置为已支付、批量写入支付日志；
+ * 3. 待结算总数（已排期+待写入）有上限，超过时拒绝发起支付；
+ * 4. 停止时先执行完已排期的结算，再写完队列中剩余的订单；
+ * 5. 事务提交后唤醒等待这些订单状态的请求。
+ */
+@Component
+@Slf4j
+public class PaymentSettlementEngine {
+
+    @Autowired
+    private PayOrderMapper payOrderMapper;
+
+    @Autowired
+    private PayLogMapper payLogMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PayProperties payProperties;
+
+    @Autowired
+    private OrderStatusWaiters orderStatusWaiters;
+
+    private ScheduledThreadPoolExecutor scheduler;
+    private BlockingQueue<String> queue;
+    private Thread settler;
+    private volatile boolean running = true;
+
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong scheduled = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong settled = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "pay-settle-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 容量由 pending 计数控制，这里用无界队列即可保证到期任务一定能入队
+        queue = new LinkedBlockingQueue<>();
+        settler = new Thread(this::runLoop, "pay-settler");
+        settler.setDaemon(true);
+        settler.start();
+    }
+
+    /**
+     * 停止时执行完已排期的结算并写完队列
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        long timeout = payProperties.getDrainTimeoutMillis();
+        scheduler.shutdown(); // 默认策略下已排期的延迟任务仍会执行
+        scheduler.awaitTermination(timeout, TimeUnit.MILLISECONDS);
+        running = false;
+        settler.interrupt();
+        settler.join(timeout);
+        log.info("支付结算引擎已停止：{}", stats());
+    }
+
+    /**
+     * 排期结算一笔支付（模拟网关在 settleDelayMillis 后确认支付成功）
+     * @param orderNo 订单编号
+     */
+    public void schedule(String orderNo) {
+        if (!running || scheduler.isShutdown() || pending.incrementAndGet() > payProperties.getQueueCapacity()) {
+            pending.decrementAndGet();
+            rejected.incrementAndGet();
+            log.warn("待结算订单过多，拒绝发起支付：{}", orderNo);
+            throw new BaseException(MessageConstant.SYSTEM_BUSY);
+        }
+        scheduled.incrementAndGet();
+        scheduler.schedule(() -> queue.add(orderNo), payProperties.getSettleDelayMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 结算统计
+     */
+    public SettlementStats stats() {
+        return new SettlementStats(scheduled.get(), rejected.get(), settled.get(), skipped.get(),
+                failed.get(), batches.get(), pending.get(), queue.size());
+    }
+
+    /**
+     * 结算线程主循环
+     */
+    private void runLoop() {
+        List<String> batch = new ArrayList<>(payProperties.getMaxBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                BatchUtils.collect(queue, batch, payProperties.getMaxBatchSize(), payProperties.getLingerMillis());
+            } catch (InterruptedException e) {
+                // 停止信号：继续把已收集和队列中剩余的订单写完
+                queue.drainTo(batch, payProperties.getMaxBatchSize() - batch.size());
+            }
+            if (!batch.isEmpty()) {
+                settle(batch);
+                pending.addAndGet(-batch.size());
+                batch.clear();
+            }
+        }
+        log.info("支付结算线程已退出");
+    }
+
+    /**
+     * 结算一批订单；整批失败时逐笔重试
+     */
+    private void settle(List<String> batch) {
+        List<String> orderNos = new ArrayList<>(new LinkedHashSet<>(batch));
+        BatchUtils.executeOrSplit(orderNos,
+                all -> {
+                    int paid = settleAndCount(all);
+                    log.info("模拟支付批量结算完成：订单数={}，成功={}", all.size(), paid);
+                },
+                e -> log.error("模拟支付批量结算失败，改为逐笔结算：订单数={}", orderNos.size(), e),
+                orderNo -> settleAndCount(Collections.singletonList(orderNo)),
+                (orderNo, e) -> {
+                    failed.incrementAndGet();
+                    log.error("模拟支付结算失败，订单号: {}", orderNo, e);
+                });
+    }
+
+    /**
+     * 在一个事务内结算并累计统计
+     * @return 置为已支付的订单数
+     */
+    private int settleAndCount(List<String> orderNos) {
+        int paid = transactionTemplate.execute(status -> settleInTransaction(orderNos));
+        batches.incrementAndGet();
+        settled.addAndGet(paid);
+        skipped.addAndGet(orderNos.size() - paid);
+        return paid;
+    }
+
+    /**
+     * 事务内：锁定仍为待支付的订单，置为已支付并记录支付日志
+     * @return 置为已支付的订单数
+     */
+    private int settleInTransaction(List<String> orderNos) {
+        List<EduPayOrder> orders = payOrderMapper.selectUnpaidByOrderNosForUpdate(orderNos);
+        if (orders.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<String> paidOrderNos = new ArrayList<>(orders.size());
+        List<EduPayLog> logs = new ArrayList<>(orders.size());
+        for (EduPayOrder order : orders) {
+            paidOrderNos.add(order.getOrderNo());
+            EduPayLog payLog = new EduPayLog();
+            payLog.setOrderNo(order.getOrderNo());
+            payLog.setPayTime(now);
+            payLog.setPayPlatform(order.getPayType());
+            payLog.setTradeNo("MOCK_TRADE_" + System.currentTimeMillis() + "_" + order.getId());
+            payLog.setCreateTime(now);
+            logs.add(payLog);
+        }
+        payOrderMapper.batchMarkPaid(paidOrderNos, now);
+        payLogMapper.batchInsert(logs);
+        orderStatusWaiters.notifyAfterCommit(paidOrderNos, 1, now);
+        return orders.size();
+    }
+}
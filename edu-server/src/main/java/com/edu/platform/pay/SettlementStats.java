@@ -0,0 +1,27 @@
+package com.edu.platform.pay;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 支付结算统计快照
+ */
+@Data
+@AllArgsConstructor
+public class SettlementStats {
+    private long scheduled;   // 已排期的结算数
+    private long rejected;    // 因待结算数已满被拒绝的支付数
+    private long settled;     // 结算成功（订单置为已支付并记录日志）数
+    private long skipped;     // 到期时订单已不是待支付状态而跳过的数
+    private long failed;      // 结算失败数
+    private long batches;     // 已提交的批次数
+    private int pending;      // 当前待结算数（已排期+待写入）
+    private int queueDepth;   // 当前待写入队列长度
+
+    /**
+     * 平均每批结算数
+     */
+    public double getAverageBatchSize() {
+        return batches == 0 ? 0 : (double) (settled + skipped) / batches;
+    }
+}
@@ -0,0 +1,16 @@
+package com.edu.platform.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 课程检索结果（命中总数 + 当前页课程ID，按相关度排序）
+ */
+@Data
+@AllArgsConstructor
+public class CourseSearchHits {
+    private long total;          // 命中总数
+    private List<Long> courseIds; // 当前页课程ID（按BM25得分倒序）
+}
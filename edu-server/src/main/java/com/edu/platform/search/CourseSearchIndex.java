@@ -0,0 +1,265 @@
+package com.edu.platform.search;
+
+import com.edu.platform.entity.Course;
+import com.edu.platform.mapper.CourseMapper;
+import com.edu.platform.utils.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 课程标题/描述的进程内倒排索引
+ * 说明：
+ * 1. 启动时从 edu_course 全量构建，之后由 CourseServiceImpl 的新增/修改/删除在事务提交后增量更新；
+ * 2. 查询词必须全部命中（AND），按 BM25 打分排序，标题词频按 TITLE_BOOST 加权；
+ * 3. 字母数字词按前缀匹配（适配输入框逐字搜索），CJK词精确匹配二元组/单字。
+ */
+@Component
+@Slf4j
+public class CourseSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int TITLE_BOOST = 3;
+
+    @Autowired
+    private CourseMapper courseMapper;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // 词 -> 包含该词的课程ID（TreeMap 支持前缀范围查询）
+    private final TreeMap<String, Set<Long>> postings = new TreeMap<>();
+    // 课程ID -> 文档信息
+    private final Map<Long, Doc> docs = new HashMap<>();
+    private long totalLength;
+
+    /**
+     * 启动时全量构建索引
+     */
+    @PostConstruct
+    public void rebuild() {
+        List<Course> courses = courseMapper.selectAllForIndex();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            docs.clear();
+            totalLength = 0;
+            for (Course course : courses) {
+                addDoc(course);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("课程检索索引构建完成：课程数={}，词条数={}", docs.size(), postings.size());
+    }
+
+    /**
+     * 课程新增/修改后更新索引（事务提交后生效）
+     * @param course 课程最新数据（需包含id、title、description、categoryId、status）
+     */
+    public void onCourseSaved(Course course) {
+        TransactionUtils.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeDoc(course.getId());
+                addDoc(course);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * 课程删除后移除索引（事务提交后生效）
+     * @param courseId 课程ID
+     */
+    public void onCourseDeleted(Long courseId) {
+        TransactionUtils.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeDoc(courseId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * 检索课程
+     * @param keyword 关键字
+     * @param categoryId 分类筛选（可选）
+     * @param status 状态筛选（可选）
+     * @param offset 跳过条数
+     * @param limit 返回条数
+     * @return 命中总数及当前页课程ID
+     */
+    public CourseSearchHits search(String keyword, Long categoryId, Integer status, int offset, int limit) {
+        return search(keyword, categoryId == null ? null : Collections.singleton(categoryId), status, offset, limit);
+    }
+
+    /**
+     * 检索课程（分类筛选为一组分类ID）
+     */
+    public CourseSearchHits search(String keyword, Set<Long> categoryIds, Integer status, int offset, int limit) {
+        List<String> queryTokens = CourseTokenizer.tokenizeForQuery(keyword);
+        if (queryTokens.isEmpty()) {
+            return new CourseSearchHits(0, Collections.emptyList());
+        }
+
+        lock.readLock().lock();
+        try {
+            // 1. 每个查询词展开为索引中的匹配词
+            List<List<String>> expanded = new ArrayList<>(queryTokens.size());
+            for (String token : queryTokens) {
+                List<String> terms = matchTerms(token);
+                if (terms.isEmpty()) {
+                    return new CourseSearchHits(0, Collections.emptyList());
+                }
+                expanded.add(terms);
+            }
+
+            // 2. 求交集（从文档最少的查询词开始）并应用筛选条件
+            List<Set<Long>> candidates = new ArrayList<>(expanded.size());
+            for (List<String> terms : expanded) {
+                candidates.add(unionPostings(terms));
+            }
+            candidates.sort(Comparator.comparingInt(Set::size));
+            List<Long> matched = new ArrayList<>();
+            for (Long courseId : candidates.get(0)) {
+                if (!containsAll(candidates, courseId)) {
+                    continue;
+                }
+                Doc doc = docs.get(courseId);
+                if (categoryIds != null && !categoryIds.contains(doc.categoryId)) {
+                    continue;
+                }
+                if (status != null && !status.equals(doc.status)) {
+                    continue;
+                }
+                matched.add(courseId);
+            }
+
+            // 3. BM25 打分排序（同分按ID倒序，保证顺序稳定）
+            Map<Long, Double> scores = new HashMap<>(matched.size() * 2);
+            for (Long courseId : matched) {
+                scores.put(courseId, score(docs.get(courseId), expanded));
+            }
+            matched.sort((a, b) -> {
+                int cmp = Double.compare(scores.get(b), scores.get(a));
+                return cmp != 0 ? cmp : Long.compare(b, a);
+            });
+
+            int from = Math.min(offset, matched.size());
+            int to = Math.min(from + limit, matched.size());
+            return new CourseSearchHits(matched.size(), new ArrayList<>(matched.subList(from, to)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<String> matchTerms(String token) {
+        if (CourseTokenizer.isCjkToken(token)) {
+            return postings.containsKey(token) ? Collections.singletonList(token) : Collections.emptyList();
+        }
+        return new ArrayList<>(postings.subMap(token, true, token + Character.MAX_VALUE, false).keySet());
+    }
+
+    private Set<Long> unionPostings(List<String> terms) {
+        if (terms.size() == 1) {
+            return postings.get(terms.get(0));
+        }
+        Set<Long> union = new HashSet<>();
+        for (String term : terms) {
+            union.addAll(postings.get(term));
+        }
+        return union;
+    }
+
+    private static boolean containsAll(List<Set<Long>> sets, Long courseId) {
+        for (int i = 1; i < sets.size(); i++) {
+            if (!sets.get(i).contains(courseId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * BM25：每个查询词取其展开词中的最高分，各查询词得分累加
+     */
+    private double score(Doc doc, List<List<String>> expanded) {
+        int docCount = docs.size();
+        double avgLength = docCount == 0 ? 1 : (double) totalLength / docCount;
+        double lengthNorm = K1 * (1 - B + B * doc.length / avgLength);
+        double total = 0;
+        for (List<String> terms : expanded) {
+            double best = 0;
+            for (String term : terms) {
+                Integer tf = doc.termFreq.get(term);
+                if (tf == null) {
+                    continue;
+                }
+                int df = postings.get(term).size();
+                double idf = Math.log(1 + (docCount - df + 0.5) / (df + 0.5));
+                best = Math.max(best, idf * tf * (K1 + 1) / (tf + lengthNorm));
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    private void addDoc(Course course) {
+        Map<String, Integer> termFreq = new HashMap<>();
+        int length = 0;
+        for (String token : CourseTokenizer.tokenizeForIndex(course.getTitle())) {
+            termFreq.merge(token, TITLE_BOOST, Integer::sum);
+            length += TITLE_BOOST;
+        }
+        for (String token : CourseTokenizer.tokenizeForIndex(course.getDescription())) {
+            termFreq.merge(token, 1, Integer::sum);
+            length++;
+        }
+        docs.put(course.getId(), new Doc(course.getCategoryId(), course.getStatus(), length, termFreq));
+        for (String term : termFreq.keySet()) {
+            postings.computeIfAbsent(term, k -> new HashSet<>()).add(course.getId());
+        }
+        totalLength += length;
+    }
+
+    private void removeDoc(Long courseId) {
+        Doc doc = docs.remove(courseId);
+        if (doc == null) {
+            return;
+        }
+        for (String term : doc.termFreq.keySet()) {
+            Set<Long> ids = postings.get(term);
+            if (ids != null) {
+                ids.remove(courseId);
+                if (ids.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= doc.length;
+    }
+
+    /**
+     * 索引中的课程文档（仅保存检索需要的字段）
+     */
+    private static final class Doc {
+        private final Long categoryId;
+        private final Integer status;
+        private final int length;
+        private final Map<String, Integer> termFreq;
+
+        private Doc(Long categoryId, Integer status, int length, Map<String, Integer> termFreq) {
+            this.categoryId = categoryId;
+            this.status = status;
+            this.length = length;
+            this.termFreq = termFreq;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.edu.platform.search;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 课程检索分词器
+ * 规则：
+ * 1. 中日韩文字（CJK）：建索引时同时输出单字和相邻二元组（bigram），查询时连续CJK串拆为二元组，单个字按单字查询；
+ * 2. 其他字母/数字：连续的字母数字串作为一个词，统一转小写；
+ * 3. 标点、空白等其他字符视为分隔符。
+ */
+public class CourseTokenizer {
+
+    private CourseTokenizer() {
+    }
+
+    /**
+     * 建索引用分词（保留重复词，用于统计词频）
+     * @param text 原文
+     * @return 词列表
+     */
+    public static List<String> tokenizeForIndex(String text) {
+        List<String> tokens = new ArrayList<>();
+        split(text, tokens, true);
+        return tokens;
+    }
+
+    /**
+     * 查询用分词（去重）
+     * @param text 查询关键字
+     * @return 词列表
+     */
+    public static List<String> tokenizeForQuery(String text) {
+        List<String> tokens = new ArrayList<>();
+        split(text, tokens, false);
+        return new ArrayList<>(new LinkedHashSet<>(tokens));
+    }
+
+    /**
+     * 判断一个词是否为CJK词（CJK词精确匹配，其他词按前缀匹配）
+     */
+    public static boolean isCjkToken(String token) {
+        return !token.isEmpty() && isCjk(token.codePointAt(0));
+    }
+
+    private static void split(String text, List<String> tokens, boolean forIndex) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        StringBuilder word = new StringBuilder();
+        List<String> cjkRun = new ArrayList<>();
+        int i = 0;
+        while (i < text.length()) {
+            int cp = text.codePointAt(i);
+            i += Character.charCount(cp);
+            if (isCjk(cp)) {
+                flushWord(word, tokens);
+                cjkRun.add(new String(Character.toChars(cp)));
+            } else if (Character.isLetterOrDigit(cp)) {
+                flushCjk(cjkRun, tokens, forIndex);
+                word.appendCodePoint(Character.toLowerCase(cp));
+            } else {
+                flushWord(word, tokens);
+                flushCjk(cjkRun, tokens, forIndex);
+            }
+        }
+        flushWord(word, tokens);
+        flushCjk(cjkRun, tokens, forIndex);
+    }
+
+    private static void flushWord(StringBuilder word, List<String> tokens) {
+        if (word.length() > 0) {
+            tokens.add(word.toString().toLowerCase(Locale.ROOT));
+            word.setLength(0);
+        }
+    }
+
+    private static void flushCjk(List<String> run, List<String> tokens, boolean forIndex) {
+        if (run.isEmpty()) {
+            return;
+        }
+        if (forIndex || run.size() == 1) {
+            tokens.addAll(run);
+        }
+        for (int j = 0; j + 1 < run.size(); j++) {
+            tokens.add(run.get(j) + run.get(j + 1));
+        }
+        run.clear();
+    }
+
+    private static boolean isCjk(int cp) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(cp);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+}
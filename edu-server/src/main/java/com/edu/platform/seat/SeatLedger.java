@@ -0,0 +1,185 @@
+package com.edu.platform.seat;
+
+import com.edu.platform.entity.Course;
+import com.edu.platform.mapper.CourseMapper;
+import com.edu.platform.utils.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 课程名额台账（进程内原子计数，无锁）
+ * 说明：
+ * 1. 每门课程一个已占名额计数器，首次访问时从数据库加载名额上限和有效选课数；
+ * 2. 选课前 reserve 占位（CAS，超过上限直接失败，不会超卖），写入成功后 confirm，重复/失败时 release 归还；
+ * 3. 退课提交后 release；
+ * 4. edu_course.enrolled_count 由后台线程按有效选课记录异步校准，不在选课链路上加行锁；
+ * 5. 名额上限为 null 表示不限；0 表示不开放名额（任何选课都失败，接口层的 @Positive 已拒绝写入0，只可能来自手工改库）。
+ */
+@Component
+@Slf4j
+public class SeatLedger {
+
+    private static final long RECONCILE_INTERVAL_MILLIS = 1000;
+    private static final int UNLIMITED = -1;
+
+    @Autowired
+    private CourseMapper courseMapper;
+
+    private final ConcurrentHashMap<Long, Seats> seats = new ConcurrentHashMap<>();
+    // 待校准 enrolled_count 的课程
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService reconciler;
+
+    @PostConstruct
+    public void start() {
+        reconciler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "seat-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reconciler.scheduleWithFixedDelay(this::reconcile,
+                RECONCILE_INTERVAL_MILLIS, RECONCILE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        reconciler.shutdown();
+        reconcile();
+    }
+
+    /**
+     * 占用一个名额
+     * @param courseId 课程ID
+     * @return 是否占用成功（名额已满返回false）
+     */
+    public boolean reserve(Long courseId) {
+        Seats course = load(courseId);
+        while (true) {
+            int used = course.used.get();
+            int capacity = course.capacity;
+            if (capacity != UNLIMITED && used >= capacity) {
+                return false;
+            }
+            if (course.used.compareAndSet(used, used + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 确认占用（选课记录已写入），等待异步校准数据库计数
+     * @param courseId 课程ID
+     */
+    public void confirm(Long courseId) {
+        dirty.add(courseId);
+    }
+
+    /**
+     * 归还一个名额（选课写入失败/重复，或退课）
+     * @param courseId 课程ID
+     */
+    public void release(Long courseId) {
+        Seats course = seats.get(courseId);
+        if (course != null) {
+            course.used.updateAndGet(used -> Math.max(0, used - 1));
+        }
+    }
+
+    /**
+     * 退课提交后归还名额
+     * @param courseId 课程ID
+     */
+    public void releaseAfterCommit(Long courseId) {
+        TransactionUtils.afterCommit(() -> {
+            release(courseId);
+            dirty.add(courseId);
+        });
+    }
+
+    /**
+     * 课程名额上限变更（事务提交后生效）
+     * @param courseId 课程ID
+     * @param capacity 新上限（null表示不限）
+     */
+    public void onCapacityChanged(Long courseId, Integer capacity) {
+        TransactionUtils.afterCommit(() -> {
+            Seats course = seats.get(courseId);
+            if (course != null) {
+                course.capacity = toCapacity(capacity);
+            }
+        });
+    }
+
+    /**
+     * 课程删除后移除台账（事务提交后生效）
+     * @param courseId 课程ID
+     */
+    public void onCourseDeleted(Long courseId) {
+        TransactionUtils.afterCommit(() -> {
+            seats.remove(courseId);
+            dirty.remove(courseId);
+        });
+    }
+
+    /**
+     * 加载课程名额（只在首次访问时查询数据库）
+     */
+    private Seats load(Long courseId) {
+        Seats existing = seats.get(courseId);
+        if (existing != null) {
+            return existing;
+        }
+        Course course = courseMapper.selectCapacityById(courseId);
+        int capacity = toCapacity(course == null ? null : course.getCapacity());
+        int used = courseMapper.countActiveEnrollByCourseId(courseId);
+        Seats loaded = new Seats(capacity, used);
+        Seats raced = seats.putIfAbsent(courseId, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    private static int toCapacity(Integer capacity) {
+        return capacity == null ? UNLIMITED : Math.max(0, capacity);
+    }
+
+    /**
+     * 按有效选课记录校准 edu_course.enrolled_count
+     */
+    private void reconcile() {
+        Iterator<Long> iterator = dirty.iterator();
+        while (iterator.hasNext()) {
+            Long courseId = iterator.next();
+            iterator.remove();
+            try {
+                courseMapper.reconcileEnrolledCount(courseId);
+            } catch (Exception e) {
+                dirty.add(courseId);
+                log.error("课程选课人数校准失败：courseId={}", courseId, e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 单门课程的名额
+     */
+    private static final class Seats {
+        private volatile int capacity; // UNLIMITED表示不限
+        private final AtomicInteger used;
+
+        private Seats(int capacity, int used) {
+            this.capacity = capacity;
+            this.used = new AtomicInteger(used);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.edu.platform.security;
+
+import com.edu.platform.constant.MessageConstant;
+import com.edu.platform.exception.TooManyRequestsException;
+import com.edu.platform.properties.RateLimitProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * 登录账号维度限流（令牌桶，key=登录ID）
+ * 说明：
+ * 1. 与拦截器中按IP的登录限流并列：撞库攻击换IP也绕不过同一账号的限额；
+ * 2. 登录ID在请求体中，拦截器阶段尚未解析，因此在登录业务的第一步、查库和哈希校验之前获取令牌。
+ */
+@Component
+@Slf4j
+public class LoginAccountLimiter {
+
+    private final TokenBucketLimiter limiter;
+
+    @Autowired
+    public LoginAccountLimiter(RateLimitProperties properties) {
+        RateLimitProperties.Rule rule = properties.getLoginAccount();
+        this.limiter = new TokenBucketLimiter(rule.getCapacity(), rule.getRefillPerSecond(), properties.getIdleExpireMillis());
+    }
+
+    /**
+     * 获取一次登录尝试的令牌
+     * @param loginId 登录ID
+     * @throws TooManyRequestsException 该账号登录尝试过于频繁
+     */
+    public void acquire(Long loginId) {
+        long retryAfterMillis = limiter.tryAcquire("account:" + loginId);
+        if (retryAfterMillis > 0) {
+            log.warn("登录请求被限流：账号={}，建议{}ms后重试", loginId, retryAfterMillis);
+            throw new TooManyRequestsException(MessageConstant.TOO_MANY_REQUESTS);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.edu.platform.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 密码哈希线程池运行统计
+ */
+@Data
+@AllArgsConstructor
+public class PasswordHashStats {
+    private int iterations;        // 当前迭代次数
+    private int poolSize;          // 线程池大小
+    private int activeCount;       // 正在执行的哈希任务数
+    private int queueDepth;        // 排队中的哈希任务数
+    private int queueCapacity;     // 队列容量
+    private long completedCount;   // 已完成哈希次数
+    private long rejectedCount;    // 因队列满被拒绝的次数
+    private double avgLatencyMillis; // 平均哈希耗时（毫秒，不含排队）
+    private double maxLatencyMillis; // 最大哈希耗时（毫秒，不含排队）
+}
@@ -0,0 +1,209 @@
+package com.edu.platform.security;
+
+import com.edu.platform.constant.MessageConstant;
+import com.edu.platform.exception.BaseException;
+import com.edu.platform.properties.PasswordProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import javax.annotation.PreDestroy;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 密码哈希组件（PBKDF2WithHmacSHA256 + 随机盐）
+ * 说明：
+ * 1. 哈希格式：pbkdf2$迭代次数$盐(Base64)$哈希值(Base64)，迭代次数随哈希一起保存，调整成本不影响已有密码；
+ * 2. 启动时按 targetMillis 校准迭代次数（限制在上下限之间），低于当前成本的哈希在下次登录时升级；
+ * 3. 兼容旧的32位MD5十六进制哈希，校验通过后由调用方升级为新格式；
+ * 4. 哈希在独立的有界线程池中执行，队列满时立即拒绝，避免登录高峰占满Tomcat请求线程。
+ */
+@Component
+@Slf4j
+public class PasswordHasher {
+
+    private static final String PREFIX = "pbkdf2";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    private final PasswordProperties passwordProperties;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final ThreadPoolExecutor executor;
+    private final int iterations;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    @Autowired
+    public PasswordHasher(PasswordProperties passwordProperties) {
+        this.passwordProperties = passwordProperties;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                passwordProperties.getPoolSize(), passwordProperties.getPoolSize(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(passwordProperties.getQueueCapacity()),
+                r -> {
+                    Thread thread = new Thread(r, "password-hash-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.iterations = calibrate();
+    }
+
+    /**
+     * 生成新格式的密码哈希
+     * @param rawPassword 明文密码
+     * @return 哈希字符串
+     */
+    public String hash(String rawPassword) {
+        return execute(() -> {
+            byte[] salt = new byte[SALT_BYTES];
+            secureRandom.nextBytes(salt);
+            byte[] hash = pbkdf2(rawPassword, salt, iterations);
+            Base64.Encoder encoder = Base64.getEncoder();
+            return PREFIX + "$" + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+        });
+    }
+
+    /**
+     * 校验密码（兼容旧MD5格式）
+     * @param rawPassword 明文密码
+     * @param storedHash 数据库中保存的哈希
+     * @return 是否匹配
+     */
+    public boolean matches(String rawPassword, String storedHash) {
+        if (rawPassword == null || storedHash == null) {
+            return false;
+        }
+        if (!storedHash.startsWith(PREFIX + "$")) {
+            // 旧格式：MD5十六进制（计算成本极低，无需进入线程池）
+            byte[] legacy = DigestUtils.md5DigestAsHex(rawPassword.getBytes()).getBytes(StandardCharsets.US_ASCII);
+            return MessageDigest.isEqual(legacy, storedHash.getBytes(StandardCharsets.US_ASCII));
+        }
+        String[] parts = storedHash.split("\\$");
+        if (parts.length != 4) {
+            log.warn("密码哈希格式错误");
+            return false;
+        }
+        int storedIterations = Integer.parseInt(parts[1]);
+        byte[] salt = Base64.getDecoder().decode(parts[2]);
+        byte[] expected = Base64.getDecoder().decode(parts[3]);
+        return execute(() -> MessageDigest.isEqual(expected, pbkdf2(rawPassword, salt, storedIterations)));
+    }
+
+    /**
+     * 判断已保存的哈希是否需要升级（旧MD5格式或迭代次数低于当前成本）
+     * @param storedHash 数据库中保存的哈希
+     * @return 是否需要重新哈希
+     */
+    public boolean needsRehash(String storedHash) {
+        if (storedHash == null || !storedHash.startsWith(PREFIX + "$")) {
+            return true;
+        }
+        String[] parts = storedHash.split("\\$");
+        return parts.length != 4 || Integer.parseInt(parts[1]) < iterations;
+    }
+
+    /**
+     * 线程池及耗时统计
+     */
+    public PasswordHashStats stats() {
+        long count = completed.sum();
+        return new PasswordHashStats(
+                iterations,
+                executor.getMaximumPoolSize(),
+                executor.getActiveCount(),
+                executor.getQueue().size(),
+                passwordProperties.getQueueCapacity(),
+                count,
+                rejected.sum(),
+                count == 0 ? 0 : totalNanos.sum() / 1_000_000.0 / count,
+                maxNanos.get() / 1_000_000.0);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 提交到哈希线程池并等待结果；队列满或等待超时均提示系统繁忙
+     */
+    private <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    long elapsed = System.nanoTime() - start;
+                    completed.increment();
+                    totalNanos.add(elapsed);
+                    maxNanos.accumulateAndGet(elapsed, Math::max);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("密码哈希队列已满，拒绝请求：队列长度={}", executor.getQueue().size());
+            throw new BaseException(MessageConstant.SYSTEM_BUSY);
+        }
+        try {
+            return future.get(passwordProperties.getTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("密码哈希等待超时：{}ms", passwordProperties.getTimeoutMillis());
+            throw new BaseException(MessageConstant.SYSTEM_BUSY);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BaseException(MessageConstant.SYSTEM_BUSY);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("密码哈希失败", e.getCause());
+        }
+    }
+
+    /**
+     * 按目标耗时校准迭代次数：先预热，再用固定迭代次数测速后按比例换算
+     */
+    private int calibrate() {
+        int sampleIterations = 20000;
+        byte[] salt = new byte[SALT_BYTES];
+        for (int i = 0; i < 3; i++) {
+            pbkdf2("calibrate", salt, sampleIterations);
+        }
+        long start = System.nanoTime();
+        pbkdf2("calibrate", salt, sampleIterations);
+        long elapsedNanos = Math.max(1, System.nanoTime() - start);
+        long estimated = passwordProperties.getTargetMillis() * 1_000_000L * sampleIterations / elapsedNanos;
+        int result = (int) Math.max(passwordProperties.getMinIterations(),
+                Math.min(passwordProperties.getMaxIterations(), estimated));
+        log.info("密码哈希成本校准完成：目标耗时={}ms，迭代次数={}", passwordProperties.getTargetMillis(), result);
+        return result;
+    }
+
+    private static byte[] pbkdf2(String rawPassword, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(rawPassword.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2 不可用", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
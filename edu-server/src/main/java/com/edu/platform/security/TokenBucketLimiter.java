@@ -0,0 +1,88 @@
+package com.edu.platform.security;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按key划分的令牌桶限流器（线程安全）
+ * 说明：
+ * 1. 每个key一个令牌桶，桶表使用 ConcurrentHashMap（分段并发），桶内用自身对象锁，不同key互不阻塞；
+ * 2. 令牌按时间差惰性补充，不需要定时任务；
+ * 3. 闲置超过 idleExpireMillis 的桶在获取令牌时顺带清理（同一时刻只有一个线程执行清理），控制内存占用。
+ */
+public class TokenBucketLimiter {
+
+    private final int capacity;
+    private final double refillPerNano;
+    private final long idleExpireNanos;
+
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweepNanos = new AtomicLong(System.nanoTime());
+
+    public TokenBucketLimiter(int capacity, double refillPerSecond, long idleExpireMillis) {
+        if (capacity <= 0 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("令牌桶容量和补充速率必须大于0");
+        }
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000.0;
+        this.idleExpireNanos = idleExpireMillis * 1_000_000L;
+    }
+
+    /**
+     * 尝试获取一个令牌
+     * @param key 限流维度（IP/用户ID等）
+     * @return 0表示获取成功；大于0表示被限流，值为建议的重试等待毫秒数
+     */
+    public long tryAcquire(String key) {
+        long now = System.nanoTime();
+        sweepIfNeeded(now);
+        Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket(capacity, now));
+        synchronized (bucket) {
+            bucket.refill(now, capacity, refillPerNano);
+            bucket.lastAccessNanos = now;
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - bucket.tokens) / refillPerNano / 1_000_000));
+        }
+    }
+
+    /**
+     * 当前桶数量
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    private void sweepIfNeeded(long now) {
+        long last = lastSweepNanos.get();
+        if (now - last < idleExpireNanos || !lastSweepNanos.compareAndSet(last, now)) {
+            return;
+        }
+        buckets.entrySet().removeIf(entry -> now - entry.getValue().lastAccessNanos > idleExpireNanos);
+    }
+
+    /**
+     * 单个令牌桶
+     */
+    private static final class Bucket {
+        private double tokens;
+        private long refillNanos;
+        private volatile long lastAccessNanos;
+
+        private Bucket(int capacity, long now) {
+            this.tokens = capacity;
+            this.refillNanos = now;
+            this.lastAccessNanos = now;
+        }
+
+        private void refill(long now, int capacity, double refillPerNano) {
+            long elapsed = now - refillNanos;
+            if (elapsed > 0) {
+                tokens = Math.min(capacity, tokens + elapsed * refillPerNano);
+                refillNanos = now;
+            }
+        }
+    }
+}
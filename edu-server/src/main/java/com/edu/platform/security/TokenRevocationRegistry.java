@@ -0,0 +1,98 @@
+package com.edu.platform.security;
+
+import com.edu.platform.constant.StatusConstant;
+import com.edu.platform.entity.User;
+import com.edu.platform.mapper.UserMapper;
+import com.edu.platform.properties.JwtProperties;
+import com.edu.platform.utils.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 令牌吊销登记表（key=用户ID，value=吊销截止时间，签发时间早于该时间的令牌一律无效）
+ * 说明：
+ * 1. 禁用账号时截止时间记为 Long.MAX_VALUE，该用户所有令牌立即失效；
+ * 2. 重新启用时截止时间改为启用时刻，禁用前签发的旧令牌仍然无效，启用后重新登录的令牌正常使用；
+ * 3. 启用后的记录在超过令牌有效期后已无意义，校验时顺带清理；
+ * 4. 截止时间持久化在 edu_user.tokens_valid_after，启动时加载禁用账号及仍在令牌有效期内的截止时间，
+ *    拦截器校验为一次哈希查找，不访问MySQL。
+ */
+@Component
+@Slf4j
+public class TokenRevocationRegistry {
+
+    private static final long REVOKE_ALL = Long.MAX_VALUE;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private JwtProperties jwtProperties;
+
+    private final Map<Long, Long> cutoffs = new ConcurrentHashMap<>();
+
+    /**
+     * 启动时加载禁用账号和重新启用账号的截止时间
+     */
+    @PostConstruct
+    public void init() {
+        LocalDateTime since = LocalDateTime.now().minus(jwtProperties.getTtl(), ChronoUnit.MILLIS);
+        List<User> users = userMapper.selectTokenCutoffs(StatusConstant.DISABLE, since);
+        int disabled = 0;
+        for (User user : users) {
+            if (StatusConstant.DISABLE.equals(user.getStatus())) {
+                cutoffs.put(user.getId(), REVOKE_ALL);
+                disabled++;
+            } else {
+                cutoffs.put(user.getId(), toMillis(user.getTokensValidAfter()));
+            }
+        }
+        log.info("令牌吊销登记表加载完成：禁用账号数={}，重新启用账号数={}", disabled, users.size() - disabled);
+    }
+
+    /**
+     * 账号状态变更后更新登记表（事务提交后生效）
+     * @param userId 用户ID
+     * @param status 新状态（0-禁用，1-启用）
+     * @param tokensValidAfter 已持久化的令牌生效起点（秒级）
+     */
+    public void onStatusChanged(Long userId, Integer status, LocalDateTime tokensValidAfter) {
+        long cutoff = toMillis(tokensValidAfter);
+        TransactionUtils.afterCommit(() -> {
+            cutoffs.put(userId, StatusConstant.DISABLE.equals(status) ? REVOKE_ALL : cutoff);
+            log.info("令牌吊销登记表已更新：userId={}, status={}", userId, status);
+        });
+    }
+
+    /**
+     * 判断令牌是否已被吊销
+     * @param userId 用户ID
+     * @param issuedAt 令牌签发时间（毫秒）
+     * @return 是否已吊销
+     */
+    public boolean isRevoked(Long userId, long issuedAt) {
+        Long cutoff = cutoffs.get(userId);
+        if (cutoff == null) {
+            return false;
+        }
+        if (cutoff != REVOKE_ALL && cutoff + jwtProperties.getTtl() < System.currentTimeMillis()) {
+            // 截止时间之前签发的令牌均已自然过期，记录可以移除
+            cutoffs.remove(userId, cutoff);
+            return false;
+        }
+        return issuedAt < cutoff;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,36 @@
+package com.edu.platform.server;
+
+import com.edu.platform.vo.LearningStatsVO;
+
+import java.util.List;
+
+/**
+ * 学习数据统计服务接口（仅管理员可用）
+ */
+public interface AnalyticsService {
+
+    /**
+     * 查询最近若干天的日统计（含当天）
+     * @param days 天数
+     * @return 日统计列表（按日期升序）
+     */
+    List<LearningStatsVO> getDailyStats(int days);
+
+    /**
+     * 查询最近48小时的小时统计
+     * @return 小时统计列表（按时间升序）
+     */
+    List<LearningStatsVO> getHourlyStats();
+
+    /**
+     * 查询最近60分钟的分钟统计
+     * @return 分钟统计列表（按时间升序）
+     */
+    List<LearningStatsVO> getMinutelyStats();
+
+    /**
+     * 由原始记录回填历史日统计（不含当天）
+     * @param days 回填天数
+     */
+    void backfill(int days);
+}
@@ -33,7 +33,7 @@ public interface CategoryService {
     List<CategoryTreeVO> listCategoryTree();
 
     /**
-     * 递归查询子分类
+     * 查询子分类树
      * @param parentId 父分类ID
      * @return 子分类树形结构
      */
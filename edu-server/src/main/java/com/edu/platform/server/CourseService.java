@@ -1,12 +1,15 @@
 package com.edu.platform.server;
 
+import com.edu.platform.cache.CourseDetailSnapshot;
 import com.edu.platform.dto.*;
 import com.edu.platform.entity.Course;
+import com.edu.platform.result.CursorPageResult;
 import com.edu.platform.result.PageResult;
 import com.edu.platform.vo.ChapterVO;
 import com.edu.platform.vo.CourseDetailVO;
 
 import java.util.List;
+import java.util.Set;
 
 public interface CourseService {
 
@@ -38,6 +41,13 @@ public interface CourseService {
      */
     CourseDetailVO getCourseDetail(Long id);
 
+    /**
+     * 获取课程详情快照（预序列化JSON + ETag）
+     * @param id 课程ID
+     * @return 课程详情快照
+     */
+    CourseDetailSnapshot getCourseDetailSnapshot(Long id);
+
     /**
      * 分页查询课程
      * @param coursePageQueryDTO 查询条件
@@ -45,6 +55,13 @@ public interface CourseService {
      */
     PageResult pageQuery(CoursePageQueryDTO coursePageQueryDTO);
 
+    /**
+     * 游标分页查询课程（不统计总数）
+     * @param coursePageQueryDTO 查询条件（cursor为空时查询第一页）
+     * @return 游标分页结果
+     */
+    CursorPageResult scrollQuery(CoursePageQueryDTO coursePageQueryDTO);
+
     /**
      * 根据课程ID查询章节和小节
      * @param courseId 课程ID
@@ -84,8 +101,24 @@ public interface CourseService {
      */
     void updateVideo(Long id, VideoUpdateDTO videoUpdateDTO);
 
+    /**
+     * 删除课时（仅课程创建者可操作）
+     * @param id 课时ID
+     */
+    void deleteVideo(Long id);
+
     /**
      * 查询已发布课程
      */
     List<Course> findPublishedCourses();
+
+    /**
+     * 分页查询已发布课程（读取内存目录，不查库）
+     * @param categoryId 分类ID（可选）
+     * @param excludeCourseIds 需要排除的课程ID（可选）
+     * @param pageNum 页码
+     * @param pageSize 每页条数
+     * @return 分页结果
+     */
+    PageResult pagePublishedCourses(Long categoryId, Set<Long> excludeCourseIds, int pageNum, int pageSize);
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.edu.platform.server;
+
+import com.edu.platform.dto.LearnProgressDTO;
+
+public interface LearnService {
+
+    /**
+     * 上报学习进度（心跳）
+     * @param learnProgressDTO 课时ID及播放位置
+     */
+    void reportProgress(LearnProgressDTO learnProgressDTO);
+
+    /**
+     * 查询续播位置
+     * @param videoId 课时ID
+     * @return 已观看到的最大位置（秒）
+     */
+    int getResumePosition(Long videoId);
+}
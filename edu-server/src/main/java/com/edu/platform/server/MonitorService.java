@@ -0,0 +1,55 @@
+package com.edu.platform.server;
+
+import com.edu.platform.cache.CacheStats;
+import com.edu.platform.cache.EnrollmentIndexStats;
+import com.edu.platform.pay.PayCallbackStats;
+import com.edu.platform.pay.SettlementStats;
+import com.edu.platform.security.PasswordHashStats;
+
+/**
+ * 运行监控服务接口（仅管理员可用）
+ */
+public interface MonitorService {
+
+    /**
+     * 查询课程详情缓存统计
+     * @return 命中/未命中/淘汰次数及容量
+     */
+    CacheStats getCourseDetailCacheStats();
+
+    /**
+     * 查询已校验令牌缓存统计
+     * @return 命中/未命中/淘汰次数及条目数
+     */
+    CacheStats getVerifiedTokenCacheStats();
+
+    /**
+     * 查询用户档案缓存统计
+     * @return 命中/未命中/淘汰次数及条目数
+     */
+    CacheStats getUserProfileCacheStats();
+
+    /**
+     * 查询密码哈希线程池统计
+     * @return 迭代次数、队列深度、耗时等
+     */
+    PasswordHashStats getPasswordHashStats();
+
+    /**
+     * 查询选课索引统计
+     * @return 学生数、课程数、选课数及估算内存占用
+     */
+    EnrollmentIndexStats getEnrollmentIndexStats();
+
+    /**
+     * 查询支付结算统计
+     * @return 排期、结算、跳过、失败次数及队列深度
+     */
+    SettlementStats getSettlementStats();
+
+    /**
+     * 查询支付回调收件箱统计
+     * @return 回调处理统计
+     */
+    PayCallbackStats getPayCallbackStats();
+}
@@ -2,9 +2,13 @@ package com.edu.platform.server;
 
 import com.edu.platform.dto.OrderCreateDTO;
 import com.edu.platform.dto.OrderQueryDTO;
+import com.edu.platform.dto.PayCallbackDTO;
 import com.edu.platform.dto.PayCreateDTO;
 import com.edu.platform.entity.EduPayOrder;
+import com.edu.platform.result.CursorPageResult;
 import com.edu.platform.result.PageResult;
+import com.edu.platform.result.Result;
+import org.springframework.web.context.request.async.DeferredResult;
 
 /**
  * 支付服务接口
@@ -31,6 +35,13 @@ public interface PayService {
      */
     PageResult queryUserOrders(OrderQueryDTO queryDTO);
 
+    /**
+     * 游标分页查询用户订单（不统计总数）
+     * @param queryDTO 查询参数（cursor为空时查询第一页）
+     * @return 游标分页结果
+     */
+    CursorPageResult scrollUserOrders(OrderQueryDTO queryDTO);
+
     /**
      * 发起支付（调用第三方支付接口）
      * @param payCreateDTO 支付参数（订单号、支付方式）
@@ -45,4 +56,18 @@ public interface PayService {
      */
     EduPayOrder getOrderByNo(String orderNo);
 
-}
\ No newline at end of file
+    /**
+     * 支付回调处理（校验签名，去重并落库后返回，订单状态异步变更）
+     * @param payCallbackDTO 回调参数（含签名）
+     * @return true-新回调已接收，false-重复回调
+     */
+    boolean handlePayCallback(PayCallbackDTO payCallbackDTO);
+
+    /**
+     * 等待订单状态变化（长轮询，待支付订单挂起到状态变化或超时）
+     * @param orderNo 订单编号
+     * @return 订单信息（异步返回）
+     */
+    DeferredResult<Result<EduPayOrder>> waitOrderStatus(String orderNo);
+
+}
@@ -3,9 +3,13 @@ package com.edu.platform.server;
 import com.edu.platform.dto.StudentUpdateDTO;
 import com.edu.platform.entity.Course;
 import com.edu.platform.entity.Enroll;
+import com.edu.platform.result.CursorPageResult;
 import com.edu.platform.result.PageResult;
 import com.edu.platform.vo.StudentInfoVO;
 
+import java.util.List;
+import java.util.Map;
+
 public interface StudentService {
     /**
      * 修改学生信息
@@ -42,4 +46,32 @@ public interface StudentService {
      * @return 分页结果
      */
     PageResult getSelectedCourses(Long studentId, int pageNum, int pageSize);
+
+    /**
+     * 游标分页查询学生已选课程（不统计总数）
+     * @param studentId 学生ID
+     * @param cursor 上一页返回的游标（首页为空）
+     * @param pageSize 每页条数
+     * @return 游标分页结果
+     */
+    CursorPageResult scrollSelectedCourses(Long studentId, String cursor, int pageSize);
+
+    /**
+     * 分页查询可选课程（已发布课程）
+     * @param userId 当前用户ID
+     * @param categoryId 分类ID（可选）
+     * @param excludeEnrolled 是否排除已选课程
+     * @param pageNum 页码
+     * @param pageSize 每页条数
+     * @return 分页结果
+     */
+    PageResult getAvailableCourses(Long userId, Long categoryId, boolean excludeEnrolled, int pageNum, int pageSize);
+
+    /**
+     * 批量查询是否已选课程
+     * @param userId 当前用户ID
+     * @param courseIds 课程ID列表
+     * @return 课程ID -> 是否已选
+     */
+    Map<Long, Boolean> getEnrolledFlags(Long userId, List<Long> courseIds);
 }
@@ -2,6 +2,7 @@ package com.edu.platform.server;
 
 import com.edu.platform.dto.*;
 import com.edu.platform.entity.User;
+import com.edu.platform.result.CursorPageResult;
 import com.edu.platform.result.PageResult;
 import com.edu.platform.vo.UserLoginVO;
 
@@ -51,4 +52,11 @@ public interface UserService {
      * @return 分页结果
      */
     PageResult pageQuery(UserPageQueryDTO userPageQueryDTO);
+
+    /**
+     * 游标分页查询用户（不统计总数）
+     * @param userPageQueryDTO 查询条件（cursor为空时查询第一页）
+     * @return 游标分页结果
+     */
+    CursorPageResult scrollQuery(UserPageQueryDTO userPageQueryDTO);
 }
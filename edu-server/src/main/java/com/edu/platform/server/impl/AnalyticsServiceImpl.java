@@ -0,0 +1,69 @@
+package com.edu.platform.server.impl;
+
+import com.edu.platform.analytics.LearningAnalytics;
+import com.edu.platform.constant.MessageConstant;
+import com.edu.platform.context.BaseContext;
+import com.edu.platform.exception.PermissionDeniedException;
+import com.edu.platform.server.AnalyticsService;
+import com.edu.platform.vo.LearningStatsVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@Slf4j
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+    @Autowired
+    private LearningAnalytics learningAnalytics;
+
+    /**
+     * 查询最近若干天的日统计
+     * @param days
+     * @return
+     */
+    public List<LearningStatsVO> getDailyStats(int days) {
+        checkAdmin();
+        return learningAnalytics.getDaily(days);
+    }
+
+    /**
+     * 查询最近48小时的小时统计
+     * @return
+     */
+    public List<LearningStatsVO> getHourlyStats() {
+        checkAdmin();
+        return learningAnalytics.getHourly();
+    }
+
+    /**
+     * 查询最近60分钟的分钟统计
+     * @return
+     */
+    public List<LearningStatsVO> getMinutelyStats() {
+        checkAdmin();
+        return learningAnalytics.getMinutely();
+    }
+
+    /**
+     * 回填历史日统计
+     * @param days
+     */
+    public void backfill(int days) {
+        checkAdmin();
+        learningAnalytics.backfill(days);
+    }
+
+    /**
+     * 校验当前登录用户是否为管理员
+     */
+    private void checkAdmin() {
+        Integer role = BaseContext.getUserRole();
+        if (role == null || role != 3) { // 3-管理员角色
+            log.warn("查询学习统计失败：非管理员操作，当前角色={}", role);
+            throw new PermissionDeniedException(MessageConstant.ROLE_ERROR);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.edu.platform.server.impl;
 
+import com.edu.platform.cache.CategoryTreeCache;
 import com.edu.platform.constant.MessageConstant;
 import com.edu.platform.constant.StatusConstant;
 import com.edu.platform.dto.CategoryAddDTO;
@@ -20,7 +21,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -32,6 +32,9 @@ public class CategoryServiceImpl implements CategoryService {
     @Autowired
     private CourseMapper courseMapper;
 
+    @Autowired
+    private CategoryTreeCache categoryTreeCache;
+
     /**
      * 新增分类（仅管理员可用）
      * @param categoryAddDTO 新增参数
@@ -49,12 +52,14 @@ public class CategoryServiceImpl implements CategoryService {
 
         // 2. 校验父分类是否存在（parentId不为0时）
         Long parentId = categoryAddDTO.getParentId();
+        String parentPath = "/";
         if (parentId != 0) {
             Category parentCategory = categoryMapper.selectById(parentId.longValue());
             if (parentCategory == null) {
                 log.warn("父分类不存在：parentId={}", parentId);
                 throw new BaseException(MessageConstant.CATEGORY_NOT_FOUND);
             }
+            parentPath = parentCategory.getPath();
         }
 
         // 3. 校验同级分类名称唯一性（同级分类不允许重名）
@@ -75,6 +80,10 @@ public class CategoryServiceImpl implements CategoryService {
         category.setSort(sort);
         categoryMapper.insert(category);
 
+        // 6. 生成分类路径（父路径 + 自身ID）
+        categoryMapper.updatePath(category.getId(), parentPath + category.getId() + "/");
+        categoryTreeCache.refresh();
+
         log.info("新增分类成功，分类ID={}", category.getId());
     }
 
@@ -101,17 +110,49 @@ public class CategoryServiceImpl implements CategoryService {
             throw new BaseException(MessageConstant.CATEGORY_NOT_FOUND);
         }
 
-        // 3. 校验同级分类名称唯一性（排除当前分类自身）
+        // 3. 校验目标父分类（传入parentId且与原父分类不同时视为移动）
+        Long oldParentId = category.getParentId();
+        Long parentId = categoryUpdateDTO.getParentId() == null ? oldParentId : categoryUpdateDTO.getParentId();
+        boolean moved = !parentId.equals(oldParentId);
+        String newPath = null;
+        if (moved) {
+            String parentPath = "/";
+            if (parentId != 0) {
+                Category parentCategory = categoryMapper.selectById(parentId);
+                if (parentCategory == null) {
+                    log.warn("修改分类失败：目标父分类不存在，parentId={}", parentId);
+                    throw new BaseException(MessageConstant.CATEGORY_NOT_FOUND);
+                }
+                // 目标父分类位于当前分类子树内（含自身）会形成环
+                if (parentCategory.getPath().startsWith(category.getPath())) {
+                    log.warn("修改分类失败：不能移动到自身或子分类下，id={}, parentId={}", id, parentId);
+                    throw new BaseException(MessageConstant.CATEGORY_MOVE_INVALID);
+                }
+                parentPath = parentCategory.getPath();
+            }
+            newPath = parentPath + id + "/";
+        }
+
+        // 4. 校验同级分类名称唯一性（排除当前分类自身）
         String name = categoryUpdateDTO.getName();
-        Category existingCategory = categoryMapper.selectByNameAndParentId(name, category.getParentId());
+        Category existingCategory = categoryMapper.selectByNameAndParentId(name, parentId);
         if (existingCategory != null && !existingCategory.getId().equals(id)) {
-            log.warn("修改分类失败：同级分类名称已存在，name={}, parentId={}", name, category.getParentId());
+            log.warn("修改分类失败：同级分类名称已存在，name={}, parentId={}", name, parentId);
             throw new BaseException(MessageConstant.CATEGORY_ALREADY_EXISTS);
         }
 
-        // 4. 更新分类信息
+        // 5. 更新分类信息
+        String oldPath = category.getPath();
         BeanUtils.copyProperties(categoryUpdateDTO, category);
+        category.setParentId(parentId);
         categoryMapper.update(category);
+
+        // 6. 移动时一条语句改写自身及所有后代的路径
+        if (moved) {
+            int affected = categoryMapper.updateSubtreePath(oldPath, newPath);
+            log.info("分类移动：id={}, {} -> {}，改写路径数={}", id, oldPath, newPath, affected);
+        }
+        categoryTreeCache.refresh();
         log.info("修改分类成功，分类ID={}", id);
     }
 
@@ -153,6 +194,7 @@ public class CategoryServiceImpl implements CategoryService {
 
         // 5. 执行删除
         categoryMapper.deleteById(id);
+        categoryTreeCache.refresh();
         log.info("删除分类成功，id={}", id);
     }
 
@@ -167,25 +209,12 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     /**
-     * 递归查询子分类
+     * 查询子分类树（读取分类树快照，不查库）
      * @param parentId 父分类ID
      * @return 子分类树形结构列表
      */
     @Override
     public List<CategoryTreeVO> getChildren(Long parentId) {
-        // 1. 查询当前父节点的所有直接子节点
-        List<Category> childCategories = categoryMapper.selectByParentId(parentId);
-
-        // 2. 转换为VO并递归查询子节点
-        return childCategories.stream().map(category -> {
-            CategoryTreeVO treeVO = new CategoryTreeVO();
-            BeanUtils.copyProperties(category, treeVO);
-
-            // 3. 递归查询子分类的子分类
-            List<CategoryTreeVO> children = getChildren(category.getId());
-            treeVO.setChildren(children);
-
-            return treeVO;
-        }).collect(Collectors.toList());
+        return categoryTreeCache.getChildren(parentId);
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,11 @@
 package com.edu.platform.server.impl;
 
+import com.edu.platform.analytics.LearningAnalytics;
+import com.edu.platform.cache.CategoryTreeCache;
+import com.edu.platform.cache.CourseCompletionTracker;
+import com.edu.platform.cache.CourseDetailCache;
+import com.edu.platform.cache.CourseDetailSnapshot;
+import com.edu.platform.cache.PublishedCatalog;
 import com.edu.platform.constant.MessageConstant;
 import com.edu.platform.constant.StatusConstant;
 import com.edu.platform.context.BaseContext;
@@ -13,7 +19,12 @@ import com.edu.platform.exception.PermissionDeniedException;
 import com.edu.platform.mapper.CategoryMapper;
 import com.edu.platform.mapper.CourseMapper;
 import com.edu.platform.mapper.TeacherMapper;
+import com.edu.platform.result.CursorPageResult;
+import com.edu.platform.result.PageCursor;
 import com.edu.platform.result.PageResult;
+import com.edu.platform.search.CourseSearchHits;
+import com.edu.platform.search.CourseSearchIndex;
+import com.edu.platform.seat.SeatLedger;
 import com.edu.platform.server.CourseService;
 import com.edu.platform.server.UserService;
 import com.edu.platform.vo.ChapterVO;
@@ -29,7 +40,11 @@ import org.springframework.web.bind.annotation.RequestBody;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @Slf4j
@@ -44,6 +59,27 @@ public class CourseServiceImpl implements CourseService {
     @Autowired
     private TeacherMapper teacherMapper;
 
+    @Autowired
+    private CourseDetailCache courseDetailCache;
+
+    @Autowired
+    private CourseSearchIndex courseSearchIndex;
+
+    @Autowired
+    private PublishedCatalog publishedCatalog;
+
+    @Autowired
+    private CategoryTreeCache categoryTreeCache;
+
+    @Autowired
+    private SeatLedger seatLedger;
+
+    @Autowired
+    private CourseCompletionTracker courseCompletionTracker;
+
+    @Autowired
+    private LearningAnalytics learningAnalytics;
+
     /**
      * 新增课程
      *
@@ -96,6 +132,7 @@ public class CourseServiceImpl implements CourseService {
 
         // 6. 保存课程
         courseMapper.insert(course);
+        courseSearchIndex.onCourseSaved(course);
         log.info("新增课程成功，课程ID={}", course.getId());
 
     }
@@ -116,10 +153,29 @@ public class CourseServiceImpl implements CourseService {
             log.warn("新增课程失败：权限不足，角色={}", role);
             throw new PermissionDeniedException(MessageConstant.PERMISSION_DENIED);
         }
+        // 名额上限：不传保持原值，clearCapacity=true 改为不限
+        boolean clearCapacity = Boolean.TRUE.equals(courseUpdateDTO.getClearCapacity());
+        if (clearCapacity && courseUpdateDTO.getCapacity() != null) {
+            throw new IllegalArgumentException(MessageConstant.COURSE_CAPACITY_CONFLICT);
+        }
         BeanUtils.copyProperties(courseUpdateDTO, course);
         course.setId(id);
         course.setUpdateTime(LocalDateTime.now());
         courseMapper.updateCourse(course);
+        courseDetailCache.invalidate(id);
+        if (clearCapacity) {
+            courseMapper.clearCapacity(id, course.getUpdateTime());
+            seatLedger.onCapacityChanged(id, null);
+        } else if (course.getCapacity() != null) {
+            seatLedger.onCapacityChanged(id, course.getCapacity());
+        }
+        // 修改只携带部分字段，重新查询完整课程后更新检索索引
+        Course updated = courseMapper.selectById(id);
+        if (updated != null) {
+            courseSearchIndex.onCourseSaved(updated);
+            publishedCatalog.onCourseChanged(updated);
+        }
+        learningAnalytics.onCourseChanged(id);
         log.info("修改课程成功：id={}", id);
 
     }
@@ -165,6 +221,11 @@ public class CourseServiceImpl implements CourseService {
 
         // 5. 执行删除
         courseMapper.deleteById(id);
+        courseDetailCache.invalidate(id);
+        courseSearchIndex.onCourseDeleted(id);
+        publishedCatalog.onCourseDeleted(id);
+        seatLedger.onCourseDeleted(id);
+        learningAnalytics.onCourseChanged(id);
         log.info("删除课程成功：id={}", id);
     }
 
@@ -174,7 +235,25 @@ public class CourseServiceImpl implements CourseService {
      * @return 课程详情VO
      */
     public CourseDetailVO getCourseDetail(Long id) {
+        return getCourseDetailSnapshot(id).getDetail();
+    }
+
+    /**
+     * 获取课程详情快照（命中缓存时无需查库和序列化）
+     * @param id 课程ID
+     * @return 课程详情快照
+     */
+    public CourseDetailSnapshot getCourseDetailSnapshot(Long id) {
         log.info("查询课程详情：id={}", id);
+        return courseDetailCache.get(id, this::loadCourseDetail);
+    }
+
+    /**
+     * 从数据库加载课程详情（缓存未命中时调用）
+     * @param id 课程ID
+     * @return 课程详情VO
+     */
+    private CourseDetailVO loadCourseDetail(Long id) {
 
         // 1. 查询课程基本信息
         Course course = courseMapper.selectById(id);
@@ -183,15 +262,8 @@ public class CourseServiceImpl implements CourseService {
             throw new IllegalArgumentException(MessageConstant.COURSE_NOT_FOUND);
         }
 
-        // 2. 查询课程包含的章节
-        List<Chapter> chapterList = courseMapper.selectChaptersByCourseId(id);
-        if (chapterList != null && !chapterList.isEmpty()) {
-            // 3. 为每个章节查询关联的课时
-            for (Chapter chapter : chapterList) {
-                List<Video> videoList = courseMapper.selectByChapterId(chapter.getId());
-                chapter.setVideoList(videoList);
-            }
-        }
+        // 2. 查询课程包含的章节及课时（固定两条SQL，与章节数无关）
+        List<Chapter> chapterList = loadChapterOutline(id);
 
         // 4. 封装返回VO
         CourseDetailVO courseDetailVO = new CourseDetailVO();
@@ -210,6 +282,12 @@ public class CourseServiceImpl implements CourseService {
     public PageResult pageQuery(CoursePageQueryDTO coursePageQueryDTO) {
         log.info("课程分页查询：{}", coursePageQueryDTO);
 
+        // 有标题关键字时走检索索引（按相关度排序），避免 like '%xx%' 全表扫描
+        String title = coursePageQueryDTO.getTitle();
+        if (title != null && !title.trim().isEmpty()) {
+            return searchQuery(coursePageQueryDTO);
+        }
+
         // 开启分页
         PageHelper.startPage(coursePageQueryDTO.getPageNum(), coursePageQueryDTO.getPageSize());
 
@@ -220,6 +298,63 @@ public class CourseServiceImpl implements CourseService {
         return new PageResult(page.getTotal(), page.getResult());
     }
 
+    /**
+     * 基于检索索引的课程分页查询
+     * @param coursePageQueryDTO 分页查询参数（title 非空）
+     * @return 分页结果（按相关度排序）
+     */
+    private PageResult searchQuery(CoursePageQueryDTO coursePageQueryDTO) {
+        // 1. 规范分页参数（与 PageHelper reasonable 行为一致）
+        int pageNum = Math.max(coursePageQueryDTO.getPageNum(), 1);
+        int pageSize = coursePageQueryDTO.getPageSize() > 0 ? coursePageQueryDTO.getPageSize() : 10;
+
+        // 2. 确定分类筛选范围（包含子分类时取分类树快照中的整棵子树）
+        Long categoryId = coursePageQueryDTO.getCategoryId();
+        Set<Long> categoryIds = null;
+        if (categoryId != null) {
+            categoryIds = coursePageQueryDTO.isIncludeDescendants()
+                    ? categoryTreeCache.getSubtreeIds(categoryId)
+                    : Collections.singleton(categoryId);
+        }
+
+        // 3. 索引检索当前页课程ID
+        CourseSearchHits hits = courseSearchIndex.search(coursePageQueryDTO.getTitle(),
+                categoryIds, coursePageQueryDTO.getStatus(),
+                (pageNum - 1) * pageSize, pageSize);
+        if (hits.getCourseIds().isEmpty()) {
+            return new PageResult(hits.getTotal(), Collections.emptyList());
+        }
+
+        // 4. 一次回表查询课程，并按相关度顺序排列
+        Map<Long, Course> courseMap = new HashMap<>();
+        for (Course course : courseMapper.selectByIds(hits.getCourseIds())) {
+            courseMap.put(course.getId(), course);
+        }
+        List<Course> records = new ArrayList<>(hits.getCourseIds().size());
+        for (Long courseId : hits.getCourseIds()) {
+            Course course = courseMap.get(courseId);
+            if (course != null) {
+                records.add(course);
+            }
+        }
+        return new PageResult(hits.getTotal(), records);
+    }
+
+    /**
+     * 游标分页查询课程（按更新时间倒序，不执行count查询）
+     * @param coursePageQueryDTO 查询参数
+     * @return 游标分页结果
+     */
+    public CursorPageResult scrollQuery(CoursePageQueryDTO coursePageQueryDTO) {
+        log.info("课程游标分页查询：{}", coursePageQueryDTO);
+        int pageSize = CursorPageResult.normalizePageSize(coursePageQueryDTO.getPageSize());
+        PageCursor cursor = PageCursor.decode(coursePageQueryDTO.getCursor());
+
+        // 多查一条用于判断是否还有下一页
+        List<Course> rows = courseMapper.scrollQuery(coursePageQueryDTO, cursor, pageSize + 1);
+        return CursorPageResult.of(rows, pageSize, course -> new PageCursor(course.getUpdateTime(), course.getId()));
+    }
+
     /**
      * 根据课程ID查询章节和小节
      * @param courseId 课程ID
@@ -228,25 +363,48 @@ public class CourseServiceImpl implements CourseService {
     public List<ChapterVO> getChaptersWithVideos(Long courseId) {
         log.info("查询课程章节和小节：courseId={}", courseId);
 
-        // 1. 查询章节列表
-        List<Chapter> chapterList = courseMapper.selectByCourseId(courseId);
+        // 1. 批量加载章节及小节
+        List<Chapter> chapterList = loadChapterOutline(courseId);
 
-        // 2. 转换为VO并查询每个章节的小节
-        List<ChapterVO> chapterVOList = new ArrayList<>();
+        // 2. 转换为VO
+        List<ChapterVO> chapterVOList = new ArrayList<>(chapterList.size());
         for (Chapter chapter : chapterList) {
             ChapterVO chapterVO = new ChapterVO();
             BeanUtils.copyProperties(chapter, chapterVO);
-
-            // 3. 查询当前章节的小节
-            List<Video> videoList = courseMapper.selectByChapterId(chapter.getId());
-            chapterVO.setVideoList(videoList);
-
             chapterVOList.add(chapterVO);
         }
 
         return chapterVOList;
     }
 
+    /**
+     * 加载课程大纲：一条SQL查章节，一条IN查询取全部课时，再在内存中按章节分组
+     * @param courseId 课程ID
+     * @return 章节列表（videoList已填充，按sort排序）
+     */
+    private List<Chapter> loadChapterOutline(Long courseId) {
+        List<Chapter> chapterList = courseMapper.selectChaptersByCourseId(courseId);
+        if (chapterList == null || chapterList.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> chapterIds = new ArrayList<>(chapterList.size());
+        for (Chapter chapter : chapterList) {
+            chapterIds.add(chapter.getId());
+        }
+
+        // 课时已按 chapter_id, sort 排序，分组后各章节内顺序保持不变
+        Map<Long, List<Video>> videoMap = new HashMap<>();
+        for (Video video : courseMapper.selectByChapterIds(chapterIds)) {
+            videoMap.computeIfAbsent(video.getChapterId(), k -> new ArrayList<>()).add(video);
+        }
+
+        for (Chapter chapter : chapterList) {
+            chapter.setVideoList(videoMap.getOrDefault(chapter.getId(), new ArrayList<>()));
+        }
+        return chapterList;
+    }
+
     /**
      * 新增章节（仅课程创建者可操作）
      * @param chapterAddDTO 章节信息
@@ -277,6 +435,7 @@ public class CourseServiceImpl implements CourseService {
 
         // 4. 保存章节
         courseMapper.insertChapter(chapter);
+        courseDetailCache.invalidate(courseId);
     }
 
     /**
@@ -315,6 +474,7 @@ public class CourseServiceImpl implements CourseService {
         updateChapter.setUpdateTime(LocalDateTime.now());
 
         courseMapper.updateChapter(updateChapter);
+        courseDetailCache.invalidate(courseId);
     }
 
     /**
@@ -353,6 +513,7 @@ public class CourseServiceImpl implements CourseService {
 
         // 5. 执行删除
         courseMapper.deleteByChapterId(id);
+        courseDetailCache.invalidate(courseId);
     }
 
     /**
@@ -395,6 +556,8 @@ public class CourseServiceImpl implements CourseService {
 
         // 5. 保存课时
         courseMapper.insertVideo(video);
+        courseDetailCache.invalidate(courseId);
+        courseCompletionTracker.onVideoAdded(video.getId(), courseId, video.getDuration());
         log.info("新增课时成功，课时ID={}", video.getId());
     }
 
@@ -442,14 +605,74 @@ public class CourseServiceImpl implements CourseService {
 
         // 6. 执行更新
         courseMapper.updateVideo(updateVideo);
+        courseDetailCache.invalidate(courseId);
+        // 7. 时长变化会改变看完阈值，重算该课程的完成度
+        if (videoUpdateDTO.getDuration() != null && !videoUpdateDTO.getDuration().equals(video.getDuration())) {
+            courseCompletionTracker.onVideoDurationChanged(id, courseId, videoUpdateDTO.getDuration());
+        }
         log.info("修改课时成功：id={}", id);
     }
 
+    /**
+     * 删除课时（仅课程创建者可操作）
+     * @param id 课时ID
+     */
+    @Transactional
+    public void deleteVideo(Long id) {
+        log.info("删除课时：id={}", id);
+
+        // 1. 获取当前登录用户
+        Long currentUserId = BaseContext.getUserId();
+        Teacher teacher = teacherMapper.get(currentUserId);
+
+        // 2. 验证课时是否存在
+        Video video = courseMapper.selectVideoById(id);
+        if (video == null) {
+            throw new BaseException(MessageConstant.VIDEO_NOT_FOUND);
+        }
+
+        // 3. 通过章节ID查询课程信息
+        Chapter chapter = courseMapper.selectChapterById(video.getChapterId());
+        if (chapter == null) {
+            throw new BaseException(MessageConstant.CHAPTER_NOT_FOUND);
+        }
+
+        // 4. 验证当前用户是否为课程创建者
+        Long courseId = chapter.getCourseId();
+        Course course = courseMapper.selectById(courseId);
+        if (course == null) {
+            throw new BaseException(MessageConstant.COURSE_NOT_FOUND);
+        }
+        if (!teacher.getId().equals(course.getTeacherId())) {
+            throw new BaseException(MessageConstant.PERMISSION_DENIED);
+        }
+
+        // 5. 执行删除（学习记录保留，完成度按剩余课时重算）
+        courseMapper.deleteVideo(id);
+        courseDetailCache.invalidate(courseId);
+        courseCompletionTracker.onVideoDeleted(id, courseId);
+        log.info("删除课时成功：id={}", id);
+    }
+
     /**
      * 查询已发布的课程列表
      */
     public List<Course> findPublishedCourses() {
-        // 查询状态为“已发布”（假设1代表已发布）的课程
-        return courseMapper.selectPublishedCourses();
+        // 状态为“已发布”的课程由内存目录维护
+        return publishedCatalog.list();
+    }
+
+    /**
+     * 分页查询已发布课程
+     * @param categoryId 分类ID（可选）
+     * @param excludeCourseIds 需要排除的课程ID（可选）
+     * @param pageNum 页码
+     * @param pageSize 每页条数
+     * @return 分页结果
+     */
+    public PageResult pagePublishedCourses(Long categoryId, Set<Long> excludeCourseIds, int pageNum, int pageSize) {
+        int num = Math.max(pageNum, 1);
+        int size = pageSize > 0 ? Math.min(pageSize, 100) : 10;
+        return publishedCatalog.page(categoryId, excludeCourseIds, num, size);
     }
 }
\ No newline at end of file
@@ -0,0 +1,88 @@
+package com.edu.platform.server.impl;
+
+import com.edu.platform.analytics.LearningAnalytics;
+import com.edu.platform.batch.LearnProgressBuffer;
+import com.edu.platform.cache.CourseCompletionTracker;
+import com.edu.platform.cache.UserProfileCache;
+import com.edu.platform.constant.MessageConstant;
+import com.edu.platform.context.BaseContext;
+import com.edu.platform.dto.LearnProgressDTO;
+import com.edu.platform.entity.UserProfile;
+import com.edu.platform.exception.AccountNotFoundException;
+import com.edu.platform.exception.BaseException;
+import com.edu.platform.mapper.CourseMapper;
+import com.edu.platform.server.LearnService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+@Slf4j
+public class LearnServiceImpl implements LearnService {
+
+    @Autowired
+    private LearnProgressBuffer learnProgressBuffer;
+
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    @Autowired
+    private CourseMapper courseMapper;
+
+    @Autowired
+    private CourseCompletionTracker courseCompletionTracker;
+
+    @Autowired
+    private LearningAnalytics learningAnalytics;
+
+    /**
+     * 上报学习进度（只写内存，定时批量落库）
+     * @param learnProgressDTO
+     */
+    public void reportProgress(LearnProgressDTO learnProgressDTO) {
+        Long studentId = currentStudentId();
+        Long videoId = learnProgressDTO.getVideoId();
+
+        // 1. 首次上报时校验课时存在，之后的心跳不再查库
+        if (!learnProgressBuffer.isTracked(studentId, videoId) && courseMapper.selectVideoById(videoId) == null) {
+            log.warn("学习进度上报失败：课时不存在，videoId={}", videoId);
+            throw new BaseException(MessageConstant.VIDEO_NOT_FOUND);
+        }
+
+        // 2. 合并到内存进度（只保留最大值）
+        int progress = learnProgressDTO.getProgress();
+        int previous = learnProgressBuffer.report(studentId, videoId, progress);
+
+        // 3. 首次达到看完阈值时更新课程完成度
+        int current = Math.max(previous, progress);
+        courseCompletionTracker.onProgress(studentId, videoId, previous, current);
+
+        // 4. 计入学习统计（活跃人数、观看时长）
+        Long courseId = courseCompletionTracker.getCourseId(videoId);
+        if (courseId != null) {
+            learningAnalytics.onProgress(studentId, courseId, previous, current);
+        }
+    }
+
+    /**
+     * 查询续播位置
+     * @param videoId
+     * @return
+     */
+    public int getResumePosition(Long videoId) {
+        return learnProgressBuffer.getProgress(currentStudentId(), videoId);
+    }
+
+    /**
+     * 当前登录学生的学生ID（edu_student.id）
+     */
+    private Long currentStudentId() {
+        Long userId = BaseContext.getUserId();
+        UserProfile profile = userProfileCache.get(userId);
+        if (profile == null || profile.getStudentId() == null) {
+            log.warn("学习进度操作失败：学生不存在，userId={}", userId);
+            throw new AccountNotFoundException(MessageConstant.STUDENT_NOT_FOUND);
+        }
+        return profile.getStudentId();
+    }
+}
@@ -0,0 +1,121 @@
+package com.edu.platform.server.impl;
+
+import com.edu.platform.cache.CacheStats;
+import com.edu.platform.cache.CourseDetailCache;
+import com.edu.platform.cache.EnrollmentIndex;
+import com.edu.platform.cache.EnrollmentIndexStats;
+import com.edu.platform.cache.UserProfileCache;
+import com.edu.platform.cache.VerifiedTokenCache;
+import com.edu.platform.constant.MessageConstant;
+import com.edu.platform.context.BaseContext;
+import com.edu.platform.exception.PermissionDeniedException;
+import com.edu.platform.pay.PayCallbackInbox;
+import com.edu.platform.pay.PayCallbackStats;
+import com.edu.platform.pay.PaymentSettlementEngine;
+import com.edu.platform.pay.SettlementStats;
+import com.edu.platform.security.PasswordHashStats;
+import com.edu.platform.security.PasswordHasher;
+import com.edu.platform.server.MonitorService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+@Slf4j
+public class MonitorServiceImpl implements MonitorService {
+
+    @Autowired
+    private CourseDetailCache courseDetailCache;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    @Autowired
+    private EnrollmentIndex enrollmentIndex;
+
+    @Autowired
+    private PaymentSettlementEngine paymentSettlementEngine;
+
+    @Autowired
+    private PayCallbackInbox payCallbackInbox;
+
+    /**
+     * 查询课程详情缓存统计
+     * @return 缓存统计
+     */
+    public CacheStats getCourseDetailCacheStats() {
+        checkAdmin();
+        return courseDetailCache.stats();
+    }
+
+    /**
+     * 查询已校验令牌缓存统计
+     * @return 缓存统计
+     */
+    public CacheStats getVerifiedTokenCacheStats() {
+        checkAdmin();
+        return verifiedTokenCache.stats();
+    }
+
+    /**
+     * 查询用户档案缓存统计
+     * @return 缓存统计
+     */
+    public CacheStats getUserProfileCacheStats() {
+        checkAdmin();
+        return userProfileCache.stats();
+    }
+
+    /**
+     * 查询密码哈希线程池统计
+     * @return 线程池统计
+     */
+    public PasswordHashStats getPasswordHashStats() {
+        checkAdmin();
+        return passwordHasher.stats();
+    }
+
+    /**
+     * 查询选课索引统计
+     * @return 索引统计
+     */
+    public EnrollmentIndexStats getEnrollmentIndexStats() {
+        checkAdmin();
+        return enrollmentIndex.stats();
+    }
+
+    /**
+     * 查询支付结算统计
+     * @return 结算统计
+     */
+    public SettlementStats getSettlementStats() {
+        checkAdmin();
+        return paymentSettlementEngine.stats();
+    }
+
+    /**
+     * 查询支付回调收件箱统计
+     * @return 回调处理统计
+     */
+    public PayCallbackStats getPayCallbackStats() {
+        checkAdmin();
+        return payCallbackInbox.stats();
+    }
+
+    /**
+     * 校验当前登录用户是否为管理员
+     */
+    private void checkAdmin() {
+        Integer role = BaseContext.getUserRole();
+        if (role == null || role != 3) { // 3-管理员角色
+            log.warn("查询监控信息失败：非管理员操作，当前角色={}", role);
+            throw new PermissionDeniedException(MessageConstant.ROLE_ERROR);
+        }
+    }
+}
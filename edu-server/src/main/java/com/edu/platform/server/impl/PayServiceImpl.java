@@ -1,24 +1,40 @@
 package com.edu.platform.server.impl;
 
+import com.edu.platform.cache.UserProfileCache;
 import com.edu.platform.constant.MessageConstant;
 import com.edu.platform.context.BaseContext;
 import com.edu.platform.dto.OrderCreateDTO;
 import com.edu.platform.dto.OrderQueryDTO;
+import com.edu.platform.dto.PayCallbackDTO;
 import com.edu.platform.dto.PayCreateDTO;
 import com.edu.platform.entity.*;
 import com.edu.platform.exception.BaseException;
 import com.edu.platform.mapper.*;
+import com.edu.platform.pay.OrderExpiryScheduler;
+import com.edu.platform.pay.OrderNoGenerator;
+import com.edu.platform.pay.OrderStatusWaiters;
+import com.edu.platform.pay.PayCallbackInbox;
+import com.edu.platform.pay.PayCallbackSigner;
+import com.edu.platform.pay.PaymentSettlementEngine;
+import com.edu.platform.result.CursorPageResult;
+import com.edu.platform.result.PageCursor;
 import com.edu.platform.result.PageResult;
+import com.edu.platform.result.Result;
 import com.edu.platform.server.PayService;
+import com.edu.platform.utils.SingleFlight;
 import com.github.pagehelper.Page;
 import com.github.pagehelper.PageHelper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
+import java.util.Collections;
+import java.util.List;
 
 @Service
 @Slf4j
@@ -27,80 +43,99 @@ public class PayServiceImpl implements PayService {
     @Autowired
     private PayOrderMapper payOrderMapper;
     @Autowired
-    private PayLogMapper payLogMapper;
-    @Autowired
     private CourseMapper courseMapper;
     @Autowired
-    private StudentMapper studentMapper;
+    private UserProfileCache userProfileCache;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private PaymentSettlementEngine paymentSettlementEngine;
+    @Autowired
+    private OrderExpiryScheduler orderExpiryScheduler;
     @Autowired
-    private TeacherMapper teacherMapper;
+    private OrderNoGenerator orderNoGenerator;
+    @Autowired
+    private PayCallbackInbox payCallbackInbox;
+
+    @Autowired
+    private PayCallbackSigner payCallbackSigner;
+    @Autowired
+    private OrderStatusWaiters orderStatusWaiters;
+
+    // 同一用户同一课程的下单请求合并
+    private final SingleFlight<String, String> orderCreation = new SingleFlight<>();
 
     /**
-     * 创建支付订单
+     * 创建支付订单（同一用户同一课程的并发请求合并为一次执行，共享同一个订单号）
      * @param orderCreateDTO
      * @return
      */
-    @Transactional
     public String createOrder(OrderCreateDTO orderCreateDTO) {
         log.info("创建支付订单：{}", orderCreateDTO);
         Integer userRole = BaseContext.getUserRole();
         Long userId = BaseContext.getUserId();
         Long courseId = orderCreateDTO.getCourseId();
+        return orderCreation.execute(userId + ":" + courseId,
+                () -> doCreateOrder(userRole, userId, courseId, orderCreateDTO.getPayType()));
+    }
 
+    /**
+     * 创建支付订单（实际执行）
+     */
+    private String doCreateOrder(Integer userRole, Long userId, Long courseId, Integer payType) {
         // 1. 校验课程是否存在
         Course course = courseMapper.selectById(courseId);
         if (course == null) {
             throw new BaseException(MessageConstant.COURSE_NOT_FOUND);
         }
 
-        // 定义用户关联ID（学生/教师ID）
-        Long relatedUserId = null;
-        // 先查询是否存在未支付订单（初始化为null）
-        EduPayOrder unpaidOrder = null;
-
-        // 2. 根据角色处理学生/教师信息，并查询未支付订单
+        // 2. 根据角色校验学生/教师信息（读取用户档案缓存）
+        UserProfile profile = userProfileCache.get(userId);
         if (userRole == 1) { // 学生角色
-            Student student = studentMapper.getById(userId);
-            if (student == null) { // 增加学生信息校验
+            if (profile == null || profile.getStudentId() == null) {
                 throw new BaseException(MessageConstant.STUDENT_NOT_FOUND);
             }
-            relatedUserId = student.getId();
-            unpaidOrder = payOrderMapper.selectUnpaidByUserAndCourse(relatedUserId, courseId);
         } else if (userRole == 2) { // 教师角色
-            Teacher teacher = teacherMapper.get(userId);
-            if (teacher == null) { // 增加教师信息校验
+            if (profile == null || profile.getTeacherId() == null) {
                 throw new BaseException(MessageConstant.TEACHER_NOT_FOUND);
             }
-            relatedUserId = teacher.getId();
-            unpaidOrder = payOrderMapper.selectUnpaidByUserAndCourse(relatedUserId, courseId);
         } else { // 不支持的角色
             throw new BaseException(MessageConstant.INVALID_USER_ROLE);
         }
 
-        // 3. 校验是否已存在未支付订单，存在则直接返回订单号
+        // 3. 校验是否已存在未支付订单，存在则直接返回订单号（订单的 user_id 为用户ID）
+        EduPayOrder unpaidOrder = payOrderMapper.selectUnpaidByUserAndCourse(userId, courseId);
         if (unpaidOrder != null) {
             log.warn("存在未支付订单：{}", unpaidOrder.getOrderNo());
             return unpaidOrder.getOrderNo();
         }
 
-        // 4. 初始化订单对象（此时一定是新订单，不会为null）
+        // 4. 封装订单信息
         EduPayOrder order = new EduPayOrder();
-
-        // 5. 生成订单编号（UUID简化）
-        String orderNo = "ORDER_" + UUID.randomUUID().toString().replace("-", "").substring(0, 16);
-
-        // 6. 封装订单信息
+        String orderNo = orderNoGenerator.nextOrderNo(); // 时间有序，唯一索引顺序写入
         order.setOrderNo(orderNo);
-        order.setUserId(userId); // 统一设置用户关联ID
+        order.setUserId(userId);
         order.setCourseId(courseId);
         order.setTotalFee(course.getPrice()); // 课程价格作为支付金额
-        order.setPayType(orderCreateDTO.getPayType());
+        order.setPayType(payType);
         order.setStatus(0); // 0-待支付
         order.setCreateTime(LocalDateTime.now());
         order.setUpdateTime(LocalDateTime.now());
 
-        // 7. 保存订单
-        payOrderMapper.insert(order);
+        // 5. 保存订单；其他实例并发创建时由未支付订单唯一键兜底，返回已存在的订单号
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                payOrderMapper.insert(order);
+                orderExpiryScheduler.register(orderNo, order.getCreateTime());
+            });
+        } catch (DuplicateKeyException e) {
+            EduPayOrder existing = payOrderMapper.selectUnpaidByUserAndCourse(userId, courseId);
+            if (existing == null) {
+                throw e;
+            }
+            log.warn("并发创建订单，返回已存在的未支付订单：{}", existing.getOrderNo());
+            return existing.getOrderNo();
+        }
         log.info("订单创建成功：{}", orderNo);
         return orderNo;
     }
@@ -133,6 +168,7 @@ public class PayServiceImpl implements PayService {
         order.setStatus(2);
         order.setUpdateTime(LocalDateTime.now());
         payOrderMapper.updateStatus(order);
+        orderStatusWaiters.notifyAfterCommit(Collections.singletonList(orderNo), 2, order.getUpdateTime());
         log.info("订单取消成功：{}", orderNo);
     }
 
@@ -152,6 +188,21 @@ public class PayServiceImpl implements PayService {
         return new PageResult(page.getTotal(), page.getResult());
     }
 
+    /**
+     * 游标分页查询用户订单（按创建时间倒序，不执行count查询）
+     * @param queryDTO
+     * @return
+     */
+    public CursorPageResult scrollUserOrders(OrderQueryDTO queryDTO) {
+        log.info("游标分页查询用户订单：{}", queryDTO);
+        Long userId = BaseContext.getUserId();
+        int pageSize = CursorPageResult.normalizePageSize(queryDTO.getPageSize());
+        PageCursor cursor = PageCursor.decode(queryDTO.getCursor());
+
+        List<EduPayOrder> rows = payOrderMapper.scrollQueryByUser(userId, queryDTO, cursor, pageSize + 1);
+        return CursorPageResult.of(rows, pageSize, order -> new PageCursor(order.getCreateTime(), order.getId()));
+    }
+
 
     /**
      * 创建支付
@@ -184,72 +235,28 @@ public class PayServiceImpl implements PayService {
             throw new BaseException("不支持的支付方式");
         }
 
-        // 3. 这里可以添加一个模拟的支付成功回调处理
+        // 3. 模拟支付网关延迟确认（由结算引擎排期并批量落库）
         // 实际项目中这会由第三方支付平台异步调用
-        simulatePaymentSuccess(orderNo);
+        paymentSettlementEngine.schedule(orderNo);
 
         return payInfo;
     }
 
-    // 添加模拟支付成功的方法
-    private void simulatePaymentSuccess(String orderNo) {
-        // 模拟1秒后支付成功（实际中是异步回调）
-        new Thread(() -> {
-            try {
-                Thread.sleep(1000);
-
-                EduPayOrder order = payOrderMapper.selectByOrderNo(orderNo);
-                if (order != null && order.getStatus() == 0) {
-                    // 更新订单状态为已支付
-                    order.setStatus(1); // 1-已支付
-                    order.setUpdateTime(LocalDateTime.now());
-                    payOrderMapper.updateStatus(order);
-
-                    // 记录支付日志
-                    EduPayLog payLog = new EduPayLog();
-                    payLog.setOrderNo(orderNo);
-                    payLog.setPayTime(LocalDateTime.now());
-                    payLog.setPayPlatform(order.getPayType());
-                    payLog.setTradeNo("MOCK_TRADE_" + System.currentTimeMillis());
-                    payLog.setCreateTime(LocalDateTime.now());
-                    payLogMapper.insert(payLog);
-
-                    log.info("模拟支付成功，订单号: {}", orderNo);
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                log.error("模拟支付处理中断", e);
-            }
-        }).start();
-    }
-
     /**
-     * 支付回调处理
+     * 支付回调处理（先校验网关签名，再去重落库后立即返回，订单状态由回调收件箱异步批量变更）
+     * @return true-新回调已接收，false-重复回调
      */
-    @Transactional
-    public void handlePayCallback(String orderNo, String tradeNo, Integer payPlatform, String callbackContent) {
-        // 1. 查询订单
-        EduPayOrder order = payOrderMapper.selectByOrderNo(orderNo);
-        if (order == null) {
-            throw new BaseException(MessageConstant.ORDER_NOT_FOUND);
+    public boolean handlePayCallback(PayCallbackDTO payCallbackDTO) {
+        String orderNo = payCallbackDTO.getOrderNo();
+        String tradeNo = payCallbackDTO.getTradeNo();
+        if (!payCallbackSigner.verify(payCallbackDTO)) {
+            log.warn("支付回调签名校验失败：orderNo={}，tradeNo={}", orderNo, tradeNo);
+            throw new BaseException(MessageConstant.PAY_CALLBACK_SIGN_INVALID);
         }
-
-        // 2. 更新订单状态为已支付
-        order.setStatus(1); // 1-已支付
-        order.setPayTime(LocalDateTime.now());
-        order.setUpdateTime(LocalDateTime.now());
-        payOrderMapper.updateStatus(order);
-
-        // 3. 记录支付日志（核心逻辑）
-        EduPayLog payLog = new EduPayLog();
-        payLog.setOrderNo(orderNo);
-        payLog.setTradeNo(tradeNo);
-        payLog.setPayPlatform(payPlatform);
-        payLog.setCallbackContent(callbackContent);
-        payLog.setCreateTime(LocalDateTime.now());
-        payLogMapper.insert(payLog); // 调用日志Mapper插入记录
-
-        log.info("支付日志记录成功：{}", orderNo);
+        boolean accepted = payCallbackInbox.accept(orderNo, tradeNo, payCallbackDTO.getPayPlatform(),
+                payCallbackDTO.getTotalFee(), payCallbackDTO.getCallbackContent());
+        log.info("支付回调已接收：orderNo={}，tradeNo={}，重复={}", orderNo, tradeNo, !accepted);
+        return accepted;
     }
 
     public EduPayOrder getOrderByNo(String orderNo) {
@@ -263,4 +270,41 @@ public class PayServiceImpl implements PayService {
 
         return order;
     }
-}
\ No newline at end of file
+
+    /**
+     * 等待订单状态变化（长轮询）：待支付订单挂起到支付、取消、超时关闭或等待超时，其他状态立即返回
+     * @param orderNo
+     * @return
+     */
+    public DeferredResult<Result<EduPayOrder>> waitOrderStatus(String orderNo) {
+        Long userId = BaseContext.getUserId();
+
+        // 1. 先登记等待者，再查库（查库之后的状态变化一定会被通知到）
+        OrderStatusWaiters.Waiter waiter = orderStatusWaiters.register(orderNo);
+        EduPayOrder order;
+        try {
+            order = payOrderMapper.selectByOrderNo(orderNo);
+            if (order == null) {
+                throw new BaseException(MessageConstant.ORDER_NOT_FOUND);
+            }
+            // 2. 验证订单归属
+            if (!order.getUserId().equals(userId)) {
+                throw new BaseException(MessageConstant.PERMISSION_DENIED);
+            }
+        } catch (RuntimeException e) {
+            if (waiter != null) {
+                orderStatusWaiters.remove(orderNo, waiter);
+            }
+            throw e;
+        }
+
+        // 3. 等待数已达上限时直接返回当前状态
+        if (waiter == null) {
+            DeferredResult<Result<EduPayOrder>> result = new DeferredResult<>();
+            result.setResult(Result.success(order));
+            return result;
+        }
+        waiter.arm(order);
+        return waiter.getResult();
+    }
+}
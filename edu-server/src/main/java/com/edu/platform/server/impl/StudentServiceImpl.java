@@ -1,27 +1,43 @@
 package com.edu.platform.server.impl;
 
+import com.edu.platform.analytics.LearningAnalytics;
+import com.edu.platform.batch.EnrollBatchWriter;
+import com.edu.platform.cache.CompactIdSet;
+import com.edu.platform.cache.CourseCompletionTracker;
+import com.edu.platform.cache.EnrollmentIndex;
+import com.edu.platform.cache.UserProfileCache;
 import com.edu.platform.constant.MessageConstant;
 import com.edu.platform.context.BaseContext;
 import com.edu.platform.dto.StudentUpdateDTO;
 import com.edu.platform.entity.Course;
 import com.edu.platform.entity.Enroll;
 import com.edu.platform.entity.Student;
+import com.edu.platform.entity.UserProfile;
+import com.edu.platform.exception.AccountNotFoundException;
 import com.edu.platform.exception.ParameterInvalidException;
 import com.edu.platform.mapper.CourseMapper;
 import com.edu.platform.mapper.StudentMapper;
+import com.edu.platform.result.CursorPageResult;
+import com.edu.platform.result.PageCursor;
 import com.edu.platform.result.PageResult;
+import com.edu.platform.seat.SeatLedger;
+import com.edu.platform.server.CourseService;
 import com.edu.platform.server.StudentService;
+import com.edu.platform.vo.SelectedCourseVO;
 import com.edu.platform.vo.StudentInfoVO;
 import com.github.pagehelper.Page;
 import com.github.pagehelper.PageHelper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @Slf4j
@@ -33,6 +49,27 @@ public class StudentServiceImpl implements StudentService {
     @Autowired
     private CourseMapper courseMapper;
 
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    @Autowired
+    private EnrollBatchWriter enrollBatchWriter;
+
+    @Autowired
+    private SeatLedger seatLedger;
+
+    @Autowired
+    private EnrollmentIndex enrollmentIndex;
+
+    @Autowired
+    private CourseCompletionTracker courseCompletionTracker;
+
+    @Autowired
+    private LearningAnalytics learningAnalytics;
+
     /**
      * 完善学生信息
      * @param studentUpdateDTO
@@ -68,6 +105,7 @@ public class StudentServiceImpl implements StudentService {
         if(studentUpdateDTO.getNickName() != null || studentUpdateDTO.getAvatar() != null){
             studentMapper.updateUser(student,id);
         }
+        userProfileCache.invalidate(id);
         log.info("用户信息修改成功：{}", studentUpdateDTO);
     }
 
@@ -79,21 +117,24 @@ public class StudentServiceImpl implements StudentService {
      */
     public StudentInfoVO getInfo(Long id) {
         log.info("学生信息获取");
-        Student student1 = studentMapper.getInfo(id);
-        Student student2 = studentMapper.getById(id);
+        UserProfile profile = userProfileCache.get(id);
+        if (profile == null || profile.getStudentId() == null) {
+            log.warn("学生信息获取失败：学生不存在，ID={}", id);
+            throw new AccountNotFoundException(MessageConstant.STUDENT_NOT_FOUND);
+        }
 
         StudentInfoVO studentInfoVO = StudentInfoVO.builder()
                 .id(id)
-                .realName(student2.getRealName())
-                .school(student2.getSchool())
-                .grade(student2.getGrade())
-                .nikeName(student1.getNickName())
-                .avatar(student1.getAvatar())
-                .phone(student1.getPhone())
-                .email(student1.getEmail())
-                .introduction(student2.getIntroduction())
-                .createTime(student1.getCreateTime())
-                .updateTime(student1.getUpdateTime())
+                .realName(profile.getStudentRealName())
+                .school(profile.getSchool())
+                .grade(profile.getGrade())
+                .nikeName(profile.getNickname())
+                .avatar(profile.getAvatar())
+                .phone(profile.getPhone())
+                .email(profile.getEmail())
+                .introduction(profile.getStudentIntroduction())
+                .createTime(profile.getCreateTime())
+                .updateTime(profile.getUpdateTime())
                 .build();
         return studentInfoVO;
     }
@@ -104,8 +145,6 @@ public class StudentServiceImpl implements StudentService {
      * @return
      */
     public void  select(Long courseId) {
-        // 生成选课时间（当前时间）
-        LocalDateTime enrollTime = LocalDateTime.now();
         Long id = BaseContext.getUserId();
         Integer role = BaseContext.getUserRole(); // 需要在BaseContext中添加获取角色的方法
 
@@ -114,30 +153,45 @@ public class StudentServiceImpl implements StudentService {
             throw new RuntimeException("仅学生账号可进行选课操作");
         }
 
-        Course course = courseMapper.selectById(courseId);
-        if (course == null) {
+        // 校验课程是否存在（读取课程详情缓存，热门课程无需查库）
+        try {
+            courseService.getCourseDetailSnapshot(courseId);
+        } catch (IllegalArgumentException e) {
             log.warn("选课失败：课程不存在，courseId={}", courseId);
             throw new RuntimeException("课程不存在或已被删除");
         }
 
-        // 校验学生ID是否存在于edu_student表
-        Student student = studentMapper.getById(id);
-        if (student == null) {
+        // 校验学生ID是否存在于edu_student表（读取用户档案缓存）
+        UserProfile profile = userProfileCache.get(id);
+        if (profile == null || profile.getStudentId() == null) {
             throw new RuntimeException("学生信息不存在，无法选课");
         }
-        Long studentId = student.getId();
+        Long studentId = profile.getStudentId();
 
+        // 占用名额（内存原子操作，名额已满直接返回，不会超卖）
+        if (!seatLedger.reserve(courseId)) {
+            log.warn("选课失败：课程名额已满，courseId={}", courseId);
+            throw new RuntimeException(MessageConstant.COURSE_FULL);
+        }
+
+        // 进入批量写入队列，等待本条记录的写入结果（重复选课由唯一键判定）
+        EnrollBatchWriter.Result result;
         try {
-            studentMapper.select(studentId, courseId, enrollTime);
-            log.info("学生选课成功：studentId={}, courseId={}", id, courseId);
-        } catch (DuplicateKeyException e) {
-            // 捕获唯一约束异常（已选该课程）
+            result = enrollBatchWriter.enroll(studentId, courseId);
+        } catch (RuntimeException e) {
+            // 抛出异常时记录一定未写入（超时的请求已撤销，正在写入的会等到结果），可以释放名额
+            seatLedger.release(courseId);
+            throw e;
+        }
+        if (result == EnrollBatchWriter.Result.DUPLICATE) {
+            seatLedger.release(courseId);
             log.warn("选课失败：学生{}已选课程{}", id, courseId);
             throw new RuntimeException(MessageConstant.ENROLL_ALREADY_EXISTS);
-        } catch (Exception e) {
-            log.error("选课数据库操作失败", e);
-            throw new RuntimeException(MessageConstant.OPERATION_FAILED);
         }
+        seatLedger.confirm(courseId);
+        enrollmentIndex.onEnrolled(studentId, courseId);
+        learningAnalytics.onEnrolled(studentId, courseId);
+        log.info("学生选课成功：studentId={}, courseId={}", id, courseId);
     }
 
     /**
@@ -172,6 +226,8 @@ public class StudentServiceImpl implements StudentService {
         if (affectedRows == 0) {
             throw new RuntimeException("退课失败，请重试");
         }
+        seatLedger.releaseAfterCommit(courseId);
+        enrollmentIndex.onQuit(student.getId(), courseId);
     }
 
     /**
@@ -192,7 +248,68 @@ public class StudentServiceImpl implements StudentService {
         Page<Course> page = studentMapper.selectSelectedCourses(student.getId());
 
         List<Course> records = page.getResult();
+        // 填充学习完成度（读内存计数器，不额外查库）
+        records.forEach(course -> course.setCompletion(courseCompletionTracker.getCompletion(student.getId(), course.getId())));
         // 封装分页结果
         return new PageResult(page.getTotal(), records);
     }
+
+    /**
+     * 游标分页查询已选课程（按选课时间倒序，不执行count查询）
+     * @param studentId
+     * @param cursor
+     * @param pageSize
+     * @return
+     */
+    public CursorPageResult scrollSelectedCourses(Long studentId, String cursor, int pageSize) {
+        log.info("游标分页查询学生已选课程：studentId={}, cursor={}, pageSize={}", studentId, cursor, pageSize);
+        Student student = studentMapper.getById(studentId);
+        int size = CursorPageResult.normalizePageSize(pageSize);
+
+        List<SelectedCourseVO> rows = studentMapper.scrollSelectedCourses(student.getId(), PageCursor.decode(cursor), size + 1);
+        rows.forEach(course -> course.setCompletion(courseCompletionTracker.getCompletion(student.getId(), course.getId())));
+        return CursorPageResult.of(rows, size, course -> new PageCursor(course.getEnrollTime(), course.getId()));
+    }
+
+    /**
+     * 分页查询可选课程（课程数据来自内存目录，已选课程来自选课索引）
+     * @param userId
+     * @param categoryId
+     * @param excludeEnrolled
+     * @param pageNum
+     * @param pageSize
+     * @return
+     */
+    public PageResult getAvailableCourses(Long userId, Long categoryId, boolean excludeEnrolled, int pageNum, int pageSize) {
+        log.info("查询可选课程：userId={}, categoryId={}, excludeEnrolled={}, pageNum={}, pageSize={}",
+                userId, categoryId, excludeEnrolled, pageNum, pageSize);
+        Set<Long> enrolledCourseIds = null;
+        if (excludeEnrolled) {
+            UserProfile profile = userProfileCache.get(userId);
+            if (profile != null && profile.getStudentId() != null) {
+                enrolledCourseIds = new HashSet<>();
+                for (int courseId : enrollmentIndex.getCourses(profile.getStudentId()).toArray()) {
+                    enrolledCourseIds.add((long) courseId);
+                }
+            }
+        }
+        return courseService.pagePublishedCourses(categoryId, enrolledCourseIds, pageNum, pageSize);
+    }
+
+    /**
+     * 批量查询是否已选课程（读取选课索引，不查库）
+     * @param userId
+     * @param courseIds
+     * @return
+     */
+    public Map<Long, Boolean> getEnrolledFlags(Long userId, List<Long> courseIds) {
+        Map<Long, Boolean> flags = new LinkedHashMap<>();
+        UserProfile profile = userProfileCache.get(userId);
+        CompactIdSet enrolled = profile == null || profile.getStudentId() == null
+                ? CompactIdSet.EMPTY : enrollmentIndex.getCourses(profile.getStudentId());
+        for (Long courseId : courseIds) {
+            flags.put(courseId, enrolled.contains(courseId));
+        }
+        return flags;
+    }
 }
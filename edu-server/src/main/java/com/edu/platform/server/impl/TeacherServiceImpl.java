@@ -1,10 +1,12 @@
 package com.edu.platform.server.impl;
 
+import com.edu.platform.cache.UserProfileCache;
 import com.edu.platform.constant.MessageConstant;
 import com.edu.platform.context.BaseContext;
 import com.edu.platform.dto.TeacherUpdateDTO;
 import com.edu.platform.entity.Course;
 import com.edu.platform.entity.Teacher;
+import com.edu.platform.entity.UserProfile;
 import com.edu.platform.exception.AccountNotFoundException;
 import com.edu.platform.exception.ParameterInvalidException;
 import com.edu.platform.mapper.TeacherMapper;
@@ -26,7 +28,8 @@ public class TeacherServiceImpl implements TeacherService {
     @Autowired
     private TeacherMapper teacherMapper;
 
-    LocalDateTime updateTime = LocalDateTime.now();
+    @Autowired
+    private UserProfileCache userProfileCache;
 
     /**
      * 教师信息修改
@@ -65,7 +68,6 @@ public class TeacherServiceImpl implements TeacherService {
         }
 
         teacher.setUpdateTime(LocalDateTime.now());
-        updateTime=teacher.getUpdateTime();
         // 5. 执行更新
         teacherMapper.updateTeacher(teacher, userId);
 
@@ -75,9 +77,9 @@ public class TeacherServiceImpl implements TeacherService {
         if(teacherUpdateDTO.getAvatar() != null){
             teacher.setAvatar(teacherUpdateDTO.getAvatar());
         }
-        if(teacherUpdateDTO.getNickName() != null || teacherUpdateDTO.getAvatar() != null){
-            teacherMapper.updateUser(teacher, userId);
-        }
+        // 同步刷新 edu_user.update_time（教师信息的更新时间以用户表为准）
+        teacherMapper.updateUser(teacher, userId);
+        userProfileCache.invalidate(userId);
         log.info("用户信息修改成功：ID={}", userId);
 
         Teacher teacher1 = teacherMapper.getById(userId);
@@ -100,19 +102,22 @@ public class TeacherServiceImpl implements TeacherService {
      */
     public TeacherInfoVO get(Long id) {
         log.info("教师信息获取");
-        Teacher teacher1 = teacherMapper.getById(id);
-        Teacher teacher2 = teacherMapper.get(id);
-        TeacherInfoVO teacherInfoVO= new TeacherInfoVO().builder()
+        UserProfile profile = userProfileCache.get(id);
+        if (profile == null || profile.getTeacherId() == null) {
+            log.warn("教师信息获取失败：教师不存在，ID={}", id);
+            throw new AccountNotFoundException(MessageConstant.TEACHER_NOT_FOUND);
+        }
+        TeacherInfoVO teacherInfoVO= TeacherInfoVO.builder()
                 .id(id)
-                .realName(teacher2.getRealName())
-                .nickName(teacher1.getNickName())
-                .title(teacher2.getTitle())
-                .introduction(teacher2.getIntroduction())
-                .phone(String.valueOf(teacher1.getPhone()))
-                .email(teacher1.getEmail())
-                .teachingYears(teacher2.getTeachingYears())
-                .createTime(teacher1.getCreateTime())
-                .updateTime(updateTime)
+                .realName(profile.getTeacherRealName())
+                .nickName(profile.getNickname())
+                .title(profile.getTitle())
+                .introduction(profile.getTeacherIntroduction())
+                .phone(String.valueOf(profile.getPhone()))
+                .email(profile.getEmail())
+                .teachingYears(profile.getTeachingYears())
+                .createTime(profile.getCreateTime())
+                .updateTime(profile.getUpdateTime())
                 .build();
         return teacherInfoVO;
     }
@@ -1,13 +1,20 @@
 package com.edu.platform.server.impl;
 
+import com.edu.platform.cache.UserProfileCache;
 import com.edu.platform.constant.MessageConstant;
 import com.edu.platform.constant.StatusConstant;
 import com.edu.platform.context.BaseContext;
 import com.edu.platform.dto.*;
 import com.edu.platform.entity.User;
+import com.edu.platform.entity.UserProfile;
 import com.edu.platform.exception.*;
 import com.edu.platform.mapper.UserMapper;
+import com.edu.platform.result.CursorPageResult;
+import com.edu.platform.result.PageCursor;
 import com.edu.platform.result.PageResult;
+import com.edu.platform.security.LoginAccountLimiter;
+import com.edu.platform.security.PasswordHasher;
+import com.edu.platform.security.TokenRevocationRegistry;
 import com.edu.platform.server.UserService;
 import com.edu.platform.vo.UserLoginVO;
 import com.github.pagehelper.Page;
@@ -15,10 +22,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.RequestBody;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 用户服务实现类（在线教育平台）
@@ -31,25 +38,38 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    @Autowired
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    @Autowired
+    private LoginAccountLimiter loginAccountLimiter;
+
     /**
      * 用户登录
      * @param userLoginDTO
      * @return
      */
-    @Transactional
     public User login(@RequestBody UserLoginDTO userLoginDTO) {
         Long id = userLoginDTO.getId();
         String password = userLoginDTO.getPassword();
         log.info("用户登录请求：用户名={}", id);
 
+        // 按账号限流（在查库和密码哈希之前）
+        loginAccountLimiter.acquire(id);
+
         User user = userMapper.getById(id);
         if (user == null) {
             log.warn("用户登录失败：用户名={}，原因=用户不存在", id);
             throw new AccountNotFoundException(MessageConstant.USER_NOT_FOUND);
         }
 
-        String encryptedPassword = DigestUtils.md5DigestAsHex(password.getBytes());
-        if (!encryptedPassword.equals(user.getPassword())) {
+        if (!passwordHasher.matches(password, user.getPassword())) {
             log.warn("用户登录失败：ID={}，原因=密码错误", id);
             throw new PasswordErrorException(MessageConstant.PASSWORD_ERROR);
         }
@@ -59,6 +79,12 @@ public class UserServiceImpl implements UserService {
             throw new AccountLockedException(MessageConstant.USER_LOCKED);
         }
 
+        // 旧MD5哈希或迭代次数偏低的哈希，登录成功后透明升级
+        if (passwordHasher.needsRehash(user.getPassword())) {
+            userMapper.upgradePassword(id, user.getPassword(), passwordHasher.hash(password));
+            log.info("用户密码哈希已升级：ID={}", id);
+        }
+
         log.info("用户登录成功：用户名={}，角色={}", id, user.getRole());
         return user;
     }
@@ -87,7 +113,7 @@ public class UserServiceImpl implements UserService {
         }
 
         // 密码加密
-        String encryptedPassword = DigestUtils.md5DigestAsHex(userRegisterDTO.getPassword().getBytes());
+        String encryptedPassword = passwordHasher.hash(userRegisterDTO.getPassword());
 
         // 构建 User 实体（补充 createUser/updateUser 赋值，避免数据库字段为 null）
         User user = User.builder()
@@ -141,9 +167,9 @@ public class UserServiceImpl implements UserService {
             throw new AccountNotFoundException(MessageConstant.USER_NOT_LOGIN);
         }
 
-        // 2. 调用Mapper查询用户信息
-        User user = userMapper.getById(userId);
-        if (user == null) {
+        // 2. 查询用户档案（优先读缓存）
+        UserProfile profile = userProfileCache.get(userId);
+        if (profile == null) {
             log.warn("获取当前用户信息失败：用户不存在，ID={}", userId);
             throw new AccountNotFoundException(MessageConstant.USER_NOT_FOUND);
         }
@@ -151,11 +177,11 @@ public class UserServiceImpl implements UserService {
         // 3. 转换为VO并返回
         log.info("获取当前用户信息成功，ID={}", userId);
         return UserLoginVO.builder()
-                .id(user.getId())
-                .username(user.getUsername())
-                .nickname(user.getNickname())
-                .role(user.getRole())
-                .avatar(user.getAvatar())
+                .id(profile.getId())
+                .username(profile.getUsername())
+                .nickname(profile.getNickname())
+                .role(profile.getRole())
+                .avatar(profile.getAvatar())
                 .build();
     }
 
@@ -203,6 +229,7 @@ public class UserServiceImpl implements UserService {
 
         // 5. 执行更新
         userMapper.update(user);
+        userProfileCache.invalidate(userId);
         log.info("用户信息修改成功：ID={}", userId);
 
         // 6. 返回更新后的用户信息（不含token，前端无需重新登录）
@@ -237,8 +264,7 @@ public class UserServiceImpl implements UserService {
         }
 
         // 3. 验证旧密码
-        String encryptedOldPassword = DigestUtils.md5DigestAsHex(passwordUpdateDTO.getOldPassword().getBytes());
-        if (!encryptedOldPassword.equals(user.getPassword())) {
+        if (!passwordHasher.matches(passwordUpdateDTO.getOldPassword(), user.getPassword())) {
             log.warn("密码修改失败：旧密码错误，用户ID={}", userId);
             throw new PasswordErrorException(MessageConstant.PASSWORD_ERROR);
         }
@@ -250,12 +276,13 @@ public class UserServiceImpl implements UserService {
         }
 
         // 5. 加密新密码并更新
-        String encryptedNewPassword = DigestUtils.md5DigestAsHex(passwordUpdateDTO.getNewPassword().getBytes());
+        String encryptedNewPassword = passwordHasher.hash(passwordUpdateDTO.getNewPassword());
         userMapper.updatePassword(
                 userId,
                 encryptedNewPassword,
                 LocalDateTime.now()
         );
+        userProfileCache.invalidate(userId);
         log.info("密码修改成功：用户ID={}", userId);
     }
 
@@ -287,13 +314,19 @@ public class UserServiceImpl implements UserService {
             throw new ParameterInvalidException(MessageConstant.PARAM_ERROR);
         }
 
-        // 4. 执行状态更新
+        // 4. 执行状态更新（同时持久化令牌生效起点，重启后据此重建吊销登记表）
+        LocalDateTime now = LocalDateTime.now();
+        // JWT 的 iat 精度为秒，生效起点按秒取整，避免启用后同一秒内登录的令牌被误判
+        LocalDateTime tokensValidAfter = now.withNano(0);
         userMapper.updateStatus(
                 id,
                 status,
-                LocalDateTime.now(),
-                user.getUsername() // 更新人ID为当前管理员
+                now,
+                user.getUsername(), // 更新人ID为当前管理员
+                tokensValidAfter
         );
+        userProfileCache.invalidate(id);
+        tokenRevocationRegistry.onStatusChanged(id, status, tokensValidAfter);
         log.info("用户状态修改成功：id={}，新状态={}", id, status);
     }
 
@@ -318,4 +351,28 @@ public class UserServiceImpl implements UserService {
         // 3. 封装分页结果
         return new PageResult(page.getTotal(), page.getResult());
     }
+
+    /**
+     * 游标分页查询用户（仅管理员，按更新时间倒序，不执行count查询）
+     * @param userPageQueryDTO 查询条件
+     * @return 游标分页结果
+     */
+    public CursorPageResult scrollQuery(UserPageQueryDTO userPageQueryDTO) {
+        log.info("游标分页查询用户：{}", userPageQueryDTO);
+
+        // 1. 校验当前登录用户是否为管理员
+        Integer currentRole = BaseContext.getUserRole();
+        if (currentRole == null || currentRole != 3) { // 3-管理员角色
+            log.warn("游标分页查询用户失败：非管理员操作，当前角色={}", currentRole);
+            throw new PermissionDeniedException(MessageConstant.ROLE_ERROR);
+        }
+
+        // 2. 多查一条用于判断是否还有下一页
+        int pageSize = CursorPageResult.normalizePageSize(userPageQueryDTO.getPageSize());
+        PageCursor cursor = PageCursor.decode(userPageQueryDTO.getCursor());
+        List<User> rows = userMapper.scrollQuery(userPageQueryDTO, cursor, pageSize + 1);
+
+        // 3. 封装游标分页结果
+        return CursorPageResult.of(rows, pageSize, user -> new PageCursor(user.getUpdateTime(), user.getId()));
+    }
 }
\ No newline at end of file
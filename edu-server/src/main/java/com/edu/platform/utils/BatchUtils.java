@@ -0,0 +1,77 @@
+package com.edu.platform.utils;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * 后台凑批写入工具类
+ * 用途：选课写入、支付结算、支付回调等“单线程消费队列、凑批后一个事务提交”的场景
+ */
+public class BatchUtils {
+
+    private BatchUtils() {
+    }
+
+    /**
+     * 阻塞等待第一条元素（最多1秒），然后在 lingerMillis 内尽量凑满一批
+     * @param queue 待处理队列
+     * @param batch 收集到的元素追加到该列表
+     * @param maxBatchSize 单批最大条数
+     * @param lingerMillis 收到第一条后最多等待的毫秒数
+     * @throws InterruptedException 等待期间被中断（已收集的元素保留在 batch 中）
+     */
+    public static <T> void collect(BlockingQueue<T> queue, List<T> batch, int maxBatchSize, long lingerMillis)
+            throws InterruptedException {
+        T first = queue.poll(1, TimeUnit.SECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) {
+                break;
+            }
+            T next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+    }
+
+    /**
+     * 整批执行；整批失败时逐条重试，逐条仍失败的交给 onItemFailure
+     * @param items 待处理元素
+     * @param batchAction 整批处理（通常是一个事务，失败时整体回滚）
+     * @param onBatchFailure 整批失败时的处理（记录日志等），之后开始逐条重试
+     * @param itemAction 单条处理
+     * @param onItemFailure 单条处理失败时的处理
+     * @return true-整批成功，false-已改为逐条处理
+     */
+    public static <T> boolean executeOrSplit(List<T> items,
+                                             Consumer<List<T>> batchAction,
+                                             Consumer<Exception> onBatchFailure,
+                                             Consumer<T> itemAction,
+                                             BiConsumer<T, Exception> onItemFailure) {
+        try {
+            batchAction.accept(items);
+            return true;
+        } catch (Exception e) {
+            onBatchFailure.accept(e);
+        }
+        for (T item : items) {
+            try {
+                itemAction.accept(item);
+            } catch (Exception e) {
+                onItemFailure.accept(item, e);
+            }
+        }
+        return false;
+    }
+}
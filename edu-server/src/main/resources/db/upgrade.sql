@@ -0,0 +1,151 @@
+-- ============================================================
+-- 在线教育平台数据库升级脚本（按顺序追加，已执行过的段落不要重复执行）
+-- ============================================================
+
+-- ------------------------------------------------------------
+-- 游标分页：排序键 + 主键 组成的复合索引，保证 seek 查询走索引且顺序稳定
+-- ------------------------------------------------------------
+alter table edu_course add index idx_update_time_id (update_time, id);
+alter table edu_user add index idx_update_time_id (update_time, id);
+alter table edu_pay_order add index idx_user_create_time_id (user_id, create_time, id);
+alter table edu_enroll add index idx_student_status_enroll_time (student_id, status, enroll_time, course_id);
+
+-- ------------------------------------------------------------
+-- 分类物化路径：path 形如 /1/5/（祖先ID + 自身ID），子树查询为 path 前缀匹配
+-- ------------------------------------------------------------
+alter table edu_category add column path varchar(512) not null default '' comment '分类路径（/祖先ID/.../自身ID/）';
+alter table edu_category add index idx_path (path);
+alter table edu_course add index idx_category_id (category_id);
+
+-- 回填已有分类路径（MySQL 8 递归CTE）
+update edu_category c
+join (
+    with recursive tree (id, path) as (
+        select id, concat('/', id, '/') from edu_category where parent_id = 0
+        union all
+        select child.id, concat(tree.path, child.id, '/')
+        from edu_category child join tree on child.parent_id = tree.id
+    )
+    select id, path from tree
+) t on c.id = t.id
+set c.path = t.path;
+
+-- ------------------------------------------------------------
+-- 密码哈希升级为 PBKDF2（pbkdf2$迭代次数$盐$哈希，约90字符），旧MD5哈希登录时自动升级
+-- ------------------------------------------------------------
+alter table edu_user modify column password varchar(128) not null comment '密码哈希';
+
+-- ------------------------------------------------------------
+-- 课程名额：capacity 为上限（null 不限），enrolled_count 由应用异步校准
+-- ------------------------------------------------------------
+alter table edu_course add column capacity int null default null comment '名额上限（null表示不限）';
+alter table edu_course add column enrolled_count int not null default 0 comment '已选人数（异步校准）';
+alter table edu_enroll add index idx_course_status (course_id, status);
+
+-- 回填已选人数
+update edu_course c
+set c.enrolled_count = (select count(*) from edu_enroll e where e.course_id = c.id and e.status = 1);
+
+-- ------------------------------------------------------------
+-- 学习进度：每个学生+课时一行，进度为已观看到的最大位置（秒），由应用批量 upsert
+-- ------------------------------------------------------------
+-- 新库按原有结构建表（已有表时跳过），之后的变更对新旧库统一执行
+create table if not exists edu_learn_record (
+    id          bigint auto_increment primary key,
+    student_id  bigint   not null comment '学生ID（edu_student.id）',
+    video_id    bigint   not null comment '课时ID',
+    progress    int      not null default 0 comment '已观看到的最大位置（秒）'
+) comment '学习进度';
+
+-- 合并历史重复记录：每个学生+课时保留ID最小的一行，进度取各行最大值，其余删除
+update edu_learn_record r
+    join (select min(id) as keep_id, max(progress) as max_progress
+          from edu_learn_record
+          group by student_id, video_id having count(*) > 1) d
+    on r.id = d.keep_id
+set r.progress = d.max_progress;
+
+delete r from edu_learn_record r
+    join (select student_id, video_id, min(id) as keep_id
+          from edu_learn_record
+          group by student_id, video_id having count(*) > 1) d
+    on r.student_id = d.student_id and r.video_id = d.video_id
+where r.id <> d.keep_id;
+
+-- 最后上报时间 + 唯一键（批量 upsert 依赖该唯一键用 greatest() 合并进度）
+alter table edu_learn_record
+    add column update_time datetime null comment '最后上报时间',
+    add unique key uk_student_video (student_id, video_id);
+
+-- ------------------------------------------------------------
+-- 学习数据统计汇总：按小时/天存储各指标（活跃人数、课程/教师观看时长、分类选课数）
+-- ------------------------------------------------------------
+create table if not exists edu_learning_stat (
+    id          bigint auto_increment primary key,
+    granularity varchar(8)  not null comment '粒度：HOUR-小时，DAY-天',
+    bucket_time datetime    not null comment '时间桶起点',
+    metric      varchar(32) not null comment '指标名',
+    dim_id      bigint      not null default 0 comment '维度ID（课程/教师/分类ID，无维度为0）',
+    stat_value  bigint      not null default 0 comment '指标值',
+    unique key uk_bucket_metric_dim (granularity, bucket_time, metric, dim_id)
+) comment '学习数据统计汇总';
+alter table edu_learn_record add index idx_update_time (update_time);
+
+-- ------------------------------------------------------------
+-- 订单超时关闭：启动时按状态加载待支付订单
+-- ------------------------------------------------------------
+alter table edu_pay_order add index idx_status_create_time (status, create_time);
+
+-- ------------------------------------------------------------
+-- 未支付订单唯一：同一用户同一课程最多一笔待支付订单（MySQL 无部分索引，用生成列实现；非待支付时为 NULL，不参与唯一约束）
+-- ------------------------------------------------------------
+-- 先关闭历史重复的待支付订单，只保留每个用户+课程最新的一笔
+update edu_pay_order o
+    join (select user_id, course_id, max(id) as keep_id
+          from edu_pay_order where status = 0
+          group by user_id, course_id having count(*) > 1) d
+    on o.user_id = d.user_id and o.course_id = d.course_id
+set o.status = 3, o.update_time = now()
+where o.status = 0 and o.id <> d.keep_id;
+
+alter table edu_pay_order
+    add column unpaid_key varchar(64)
+        generated always as (if(status = 0, concat(user_id, '_', course_id), null)) stored comment '未支付订单唯一键',
+    add unique key uk_unpaid_user_course (unpaid_key);
+
+-- ------------------------------------------------------------
+-- 支付回调收件箱：回调先落库再异步批量处理，trade_no 唯一键保证重复回调只处理一次
+-- ------------------------------------------------------------
+create table if not exists edu_pay_callback (
+    id               bigint auto_increment primary key,
+    order_no         varchar(64)  not null comment '订单编号',
+    trade_no         varchar(64)  not null comment '第三方支付交易号',
+    pay_platform     tinyint      not null comment '支付平台：1-微信，2-支付宝',
+    callback_content text         null comment '回调原文',
+    status           tinyint      not null default 0 comment '处理状态：0-待处理，1-已处理，2-已忽略，3-处理失败',
+    create_time      datetime     not null comment '接收时间',
+    process_time     datetime     null comment '处理时间',
+    unique key uk_trade_no (trade_no),
+    key idx_status (status)
+) comment '支付回调收件箱';
+
+-- ------------------------------------------------------------
+-- 令牌吊销持久化：禁用/启用账号时记录令牌生效起点，重启后据此重建吊销登记表
+-- ------------------------------------------------------------
+alter table edu_user add column tokens_valid_after datetime null comment '令牌生效起点：签发时间早于该时间的令牌无效';
+alter table edu_user add index idx_tokens_valid_after (tokens_valid_after);
+
+-- ------------------------------------------------------------
+-- 支付回调校验：记录回调金额，处理时与订单金额、支付方式核对
+-- ------------------------------------------------------------
+alter table edu_pay_callback add column total_fee decimal(10, 2) null comment '实付金额（元）' after pay_platform;
+
+-- ------------------------------------------------------------
+-- 支付回调失败重试：处理失败的回调保持待处理，按失败次数指数退避后重新加载
+-- （旧版本标记为处理失败(3)的回调恢复为待处理，避免已支付的订单一直停留在待支付）
+-- ------------------------------------------------------------
+alter table edu_pay_callback
+    add column retry_count     int      not null default 0 comment '处理失败次数' after status,
+    add column next_retry_time datetime null comment '下次重试时间（处理失败后退避）' after retry_count,
+    modify column status tinyint not null default 0 comment '处理状态：0-待处理（含处理失败待重试），1-已处理，2-已忽略';
+update edu_pay_callback set status = 0, next_retry_time = null where status = 3;
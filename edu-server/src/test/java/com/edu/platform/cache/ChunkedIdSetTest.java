@@ -0,0 +1,80 @@
+package com.edu.platform.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkedIdSetTest {
+
+    @Test
+    void matchesTreeSetUnderRandomAddAndRemove() {
+        Random random = new Random(42);
+        ChunkedIdSet set = new ChunkedIdSet();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 200_000; i++) {
+            // 既有密集区间（转为位图）也有稀疏的大ID（跨多个块）
+            int id = random.nextBoolean() ? random.nextInt(3000) : random.nextInt(5_000_000);
+            if (random.nextInt(4) == 0) {
+                assertEquals(expected.remove(id), set.remove(id));
+            } else {
+                assertEquals(expected.add(id), set.add(id));
+            }
+        }
+        assertEquals(expected.size(), set.size());
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), set.toArray());
+        for (int id = 0; id < 3000; id++) {
+            assertEquals(expected.contains(id), set.contains(id));
+        }
+    }
+
+    @Test
+    void intersectionCountAcrossChunks() {
+        ChunkedIdSet a = new ChunkedIdSet();
+        ChunkedIdSet b = new ChunkedIdSet();
+        for (int id = 0; id < 300_000; id += 3) {
+            a.add(id);
+        }
+        for (int id = 0; id < 300_000; id += 5) {
+            b.add(id);
+        }
+        // 同时是3和5的倍数：0, 15, 30, ... < 300000
+        assertEquals(20_000, a.intersectionCount(b));
+        assertEquals(20_000, b.intersectionCount(a));
+    }
+
+    @Test
+    void concurrentAddsAreNotLost() throws Exception {
+        ChunkedIdSet set = new ChunkedIdSet();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            pool.submit(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    set.add(i * 8L + thread);
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+        assertEquals(160_000, set.size());
+        assertEquals(160_000, set.toArray().length);
+    }
+
+    @Test
+    void compactIdSetToArrayIsACopy() {
+        CompactIdSet.Builder builder = new CompactIdSet.Builder();
+        builder.add(5);
+        builder.add(1_000_000);
+        CompactIdSet set = builder.build();
+        int[] values = set.toArray();
+        values[0] = 7;
+        assertTrue(set.contains(5));
+        assertFalse(set.contains(7));
+    }
+}
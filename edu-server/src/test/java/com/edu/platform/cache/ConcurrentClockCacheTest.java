@@ -0,0 +1,76 @@
+package com.edu.platform.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentClockCacheTest {
+
+    @Test
+    void evictsUnreferencedEntriesFirst() {
+        ConcurrentClockCache<Integer, String> cache = new ConcurrentClockCache<>(3);
+        cache.put(1, "a");
+        cache.put(2, "b");
+        cache.put(3, "c");
+        // 1 被访问过，淘汰时跳过，淘汰最早写入且未被访问的 2
+        assertEquals("a", cache.get(1));
+        cache.put(4, "d");
+
+        assertEquals("a", cache.get(1));
+        assertNull(cache.get(2));
+        assertEquals("c", cache.get(3));
+        assertEquals("d", cache.get(4));
+        assertEquals(1, cache.stats().getEvictionCount());
+    }
+
+    @Test
+    void invalidateRemovesEntry() {
+        ConcurrentClockCache<Integer, String> cache = new ConcurrentClockCache<>(2);
+        cache.put(1, "a");
+        cache.invalidate(1);
+        assertNull(cache.get(1));
+        // 过期节点不影响后续容量
+        cache.put(2, "b");
+        cache.put(3, "c");
+        assertEquals(2, cache.stats().getSize());
+    }
+
+    @Test
+    void staysBoundedUnderConcurrentChurn() throws Exception {
+        int maxEntries = 1000;
+        ConcurrentClockCache<Integer, Integer> cache = new ConcurrentClockCache<>(maxEntries);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 50_000; i++) {
+                    int key = random.nextInt(5000);
+                    Integer value = cache.get(key);
+                    if (value == null) {
+                        cache.put(key, key);
+                    } else {
+                        assertEquals(key, value.intValue());
+                        if (i % 7 == 0) {
+                            cache.invalidate(key);
+                        }
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        // 淘汰由抢到锁的写线程执行，收尾时再写入一次确保收缩完成
+        cache.put(-1, -1);
+        assertTrue(cache.stats().getSize() <= maxEntries, "size=" + cache.stats().getSize());
+    }
+}
@@ -0,0 +1,54 @@
+package com.edu.platform.cache;
+
+import com.edu.platform.batch.LearnProgressBuffer;
+import com.edu.platform.properties.LearnProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseCompletionTrackerTest {
+
+    private static CourseCompletionTracker tracker() {
+        CourseCompletionTracker tracker = new CourseCompletionTracker();
+        ReflectionTestUtils.setField(tracker, "learnProperties", new LearnProperties());
+        return tracker;
+    }
+
+    @Test
+    void videoIsWatchedAtRatioOfDuration() {
+        CourseCompletionTracker tracker = tracker();
+        // 没有事务时立即生效
+        tracker.onVideoAdded(1L, 100L, "00:10:00");
+        tracker.onVideoAdded(2L, 100L, "00:10:00");
+
+        tracker.onProgress(7L, 1L, LearnProgressBuffer.NO_RECORD, 539);
+        assertEquals(0, tracker.getCompletion(7L, 100L));
+        tracker.onProgress(7L, 1L, 539, 540);
+        assertEquals(50, tracker.getCompletion(7L, 100L));
+        // 已看完的课时继续上报不重复计数
+        tracker.onProgress(7L, 1L, 540, 600);
+        assertEquals(50, tracker.getCompletion(7L, 100L));
+    }
+
+    @Test
+    void videoWithMissingOrMalformedDurationCannotBeWatched() {
+        CourseCompletionTracker tracker = tracker();
+        tracker.onVideoAdded(1L, 100L, null);
+        tracker.onVideoAdded(2L, 100L, "");
+        tracker.onVideoAdded(3L, 100L, "10:30");
+        tracker.onVideoAdded(4L, 100L, "630");
+        tracker.onVideoAdded(5L, 100L, "00:00:00");
+        tracker.onVideoAdded(6L, 100L, "00:00:10");
+
+        // 首次上报（包括进度0）不能让时长无效的课时直接看完
+        for (long videoId = 1; videoId <= 5; videoId++) {
+            tracker.onProgress(7L, videoId, LearnProgressBuffer.NO_RECORD, 0);
+            tracker.onProgress(7L, videoId, 0, 3600);
+        }
+        assertEquals(0, tracker.getCompletion(7L, 100L));
+
+        tracker.onProgress(7L, 6L, LearnProgressBuffer.NO_RECORD, 9);
+        assertEquals(16, tracker.getCompletion(7L, 100L));
+    }
+}
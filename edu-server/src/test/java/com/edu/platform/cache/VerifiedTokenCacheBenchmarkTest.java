@@ -0,0 +1,101 @@
+package com.edu.platform.cache;
+
+import com.edu.platform.constant.JwtClaimsConstant;
+import com.edu.platform.properties.CacheProperties;
+import com.edu.platform.properties.JwtProperties;
+import com.edu.platform.utils.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.ToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 令牌校验开销对比：同一令牌完整解析（JwtUtil.parseToken：验签+Base64+JSON）与已校验令牌缓存命中
+ */
+class VerifiedTokenCacheBenchmarkTest {
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 100_000;
+    private static final int THREADS = 4;
+
+    private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache cache;
+    private final String token;
+
+    VerifiedTokenCacheBenchmarkTest() {
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setSecretKey("edu-platform-2025-secret-key-xxxxxx-yyyyyy-zzzzzz12");
+        jwtProperties.setTtl(3_600_000);
+        jwtUtil = new JwtUtil(jwtProperties);
+        cache = new VerifiedTokenCache(jwtUtil, new CacheProperties());
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(JwtClaimsConstant.USER_ID, 42L);
+        claims.put(JwtClaimsConstant.ROLE, 1);
+        token = jwtUtil.createToken(claims);
+    }
+
+    @Test
+    void cachedVerificationIsCheaperThanFullParse() throws Exception {
+        // 结果一致
+        Claims claims = jwtUtil.parseToken(token);
+        VerifiedToken verified = cache.verify(token);
+        assertEquals(((Number) claims.get(JwtClaimsConstant.USER_ID)).longValue(), verified.getUserId().longValue());
+        assertEquals(claims.get(JwtClaimsConstant.ROLE), verified.getRole());
+
+        ToLongFunction<String> parse = t -> jwtUtil.parseToken(t).getExpiration().getTime();
+        ToLongFunction<String> cached = t -> cache.verify(t).getExpiresAt();
+        run(1, WARMUP, parse);
+        run(1, WARMUP, cached);
+
+        double parseSingle = run(1, ITERATIONS, parse);
+        double cachedSingle = run(1, ITERATIONS, cached);
+        double parseConcurrent = run(THREADS, ITERATIONS, parse);
+        double cachedConcurrent = run(THREADS, ITERATIONS, cached);
+        System.out.printf("令牌校验（单线程）：完整解析 %.0f ns/次，缓存命中 %.0f ns/次，%.1f 倍%n",
+                parseSingle, cachedSingle, parseSingle / cachedSingle);
+        System.out.printf("令牌校验（%d线程）：完整解析 %.0f ns/次，缓存命中 %.0f ns/次，%.1f 倍%n",
+                THREADS, parseConcurrent, cachedConcurrent, parseConcurrent / cachedConcurrent);
+
+        // 只解析过一次，其余全部命中
+        assertEquals(0, cache.stats().getEvictionCount());
+        assertEquals(1, cache.stats().getMissCount());
+        assertEquals(WARMUP + 2L * ITERATIONS, cache.stats().getHitCount());
+        assertTrue(cachedSingle < parseSingle);
+    }
+
+    /**
+     * 多线程共执行 iterations 次校验
+     * @return 平均每次耗时（纳秒，按墙钟时间 / 总次数）
+     */
+    private double run(int threads, int iterations, ToLongFunction<String> verify) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<Long>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                long sink = 0;
+                for (int i = 0; i < iterations / threads; i++) {
+                    sink += verify.applyAsLong(token);
+                }
+                return sink;
+            }));
+        }
+        long sink = 0;
+        for (Future<Long> future : futures) {
+            sink += future.get();
+        }
+        long nanos = System.nanoTime() - start;
+        pool.shutdown();
+        assertNotEquals(0, sink);
+        return (double) nanos / iterations;
+    }
+}
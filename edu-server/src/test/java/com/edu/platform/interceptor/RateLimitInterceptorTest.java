@@ -0,0 +1,59 @@
+package com.edu.platform.interceptor;
+
+import com.edu.platform.properties.RateLimitProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitInterceptorTest {
+
+    private static final String PROXY = "10.0.0.1";
+
+    private RateLimitInterceptor interceptor() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setLogin(new RateLimitProperties.Rule(1, 0.001));
+        properties.setTrustedProxies(Collections.singletonList(PROXY));
+        return new RateLimitInterceptor(properties);
+    }
+
+    private boolean login(RateLimitInterceptor interceptor, String remoteAddr, String forwardedFor) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", RateLimitInterceptor.LOGIN_PATH);
+        request.setServletPath(RateLimitInterceptor.LOGIN_PATH);
+        request.setRemoteAddr(remoteAddr);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        boolean passed = interceptor.preHandle(request, response, null);
+        if (!passed) {
+            assertEquals(429, response.getStatus());
+        }
+        return passed;
+    }
+
+    @Test
+    void spoofedForwardedForFromUntrustedClientIsIgnored() throws Exception {
+        RateLimitInterceptor interceptor = interceptor();
+        assertTrue(login(interceptor, "203.0.113.7", "1.1.1.1"));
+        // 换一个伪造的 X-Forwarded-For 也拿不到新的令牌桶
+        assertFalse(login(interceptor, "203.0.113.7", "2.2.2.2"));
+        assertFalse(login(interceptor, "203.0.113.7", null));
+    }
+
+    @Test
+    void forwardedForFromTrustedProxyIdentifiesClient() throws Exception {
+        RateLimitInterceptor interceptor = interceptor();
+        assertTrue(login(interceptor, PROXY, "198.51.100.1"));
+        assertFalse(login(interceptor, PROXY, "198.51.100.1"));
+        // 不同客户端经同一代理进入，各自独立限流
+        assertTrue(login(interceptor, PROXY, "198.51.100.2"));
+        // 客户端自己在最左侧追加的地址不被采用，取代理追加的最右侧不可信地址
+        assertFalse(login(interceptor, PROXY, "9.9.9.9, 198.51.100.1"));
+    }
+}
@@ -0,0 +1,149 @@
+package com.edu.platform.pay;
+
+import com.edu.platform.properties.PayProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 订单编号生成开销与唯一索引写入局部性对比（Snowflake 编号 vs 原 UUID 截断编号）
+ */
+class OrderNoGeneratorBenchmarkTest {
+
+    private static final int COUNT = 200_000;
+    // 模拟的索引叶子页容量（条）
+    private static final int PAGE_CAPACITY = 100;
+
+    private final OrderNoGenerator generator = new OrderNoGenerator(new PayProperties());
+
+    @Test
+    void generatesUniqueIncreasingOrderNosAcrossThreads() throws Exception {
+        int threads = 4;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<List<String>>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                List<String> orderNos = new ArrayList<>(COUNT / threads);
+                for (int i = 0; i < COUNT / threads; i++) {
+                    orderNos.add(generator.nextOrderNo());
+                }
+                return orderNos;
+            }));
+        }
+        Set<String> all = new HashSet<>();
+        for (Future<List<String>> future : futures) {
+            List<String> orderNos = future.get();
+            // 单个线程内按生成顺序严格递增
+            for (int i = 1; i < orderNos.size(); i++) {
+                assertTrue(orderNos.get(i).compareTo(orderNos.get(i - 1)) > 0);
+            }
+            all.addAll(orderNos);
+        }
+        pool.shutdown();
+        assertEquals(COUNT, all.size());
+    }
+
+    @Test
+    void appendsToIndexTailWhileUuidSplitsPagesEverywhere() {
+        long start = System.nanoTime();
+        List<String> snowflake = generate(generator::nextOrderNo);
+        long snowflakeNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        List<String> uuid = generate(() -> "ORDER_" + UUID.randomUUID().toString().replace("-", "").substring(0, 16));
+        long uuidNanos = System.nanoTime() - start;
+
+        LeafPages sequential = LeafPages.insertAll(snowflake);
+        LeafPages random = LeafPages.insertAll(uuid);
+        System.out.printf("订单编号生成：snowflake %.0f ns/个，uuid %.0f ns/个%n",
+                (double) snowflakeNanos / COUNT, (double) uuidNanos / COUNT);
+        System.out.printf("索引写入：snowflake 尾部追加 %d/%d，页分裂 %d，叶子页 %d，填充率 %.0f%%%n",
+                sequential.tailInserts, COUNT, sequential.splits, sequential.pages.size(), sequential.fillFactor() * 100);
+        System.out.printf("索引写入：uuid 尾部追加 %d/%d，页分裂 %d，叶子页 %d，填充率 %.0f%%%n",
+                random.tailInserts, COUNT, random.splits, random.pages.size(), random.fillFactor() * 100);
+
+        // 递增编号每次都写在最右侧叶子页，页写满后才追加新页，页面几乎全满
+        assertEquals(COUNT, sequential.tailInserts);
+        assertTrue(sequential.fillFactor() > 0.95);
+        // 随机编号几乎都写在中间页，中间页分裂后只剩一半，页数明显更多
+        assertTrue(random.tailInserts < COUNT / 100);
+        assertTrue(random.pages.size() > sequential.pages.size() * 4 / 3);
+    }
+
+    private static List<String> generate(Supplier<String> supplier) {
+        List<String> orderNos = new ArrayList<>(COUNT);
+        for (int i = 0; i < COUNT; i++) {
+            orderNos.add(supplier.get());
+        }
+        return orderNos;
+    }
+
+    /**
+     * 简化的 B+树叶子层：按首个键索引的有序页；
+     * 与 InnoDB 一致，在最右页末尾插入时分裂出只含新记录的新页，其余位置对半分裂
+     */
+    private static final class LeafPages {
+        private final TreeMap<String, List<String>> pages = new TreeMap<>();
+        private int splits;
+        private int tailInserts;
+
+        static LeafPages insertAll(List<String> keys) {
+            LeafPages index = new LeafPages();
+            keys.forEach(index::insert);
+            return index;
+        }
+
+        void insert(String key) {
+            if (pages.isEmpty()) {
+                pages.put(key, new ArrayList<>(Collections.singletonList(key)));
+                tailInserts++;
+                return;
+            }
+            Map.Entry<String, List<String>> entry = pages.floorEntry(key);
+            if (entry == null) {
+                entry = pages.firstEntry();
+            }
+            List<String> page = entry.getValue();
+            int pos = Collections.binarySearch(page, key);
+            assertTrue(pos < 0, "重复的订单编号：" + key);
+            pos = -pos - 1;
+            boolean tail = entry.getKey().equals(pages.lastKey()) && pos == page.size();
+            if (tail) {
+                tailInserts++;
+            }
+            if (page.size() < PAGE_CAPACITY) {
+                page.add(pos, key);
+                if (pos == 0) {
+                    pages.remove(entry.getKey());
+                    pages.put(key, page);
+                }
+                return;
+            }
+            splits++;
+            if (tail) {
+                pages.put(key, new ArrayList<>(Collections.singletonList(key)));
+                return;
+            }
+            page.add(pos, key);
+            String firstKey = entry.getKey();
+            List<String> right = new ArrayList<>(page.subList(page.size() / 2, page.size()));
+            List<String> left = new ArrayList<>(page.subList(0, page.size() / 2));
+            pages.remove(firstKey);
+            pages.put(left.get(0), left);
+            pages.put(right.get(0), right);
+        }
+
+        double fillFactor() {
+            int total = 0;
+            for (List<String> page : pages.values()) {
+                total += page.size();
+            }
+            return (double) total / ((long) pages.size() * PAGE_CAPACITY);
+        }
+    }
+}
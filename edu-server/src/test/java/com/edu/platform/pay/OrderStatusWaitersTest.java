@@ -0,0 +1,80 @@
+package com.edu.platform.pay;
+
+import com.edu.platform.entity.EduPayOrder;
+import com.edu.platform.properties.PayProperties;
+import com.edu.platform.result.Result;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderStatusWaitersTest {
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static OrderStatusWaiters waiters() {
+        OrderStatusWaiters waiters = new OrderStatusWaiters();
+        ReflectionTestUtils.setField(waiters, "payProperties", new PayProperties());
+        return waiters;
+    }
+
+    private static EduPayOrder unpaid(String orderNo) {
+        EduPayOrder order = new EduPayOrder();
+        order.setOrderNo(orderNo);
+        order.setStatus(0);
+        return order;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static EduPayOrder resultOf(OrderStatusWaiters.Waiter waiter) {
+        return ((Result<EduPayOrder>) waiter.getResult().getResult()).getData();
+    }
+
+    @Test
+    void waiterRegisteredWhileTransactionIsOpenIsNotifiedOnCommit() {
+        OrderStatusWaiters waiters = waiters();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // 事务中状态已变更并登记通知，此时还没有等待者
+        LocalDateTime closeTime = LocalDateTime.now();
+        waiters.notifyAfterCommit(Collections.singletonList("ORDER_1"), 3, closeTime);
+
+        // 提交前登记的等待者查库仍读到待支付（MVCC）
+        OrderStatusWaiters.Waiter waiter = waiters.register("ORDER_1");
+        waiter.arm(unpaid("ORDER_1"));
+        assertFalse(waiter.getResult().hasResult());
+
+        // 提交后必须唤醒它
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        assertTrue(waiter.getResult().hasResult());
+        assertEquals(3, resultOf(waiter).getStatus());
+        assertEquals(closeTime, resultOf(waiter).getUpdateTime());
+    }
+
+    @Test
+    void notificationBeforeArmIsAppliedToSnapshot() {
+        OrderStatusWaiters waiters = waiters();
+        OrderStatusWaiters.Waiter waiter = waiters.register("ORDER_2");
+
+        // 没有事务时立即通知；等待者尚未拿到订单快照，先记下变化
+        waiters.notifyAfterCommit(Collections.singletonList("ORDER_2"), 1, LocalDateTime.now());
+        assertFalse(waiter.getResult().hasResult());
+
+        waiter.arm(unpaid("ORDER_2"));
+        assertEquals(1, resultOf(waiter).getStatus());
+        assertNotNull(resultOf(waiter).getPayTime());
+    }
+}
@@ -0,0 +1,314 @@
+package com.edu.platform.pay;
+
+import com.edu.platform.dto.PayCallbackDTO;
+import com.edu.platform.entity.EduPayOrder;
+import com.edu.platform.entity.PayCallback;
+import com.edu.platform.mapper.PayCallbackMapper;
+import com.edu.platform.mapper.PayLogMapper;
+import com.edu.platform.mapper.PayOrderMapper;
+import com.edu.platform.properties.PayProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 支付回调收件箱：真实的收件箱 + 内存模拟的回调表/订单表（可为每条SQL模拟一次往返+提交的耗时）
+ */
+class PayCallbackInboxTest {
+
+    private static final BigDecimal FEE = new BigDecimal("99.00");
+
+    private final PayCallbackMapper payCallbackMapper = Mockito.mock(PayCallbackMapper.class);
+    private final PayOrderMapper payOrderMapper = Mockito.mock(PayOrderMapper.class);
+    private final PayLogMapper payLogMapper = Mockito.mock(PayLogMapper.class);
+
+    // 模拟的 edu_pay_callback / edu_pay_order
+    private final Map<Long, PayCallback> callbacks = new ConcurrentHashMap<>();
+    private final Set<String> tradeNos = ConcurrentHashMap.newKeySet();
+    private final Map<String, EduPayOrder> orders = new ConcurrentHashMap<>();
+    private final AtomicLong callbackIds = new AtomicLong();
+    private final AtomicLong loggedPayments = new AtomicLong();
+    // 每条SQL模拟的耗时（毫秒）
+    private volatile long statementMillis;
+    // 模拟置为已支付时数据库出错的剩余次数
+    private final AtomicInteger markPaidFailures = new AtomicInteger();
+    private final PayProperties payProperties = new PayProperties();
+
+    private PayCallbackInbox inbox;
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            statement();
+            PayCallback callback = invocation.getArgument(0);
+            if (!tradeNos.add(callback.getTradeNo())) {
+                throw new DuplicateKeyException("uk_trade_no");
+            }
+            callback.setId(callbackIds.incrementAndGet());
+            callback.setStatus(0);
+            callbacks.put(callback.getId(), callback);
+            return null;
+        }).when(payCallbackMapper).insert(any());
+        when(payCallbackMapper.selectPendingIds(any(), anyInt())).thenAnswer(invocation -> {
+            statement();
+            LocalDateTime now = invocation.getArgument(0);
+            List<Long> pending = new ArrayList<>();
+            for (PayCallback callback : new TreeMap<>(callbacks).values()) {
+                if (callback.getStatus() == 0
+                        && (callback.getNextRetryTime() == null || !callback.getNextRetryTime().isAfter(now))) {
+                    pending.add(callback.getId());
+                }
+            }
+            return pending.subList(0, Math.min(pending.size(), invocation.<Integer>getArgument(1)));
+        });
+        when(payCallbackMapper.selectNextRetryTime()).thenAnswer(invocation -> callbacks.values().stream()
+                .filter(callback -> callback.getStatus() == 0 && callback.getNextRetryTime() != null)
+                .map(PayCallback::getNextRetryTime)
+                .min(Comparator.naturalOrder())
+                .orElse(null));
+        doAnswer(invocation -> {
+            statement();
+            PayCallback callback = callbacks.get(invocation.<Long>getArgument(0));
+            if (callback.getStatus() == 0) {
+                int retryCount = callback.getRetryCount() == null ? 0 : callback.getRetryCount();
+                long delay = Math.min(invocation.<Long>getArgument(2) << Math.min(retryCount, 20), invocation.<Long>getArgument(3));
+                callback.setNextRetryTime(invocation.<LocalDateTime>getArgument(1).plusNanos(delay * 1_000_000));
+                callback.setRetryCount(retryCount + 1);
+            }
+            return null;
+        }).when(payCallbackMapper).markRetry(anyLong(), any(), anyLong(), anyLong());
+        when(payCallbackMapper.selectPendingByIdsForUpdate(anyList())).thenAnswer(invocation -> {
+            statement();
+            List<PayCallback> pending = new ArrayList<>();
+            for (Long id : invocation.<List<Long>>getArgument(0)) {
+                PayCallback callback = callbacks.get(id);
+                if (callback != null && callback.getStatus() == 0) {
+                    pending.add(callback);
+                }
+            }
+            return pending;
+        });
+        doAnswer(invocation -> {
+            statement();
+            for (Long id : invocation.<List<Long>>getArgument(0)) {
+                callbacks.get(id).setStatus(invocation.getArgument(1));
+            }
+            return null;
+        }).when(payCallbackMapper).batchUpdateStatus(anyList(), anyInt(), any());
+        when(payOrderMapper.selectUnpaidByOrderNosForUpdate(anyList())).thenAnswer(invocation -> {
+            statement();
+            List<EduPayOrder> unpaid = new ArrayList<>();
+            for (String orderNo : invocation.<List<String>>getArgument(0)) {
+                EduPayOrder order = orders.get(orderNo);
+                if (order != null && order.getStatus() == 0) {
+                    unpaid.add(order);
+                }
+            }
+            return unpaid;
+        });
+        doAnswer(invocation -> {
+            statement();
+            if (markPaidFailures.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                throw new QueryTimeoutException("lock wait timeout");
+            }
+            for (String orderNo : invocation.<List<String>>getArgument(0)) {
+                orders.get(orderNo).setStatus(1);
+            }
+            return null;
+        }).when(payOrderMapper).batchMarkPaid(anyList(), any());
+        doAnswer(invocation -> {
+            statement();
+            loggedPayments.addAndGet(invocation.<List<?>>getArgument(0).size());
+            return null;
+        }).when(payLogMapper).batchInsert(anyList());
+
+        inbox = new PayCallbackInbox();
+        ReflectionTestUtils.setField(inbox, "payCallbackMapper", payCallbackMapper);
+        ReflectionTestUtils.setField(inbox, "payOrderMapper", payOrderMapper);
+        ReflectionTestUtils.setField(inbox, "payLogMapper", payLogMapper);
+        ReflectionTestUtils.setField(inbox, "payProperties", payProperties);
+        ReflectionTestUtils.setField(inbox, "orderStatusWaiters", Mockito.mock(OrderStatusWaiters.class));
+        ReflectionTestUtils.setField(inbox, "transactionTemplate", new TransactionTemplate() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                return action.doInTransaction(null);
+            }
+        });
+        inbox.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        inbox.stop();
+    }
+
+    private void order(String orderNo, int payType) {
+        EduPayOrder order = new EduPayOrder();
+        order.setOrderNo(orderNo);
+        order.setPayType(payType);
+        order.setTotalFee(FEE);
+        order.setStatus(0);
+        orders.put(orderNo, order);
+    }
+
+    private void statement() throws InterruptedException {
+        if (statementMillis > 0) {
+            Thread.sleep(statementMillis);
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "等待回调处理超时");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void ignoresCallbacksWhosePlatformOrAmountDoesNotMatchOrder() throws Exception {
+        order("ORDER_1", 1);
+
+        assertTrue(inbox.accept("ORDER_1", "T_PLATFORM", 2, FEE, null));
+        assertTrue(inbox.accept("ORDER_1", "T_AMOUNT", 1, new BigDecimal("0.01"), null));
+        await(() -> inbox.stats().getIgnored() == 2);
+        assertEquals(0, orders.get("ORDER_1").getStatus());
+
+        // 不符的回调不占用订单，之后的正确回调仍能完成支付；重复投递只应答不处理
+        assertTrue(inbox.accept("ORDER_1", "T_OK", 1, new BigDecimal("99"), null));
+        assertFalse(inbox.accept("ORDER_1", "T_OK", 1, new BigDecimal("99"), null));
+        await(() -> inbox.stats().getProcessed() == 1);
+        assertEquals(1, orders.get("ORDER_1").getStatus());
+        assertEquals(1, inbox.stats().getDuplicates());
+        verify(payLogMapper, times(1)).batchInsert(anyList());
+    }
+
+    @Test
+    void retriesCallbackAfterTransientFailure() throws Exception {
+        payProperties.setCallbackRetryBaseMillis(50);
+        order("ORDER_1", 1);
+        // 整批和逐条处理各失败一次
+        markPaidFailures.set(2);
+
+        assertTrue(inbox.accept("ORDER_1", "T_1", 1, FEE, null));
+        await(() -> callbacks.get(1L).getRetryCount() != null);
+        // 失败后回调仍为待处理，网关重投按重复应答
+        assertEquals(1, inbox.stats().getFailed());
+        assertEquals(0, callbacks.get(1L).getStatus());
+        assertEquals(1, callbacks.get(1L).getRetryCount());
+        assertFalse(inbox.accept("ORDER_1", "T_1", 1, FEE, null));
+
+        // 退避到期后从数据库重新加载并完成支付
+        await(() -> inbox.stats().getProcessed() == 1);
+        assertEquals(1, orders.get("ORDER_1").getStatus());
+        assertEquals(PayCallbackInbox.STATUS_PROCESSED, callbacks.get(1L).getStatus());
+        assertEquals(1, loggedPayments.get());
+    }
+
+    /**
+     * 吞吐对比：多个模拟网关线程投递已签名的回调（每笔投递两次，模拟网关重试），
+     * 与原实现（每条回调同步执行 查询订单+更新订单+写日志 三条SQL、无去重）对比
+     */
+    @Test
+    void throughputAgainstMockGateway() throws Exception {
+        int gatewayThreads = 8;
+        int payments = 2000;
+        statementMillis = 1;
+        PayProperties signerProperties = new PayProperties();
+        signerProperties.setCallbackSecret("gateway-secret");
+        PayCallbackSigner signer = new PayCallbackSigner();
+        ReflectionTestUtils.setField(signer, "payProperties", signerProperties);
+        signer.init();
+        List<PayCallbackDTO> deliveries = new ArrayList<>();
+        for (int i = 0; i < payments; i++) {
+            String orderNo = "ORDER_" + i;
+            order(orderNo, 1);
+            PayCallbackDTO callback = new PayCallbackDTO();
+            callback.setOrderNo(orderNo);
+            callback.setTradeNo("T_" + i);
+            callback.setPayPlatform(1);
+            callback.setTotalFee(FEE);
+            callback.setSign(signer.sign(orderNo, callback.getTradeNo(), 1, FEE, null));
+            deliveries.add(callback);
+            deliveries.add(callback);
+        }
+
+        // 原实现：每次投递同步执行三条SQL
+        long baselineNanos = deliver(gatewayThreads, deliveries, callback -> {
+            statement();
+            statement();
+            statement();
+        });
+
+        // 收件箱：验签后落库即应答，订单状态由后台线程凑批变更
+        long start = System.nanoTime();
+        long ackNanos = deliver(gatewayThreads, deliveries, callback -> {
+            assertTrue(signer.verify(callback));
+            inbox.accept(callback.getOrderNo(), callback.getTradeNo(), callback.getPayPlatform(),
+                    callback.getTotalFee(), callback.getCallbackContent());
+        });
+        await(() -> inbox.stats().getProcessed() == payments);
+        long settledNanos = System.nanoTime() - start;
+
+        PayCallbackStats stats = inbox.stats();
+        System.out.printf("支付回调吞吐：原实现 %.0f 次/秒；收件箱应答 %.0f 次/秒，全部入账 %.0f 笔/秒，批次数 %d%n",
+                deliveries.size() * 1e9 / baselineNanos, deliveries.size() * 1e9 / ackNanos,
+                payments * 1e9 / settledNanos, stats.getBatches());
+
+        assertEquals(payments, stats.getReceived());
+        assertEquals(payments, stats.getDuplicates());
+        assertEquals(payments, loggedPayments.get());
+        assertTrue(orders.values().stream().allMatch(order -> order.getStatus() == 1));
+        assertTrue(stats.getBatches() < payments / 4);
+        assertTrue(ackNanos < baselineNanos);
+    }
+
+    private interface Delivery {
+        void post(PayCallbackDTO callback) throws Exception;
+    }
+
+    /**
+     * 多个网关线程并发投递，返回全部投递完成的耗时（纳秒）
+     */
+    private static long deliver(int threads, List<PayCallbackDTO> deliveries, Delivery delivery) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        AtomicInteger next = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                for (int i; (i = next.getAndIncrement()) < deliveries.size(); ) {
+                    delivery.post(deliveries.get(i));
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long nanos = System.nanoTime() - start;
+        pool.shutdown();
+        return nanos;
+    }
+}
@@ -0,0 +1,77 @@
+package com.edu.platform.pay;
+
+import com.edu.platform.dto.PayCallbackDTO;
+import com.edu.platform.properties.PayProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PayCallbackSignerTest {
+
+    private static PayCallbackSigner signer(String secret) {
+        PayProperties properties = new PayProperties();
+        properties.setCallbackSecret(secret);
+        PayCallbackSigner signer = new PayCallbackSigner();
+        ReflectionTestUtils.setField(signer, "payProperties", properties);
+        signer.init();
+        return signer;
+    }
+
+    private static PayCallbackDTO callback(PayCallbackSigner signer) {
+        PayCallbackDTO callback = new PayCallbackDTO();
+        callback.setOrderNo("ORDER_0000000000001");
+        callback.setTradeNo("WX202501010001");
+        callback.setPayPlatform(1);
+        callback.setTotalFee(new BigDecimal("99.00"));
+        callback.setCallbackContent("{\"result\":\"SUCCESS\"}");
+        callback.setSign(signer.sign(callback.getOrderNo(), callback.getTradeNo(), callback.getPayPlatform(),
+                callback.getTotalFee(), callback.getCallbackContent()));
+        return callback;
+    }
+
+    @Test
+    void acceptsCallbackSignedWithSharedSecret() {
+        PayCallbackSigner signer = signer("gateway-secret");
+        PayCallbackDTO callback = callback(signer);
+        assertTrue(signer.verify(callback));
+
+        // 金额写法不同（99 与 99.00）签名一致，大写十六进制同样接受
+        callback.setTotalFee(new BigDecimal("99"));
+        callback.setSign(callback.getSign().toUpperCase());
+        assertTrue(signer.verify(callback));
+    }
+
+    @Test
+    void rejectsTamperedOrUnsignedCallbacks() {
+        PayCallbackSigner signer = signer("gateway-secret");
+
+        PayCallbackDTO tamperedFee = callback(signer);
+        tamperedFee.setTotalFee(new BigDecimal("0.01"));
+        assertFalse(signer.verify(tamperedFee));
+
+        PayCallbackDTO tamperedOrder = callback(signer);
+        tamperedOrder.setOrderNo("ORDER_0000000000002");
+        assertFalse(signer.verify(tamperedOrder));
+
+        PayCallbackDTO tamperedPlatform = callback(signer);
+        tamperedPlatform.setPayPlatform(2);
+        assertFalse(signer.verify(tamperedPlatform));
+
+        PayCallbackDTO unsigned = callback(signer);
+        unsigned.setSign(null);
+        assertFalse(signer.verify(unsigned));
+
+        // 其他密钥签出的回调
+        assertFalse(signer.verify(callback(signer("another-secret"))));
+    }
+
+    @Test
+    void rejectsEverythingWithoutConfiguredSecret() {
+        PayCallbackDTO callback = callback(signer("gateway-secret"));
+        assertFalse(signer(null).verify(callback));
+        assertFalse(signer("").verify(callback));
+    }
+}
@@ -0,0 +1,196 @@
+package com.edu.platform.seat;
+
+import com.edu.platform.batch.EnrollBatchWriter;
+import com.edu.platform.entity.Course;
+import com.edu.platform.exception.BaseException;
+import com.edu.platform.mapper.CourseMapper;
+import com.edu.platform.mapper.StudentMapper;
+import com.edu.platform.properties.EnrollProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * 名额台账并发超卖压测：多线程按选课流程（占位 -> 批量写入 -> 确认/归还）抢同一门课程
+ */
+class SeatLedgerStressTest {
+
+    private static final long COURSE_ID = 1L;
+    private static final int THREADS = 32;
+
+    private final CourseMapper courseMapper = Mockito.mock(CourseMapper.class);
+    private ExecutorService pool;
+    private EnrollBatchWriter writer;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    private SeatLedger ledger(Integer capacity) {
+        Course course = new Course();
+        course.setCapacity(capacity);
+        when(courseMapper.selectCapacityById(anyLong())).thenReturn(course);
+        when(courseMapper.countActiveEnrollByCourseId(anyLong())).thenReturn(0);
+        SeatLedger ledger = new SeatLedger();
+        ReflectionTestUtils.setField(ledger, "courseMapper", courseMapper);
+        return ledger;
+    }
+
+    /**
+     * 剩余可占名额数（逐个占满后全部归还）
+     */
+    private static int remaining(SeatLedger ledger) {
+        int remaining = 0;
+        while (ledger.reserve(COURSE_ID)) {
+            remaining++;
+        }
+        for (int i = 0; i < remaining; i++) {
+            ledger.release(COURSE_ID);
+        }
+        return remaining;
+    }
+
+    @Test
+    void concurrentReserveNeverExceedsCapacity() throws Exception {
+        int capacity = 100;
+        SeatLedger ledger = ledger(capacity);
+        AtomicInteger granted = new AtomicInteger();
+        AtomicInteger released = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < THREADS; t++) {
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 500; i++) {
+                    if (ledger.reserve(COURSE_ID)) {
+                        granted.incrementAndGet();
+                        // 模拟部分选课写入失败/重复后归还名额
+                        if (i % 3 == 0) {
+                            ledger.release(COURSE_ID);
+                            released.incrementAndGet();
+                        }
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        int held = granted.get() - released.get();
+        assertEquals(capacity, held);
+        assertEquals(0, remaining(ledger));
+    }
+
+    @Test
+    void timedOutEnrollmentsNeverLandAfterSeatIsReleased() throws Exception {
+        int capacity = 40;
+        SeatLedger ledger = ledger(capacity);
+
+        // 模拟慢数据库：每批写入耗时远超调用方等待时间，制造大量等待超时
+        Set<Long> inserted = ConcurrentHashMap.newKeySet();
+        StudentMapper studentMapper = Mockito.mock(StudentMapper.class);
+        when(studentMapper.batchInsertEnroll(anyList())).thenAnswer(invocation -> {
+            Thread.sleep(30);
+            List<EnrollBatchWriter.EnrollRequest> rows = invocation.getArgument(0);
+            rows.forEach(row -> inserted.add(row.getStudentId()));
+            return rows.size();
+        });
+        when(studentMapper.select(anyLong(), anyLong(), any())).thenAnswer(invocation -> {
+            inserted.add(invocation.getArgument(0));
+            return 1;
+        });
+        EnrollProperties properties = new EnrollProperties();
+        properties.setTimeoutMillis(10);
+        properties.setLingerMillis(1);
+        properties.setMaxBatchSize(4);
+        writer = new EnrollBatchWriter();
+        ReflectionTestUtils.setField(writer, "studentMapper", studentMapper);
+        ReflectionTestUtils.setField(writer, "enrollProperties", properties);
+        ReflectionTestUtils.setField(writer, "transactionTemplate", new TransactionTemplate() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                return action.doInTransaction(null);
+            }
+        });
+        writer.start();
+
+        // 与 StudentServiceImpl.select 相同的流程
+        AtomicInteger nextStudentId = new AtomicInteger();
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger timedOut = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < THREADS; t++) {
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 20; i++) {
+                    long studentId = nextStudentId.incrementAndGet();
+                    if (!ledger.reserve(COURSE_ID)) {
+                        continue;
+                    }
+                    EnrollBatchWriter.Result result;
+                    try {
+                        result = writer.enroll(studentId, COURSE_ID);
+                    } catch (BaseException e) {
+                        timedOut.incrementAndGet();
+                        ledger.release(COURSE_ID);
+                        continue;
+                    }
+                    if (result == EnrollBatchWriter.Result.DUPLICATE) {
+                        ledger.release(COURSE_ID);
+                        continue;
+                    }
+                    ledger.confirm(COURSE_ID);
+                    succeeded.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+        // 让写入线程处理完队列里已撤销的请求（撤销的请求必须被跳过）
+        Thread.sleep(300);
+
+        assertTrue(timedOut.get() > 0, "压测应触发等待超时路径");
+        assertTrue(inserted.size() <= capacity, "超卖：写入" + inserted.size() + "条，名额" + capacity);
+        assertEquals(succeeded.get(), inserted.size(), "写入条数应与选课成功数一致");
+        assertEquals(capacity - inserted.size(), remaining(ledger), "已占名额应与写入条数一致");
+    }
+
+    @Test
+    void zeroCapacityAdmitsNobodyAndNullIsUnlimited() {
+        assertFalse(ledger(0).reserve(COURSE_ID));
+
+        SeatLedger unlimited = ledger(null);
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(unlimited.reserve(COURSE_ID));
+        }
+    }
+}
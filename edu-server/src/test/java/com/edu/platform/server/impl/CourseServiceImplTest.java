@@ -0,0 +1,158 @@
+package com.edu.platform.server.impl;
+
+import com.edu.platform.analytics.LearningAnalytics;
+import com.edu.platform.cache.CourseDetailCache;
+import com.edu.platform.cache.PublishedCatalog;
+import com.edu.platform.context.BaseContext;
+import com.edu.platform.dto.CourseUpdateDTO;
+import com.edu.platform.entity.Chapter;
+import com.edu.platform.entity.Course;
+import com.edu.platform.entity.Video;
+import com.edu.platform.mapper.CourseMapper;
+import com.edu.platform.search.CourseSearchIndex;
+import com.edu.platform.seat.SeatLedger;
+import com.edu.platform.vo.ChapterVO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * 课程服务测试
+ * 1. 课程大纲加载的SQL条数回归测试：无论章节数多少，都只执行固定条数的查询；
+ * 2. 修改课程时名额上限的处理：不传保持原值，clearCapacity 才取消上限
+ */
+@ExtendWith(MockitoExtension.class)
+class CourseServiceImplTest {
+
+    private static final Long COURSE_ID = 1L;
+    private static final int VIDEOS_PER_CHAPTER = 3;
+
+    @Mock
+    private CourseMapper courseMapper;
+
+    @Mock
+    private CourseDetailCache courseDetailCache;
+
+    @Mock
+    private CourseSearchIndex courseSearchIndex;
+
+    @Mock
+    private PublishedCatalog publishedCatalog;
+
+    @Mock
+    private LearningAnalytics learningAnalytics;
+
+    @Spy
+    private SeatLedger seatLedger = new SeatLedger();
+
+    @InjectMocks
+    private CourseServiceImpl courseService;
+
+    @AfterEach
+    void tearDown() {
+        BaseContext.clear();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 200})
+    void outlineUsesTwoStatementsWhateverTheChapterCount(int chapterCount) {
+        List<Chapter> chapters = new ArrayList<>();
+        List<Video> videos = new ArrayList<>();
+        for (long c = 1; c <= chapterCount; c++) {
+            Chapter chapter = new Chapter();
+            chapter.setId(c);
+            chapter.setCourseId(COURSE_ID);
+            chapters.add(chapter);
+            for (int v = 0; v < VIDEOS_PER_CHAPTER; v++) {
+                Video video = new Video();
+                video.setId(c * 100 + v);
+                video.setChapterId(c);
+                video.setSort(v);
+                videos.add(video);
+            }
+        }
+        when(courseMapper.selectChaptersByCourseId(eq(COURSE_ID))).thenReturn(chapters);
+        when(courseMapper.selectByChapterIds(anyList())).thenReturn(videos);
+
+        List<ChapterVO> outline = courseService.getChaptersWithVideos(COURSE_ID);
+
+        assertEquals(chapterCount, outline.size());
+        outline.forEach(chapter -> assertEquals(VIDEOS_PER_CHAPTER, chapter.getVideoList().size()));
+        assertEquals(2, Mockito.mockingDetails(courseMapper).getInvocations().size());
+    }
+
+    @Test
+    void emptyCourseUsesOneStatement() {
+        when(courseMapper.selectChaptersByCourseId(eq(COURSE_ID))).thenReturn(new ArrayList<>());
+
+        assertEquals(0, courseService.getChaptersWithVideos(COURSE_ID).size());
+        assertEquals(1, Mockito.mockingDetails(courseMapper).getInvocations().size());
+    }
+
+    private static CourseUpdateDTO edit() {
+        CourseUpdateDTO dto = new CourseUpdateDTO();
+        dto.setTitle("修改后的标题");
+        dto.setStatus(1);
+        return dto;
+    }
+
+    @Test
+    void updateWithoutCapacityKeepsSeatLimit() {
+        BaseContext.setUserRole(3);
+        ReflectionTestUtils.setField(seatLedger, "courseMapper", courseMapper);
+        Course limited = new Course();
+        limited.setCapacity(2);
+        when(courseMapper.selectCapacityById(COURSE_ID)).thenReturn(limited);
+        when(courseMapper.countActiveEnrollByCourseId(COURSE_ID)).thenReturn(0);
+        assertTrue(seatLedger.reserve(COURSE_ID));
+        assertTrue(seatLedger.reserve(COURSE_ID));
+        assertFalse(seatLedger.reserve(COURSE_ID));
+
+        // 教师端普通编辑不携带 capacity：SQL 保持原值（capacity 传null走 coalesce），台账不变
+        courseService.updateCourse(COURSE_ID, edit());
+
+        ArgumentCaptor<Course> updated = ArgumentCaptor.forClass(Course.class);
+        verify(courseMapper).updateCourse(updated.capture());
+        assertNull(updated.getValue().getCapacity());
+        verify(courseMapper, never()).clearCapacity(any(), any());
+        verify(seatLedger, never()).onCapacityChanged(any(), any());
+        assertFalse(seatLedger.reserve(COURSE_ID));
+
+        // 显式取消上限后才改为不限
+        CourseUpdateDTO clear = edit();
+        clear.setClearCapacity(true);
+        courseService.updateCourse(COURSE_ID, clear);
+
+        verify(courseMapper).clearCapacity(eq(COURSE_ID), any());
+        assertTrue(seatLedger.reserve(COURSE_ID));
+    }
+
+    @Test
+    void rejectsSettingAndClearingCapacityTogether() {
+        BaseContext.setUserRole(3);
+        CourseUpdateDTO dto = edit();
+        dto.setCapacity(10);
+        dto.setClearCapacity(true);
+
+        assertThrows(IllegalArgumentException.class, () -> courseService.updateCourse(COURSE_ID, dto));
+        verify(courseMapper, never()).updateCourse(any());
+    }
+}